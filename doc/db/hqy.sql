@@ -83,6 +83,7 @@ CREATE TABLE `t_rpc_flow_record` (
   `provider` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci DEFAULT NULL COMMENT 'rpc提供者',
   `method_detail` varchar(1024) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci DEFAULT NULL COMMENT 'rpc方法的计数map json',
   `service_detail` varchar(1536) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci DEFAULT NULL COMMENT 'rpc接口的计数map json',
+  `latency_detail` text CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci COMMENT 'rpc方法耗时分位数 json',
   `failure` int DEFAULT NULL COMMENT '调用失败的次数',
   `success` int DEFAULT NULL COMMENT '调用成功的次数',
   `total` int DEFAULT NULL COMMENT '调用总次数',
@@ -10,6 +10,8 @@ import com.hqy.cloud.coll.struct.ThrottledBlockStruct;
 import com.hqy.cloud.rpc.service.RPCService;
 import com.hqy.cloud.rpc.thrift.struct.PageStruct;
 
+import java.util.List;
+
 /**
  * 采集服务RPC接口
  * @author qy
@@ -25,6 +27,13 @@ public interface CollPersistService extends RPCService {
     @ThriftMethod(oneway = true)
     void saveThrottledBlockHistory(@ThriftField(1) ThrottledBlockStruct struct);
 
+    /**
+     * 批量保存网关封禁的ip记录到数据库
+     * @param structs thrift rpc structs
+     */
+    @ThriftMethod(oneway = true)
+    void saveThrottledBlockHistories(@ThriftField(1) List<ThrottledBlockStruct> structs);
+
     /**
      * 删除一条网关封禁记录
      * @param id ThrottledBlock ID
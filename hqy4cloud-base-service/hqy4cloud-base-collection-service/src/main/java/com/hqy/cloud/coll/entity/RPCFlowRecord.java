@@ -59,6 +59,11 @@ public class RPCFlowRecord extends BaseEntity<Long> {
      */
     private String methodDetail;
 
+    /**
+     * 方法维度的耗时分位数 p50/p99/p999
+     */
+    private String latencyDetail;
+
     public RPCFlowRecord() {
     }
 
@@ -72,6 +77,7 @@ public class RPCFlowRecord extends BaseEntity<Long> {
         this.total = struct.total;
         this.methodDetail = struct.methodDetail;
         this.serviceDetail = struct.serviceDetail;
+        this.latencyDetail = struct.latencyDetail;
     }
 
 }
@@ -43,6 +43,17 @@ public class CollPersistServiceImpl extends AbstractRPCService implements CollPe
         }
     }
 
+    @Override
+    public void saveThrottledBlockHistories(List<ThrottledBlockStruct> structs) {
+        if (CollectionUtils.isEmpty(structs)) {
+            return;
+        }
+        List<ThrottledBlock> ipBlocks = structs.stream().filter(Objects::nonNull).map(ThrottledBlock::new).collect(Collectors.toList());
+        if (!ipBlocks.isEmpty() && !throttledBlockService.insertList(ipBlocks)) {
+            log.error("@@@ Insert throttledIpBlock data failure, size:{}", ipBlocks.size());
+        }
+    }
+
     @Override
     public void deleteThrottledBlockHistory(Long id) {
         if (id == null) {
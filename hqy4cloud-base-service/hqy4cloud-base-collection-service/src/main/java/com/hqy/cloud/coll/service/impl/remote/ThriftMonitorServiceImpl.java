@@ -51,4 +51,13 @@ public class ThriftMonitorServiceImpl implements ThriftMonitorService {
         }
         rpcExceptionRecordService.insert(new RPCExceptionRecord(struct));
     }
+
+    @Override
+    public void collectRpcExceptionList(List<ThriftRpcExceptionStruct> structs) {
+        if (CollectionUtils.isEmpty(structs)) {
+            return;
+        }
+        List<RPCExceptionRecord> records = structs.stream().map(RPCExceptionRecord::new).collect(Collectors.toList());
+        ParentExecutorService.getInstance().execute(() -> rpcExceptionRecordService.insertList(records));
+    }
 }
@@ -47,6 +47,11 @@ public class CacheConfig {
      */
     private boolean isUsingRedis;
 
+    /**
+     * 空值(数据源中不存在)缓存的过期时间, 防止缓存穿透; 小于等于0表示不缓存空值
+     */
+    private long negativeExpiredSeconds = 30;
+
 
     public CacheConfig() {
         this(NumberConstants.ONE_DAY_4MILLISECONDS);
@@ -1,6 +1,8 @@
 package com.hqy.cloud.foundation.cache;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +29,22 @@ public interface CacheDataService<T, PK> {
      */
     List<T> getData(List<PK> pks);
 
+    /**
+     * 批量获取数据
+     * @param pks 主键集合
+     * @return    存在的数据, key: 主键
+     */
+    default Map<PK, T> getAll(Collection<PK> pks) {
+        Map<PK, T> result = new HashMap<>(pks.size());
+        for (PK pk : pks) {
+            T data = getData(pk);
+            if (data != null) {
+                result.put(pk, data);
+            }
+        }
+        return result;
+    }
+
     /**
      * 保存缓存
      * @param pk    唯一标识
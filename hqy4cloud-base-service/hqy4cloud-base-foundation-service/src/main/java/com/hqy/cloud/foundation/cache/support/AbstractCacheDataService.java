@@ -13,9 +13,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -25,6 +32,8 @@ import java.util.stream.Collectors;
  * 可根据配置引导类判断是否采用redis作为缓存service的二级缓存
  * redis采用的数据结构为map... 因此务必严谨使用redis map... 从而导致redis内存溢出
  * 如果是在分布式环境下使用， 对缓存一致性要求严格的话。。。 不建议推荐使用service。。。建议使用 {@link RedisCacheDataService}.
+ * 批量查询 {@link #getAll(Collection)}: 一级缓存 -> redis hmget -> 批量查询数据源,
+ * 同一个key的并发加载会合并为一次(single-flight), 数据源中不存在的key会短暂缓存空值防止缓存穿透.
  * @author qiyuan.hong
  * @version 1.0
  * @date 2022/10/8 13:34
@@ -36,6 +45,16 @@ public abstract class AbstractCacheDataService<T, PK> implements CacheDataServic
     protected final boolean usingRedis;
     private String redisKey;
 
+    /**
+     * 数据源中不存在的key.
+     */
+    private final Cache<PK, Boolean> negativeCached;
+
+    /**
+     * 正在从数据源加载的key.
+     */
+    private final Map<PK, CompletableFuture<T>> loading = new ConcurrentHashMap<>();
+
     public AbstractCacheDataService(CacheConfig config) {
         CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
                 //设置并发级别为8，并发级别是指可以同时写缓存的线程数
@@ -55,6 +74,8 @@ public abstract class AbstractCacheDataService<T, PK> implements CacheDataServic
             builder = builder.weakValues();
         }
         cached = builder.build();
+        negativeCached = config.getNegativeExpiredSeconds() > 0 ?
+                CacheBuilder.newBuilder().maximumSize(config.getMaximumSize()).expireAfterWrite(config.getNegativeExpiredSeconds(), TimeUnit.SECONDS).build() : null;
         usingRedis = config.isUsingRedis();
         if (usingRedis) {
             log.info("Start cache service, using redis cache.");
@@ -68,17 +89,7 @@ public abstract class AbstractCacheDataService<T, PK> implements CacheDataServic
         AssertUtil.notNull(pk, "Cache key should not be null.");
         T cache = cached.getIfPresent(pk);
         if (cache == null) {
-            if (usingRedis) {
-                cache = RedisManager.getInstance().hGet(redisKey, pk.toString());
-            }
-            if (cache == null) {
-                cache = getCacheFromDb(pk);
-                if (cache != null) {
-                    cache(pk, cache);
-                }
-            } else {
-                cached.put(pk, cache);
-            }
+            cache = getAll(Collections.singletonList(pk)).get(pk);
         }
         return cache;
     }
@@ -88,7 +99,146 @@ public abstract class AbstractCacheDataService<T, PK> implements CacheDataServic
         if (CollectionUtils.isEmpty(pks)) {
             return Collections.emptyList();
         }
-        return pks.stream().map(this::getData).collect(Collectors.toList());
+        Map<PK, T> result = getAll(pks);
+        return pks.stream().map(result::get).collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<PK, T> getAll(Collection<PK> pks) {
+        if (CollectionUtils.isEmpty(pks)) {
+            return Collections.emptyMap();
+        }
+        Map<PK, T> result = new HashMap<>(pks.size());
+        // 1. 一级缓存
+        Set<PK> misses = new LinkedHashSet<>();
+        for (PK pk : pks) {
+            AssertUtil.notNull(pk, "Cache key should not be null.");
+            T cache = cached.getIfPresent(pk);
+            if (cache != null) {
+                result.put(pk, cache);
+            } else if (negativeCached == null || negativeCached.getIfPresent(pk) == null) {
+                misses.add(pk);
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        // 2. redis hmget
+        if (usingRedis) {
+            loadFromRedis(misses, result);
+            if (misses.isEmpty()) {
+                return result;
+            }
+        }
+
+        // 3. 数据源, 同一个key的并发加载只有一个线程执行.
+        Map<PK, CompletableFuture<T>> owned = new HashMap<>(misses.size());
+        Map<PK, CompletableFuture<T>> waiting = new HashMap<>(4);
+        for (PK pk : misses) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            CompletableFuture<T> exist = loading.putIfAbsent(pk, future);
+            if (exist == null) {
+                owned.put(pk, future);
+            } else {
+                waiting.put(pk, exist);
+            }
+        }
+        if (!owned.isEmpty()) {
+            loadFromDb(owned, result);
+        }
+        for (Map.Entry<PK, CompletableFuture<T>> entry : waiting.entrySet()) {
+            T cache = join(entry.getValue());
+            if (cache != null) {
+                result.put(entry.getKey(), cache);
+            }
+        }
+        return result;
+    }
+
+    private void loadFromRedis(Set<PK> misses, Map<PK, T> result) {
+        List<Object> fields = misses.stream().map(PK::toString).collect(Collectors.toList());
+        try {
+            List<T> values = RedisManager.getInstance().hmGet(redisKey, fields);
+            if (values == null) {
+                return;
+            }
+            int i = 0;
+            for (PK pk : new ArrayList<>(misses)) {
+                T cache = i < values.size() ? values.get(i) : null;
+                i++;
+                if (cache != null) {
+                    cached.put(pk, cache);
+                    result.put(pk, cache);
+                    misses.remove(pk);
+                }
+            }
+        } catch (Exception cause) {
+            log.warn("Failed execute to load caches from redis, key: {}, cause: {}", redisKey, cause.getMessage());
+        }
+    }
+
+    private void loadFromDb(Map<PK, CompletableFuture<T>> owned, Map<PK, T> result) {
+        Map<PK, T> caches = null;
+        Throwable failure = null;
+        try {
+            caches = getCachesFromDb(owned.keySet());
+            if (caches == null) {
+                caches = Collections.emptyMap();
+            }
+            Map<Object, Object> redisCaches = usingRedis ? new HashMap<>(caches.size()) : null;
+            for (PK pk : owned.keySet()) {
+                T cache = caches.get(pk);
+                if (cache != null) {
+                    cached.put(pk, cache);
+                    result.put(pk, cache);
+                    if (redisCaches != null) {
+                        redisCaches.put(pk.toString(), cache);
+                    }
+                } else if (negativeCached != null) {
+                    negativeCached.put(pk, Boolean.TRUE);
+                }
+            }
+            if (redisCaches != null && !redisCaches.isEmpty()) {
+                writeToRedis(redisCaches);
+            }
+        } catch (Throwable cause) {
+            failure = cause;
+            throw cause;
+        } finally {
+            // 无论成功与否都要完成并移除future, 否则等待同一个key的线程会一直阻塞.
+            for (Map.Entry<PK, CompletableFuture<T>> entry : owned.entrySet()) {
+                loading.remove(entry.getKey(), entry.getValue());
+                if (failure != null || caches == null) {
+                    entry.getValue().completeExceptionally(failure != null ? failure
+                            : new IllegalStateException("Failed execute to load caches from db, key: " + redisKey));
+                } else {
+                    entry.getValue().complete(caches.get(entry.getKey()));
+                }
+            }
+        }
+    }
+
+    /**
+     * 回写redis只是优化, 失败不影响本次从数据源加载的结果.
+     */
+    private void writeToRedis(Map<Object, Object> redisCaches) {
+        try {
+            RedisManager.getInstance().hmSet(redisKey, redisCaches);
+        } catch (Exception cause) {
+            log.warn("Failed execute to write caches back to redis, key: {}, cause: {}", redisKey, cause.getMessage());
+        }
+    }
+
+    private T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException cause) {
+            if (cause.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) cause.getCause();
+            }
+            throw cause;
+        }
     }
 
     @Override
@@ -115,13 +265,34 @@ public abstract class AbstractCacheDataService<T, PK> implements CacheDataServic
      */
     public abstract T getCacheFromDb(PK pk);
 
+    /**
+     * 从数据库或者其他数据源中批量获取缓存数据, 默认逐个获取, 子类应该覆盖为一次批量查询
+     * @param pks 主键或者唯一标识
+     * @return    存在的数据, key: 主键
+     */
+    protected Map<PK, T> getCachesFromDb(Collection<PK> pks) {
+        Map<PK, T> caches = new HashMap<>(pks.size());
+        for (PK pk : pks) {
+            T cache = getCacheFromDb(pk);
+            if (cache != null) {
+                caches.put(pk, cache);
+            }
+        }
+        return caches;
+    }
+
 
     @Override
     public void cache(PK pk, T cache) {
         AssertUtil.notNull(cache, "Cache should not be null.");
         AssertUtil.notNull(pk, "Cache pk should not be null.");
         cached.put(pk, cache);
-        RedisManager.getInstance().hSet(redisKey, pk.toString(), cache);
+        if (negativeCached != null) {
+            negativeCached.invalidate(pk);
+        }
+        if (usingRedis) {
+            RedisManager.getInstance().hSet(redisKey, pk.toString(), cache);
+        }
     }
 
 
@@ -162,6 +333,9 @@ public abstract class AbstractCacheDataService<T, PK> implements CacheDataServic
     public boolean invalid(PK pk) {
         AssertUtil.notNull(pk, "Cache pk should not be null.");
         cached.invalidate(pk);
+        if (negativeCached != null) {
+            negativeCached.invalidate(pk);
+        }
         if (usingRedis) {
             return RedisManager.getInstance().hDel(redisKey, pk.toString()) > 0;
         }
@@ -171,6 +345,9 @@ public abstract class AbstractCacheDataService<T, PK> implements CacheDataServic
     @Override
     public void invalidAll() {
         cached.invalidateAll();
+        if (negativeCached != null) {
+            negativeCached.invalidateAll();
+        }
         if (usingRedis) {
             RedisManager.getInstance().del(redisKey);
         }
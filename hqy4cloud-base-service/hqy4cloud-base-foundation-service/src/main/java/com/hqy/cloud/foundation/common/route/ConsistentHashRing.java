@@ -0,0 +1,129 @@
+package com.hqy.cloud.foundation.common.route;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.hqy.cloud.common.base.lang.StringConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 不可变的一致性hash环, 每个节点在环上有若干个虚拟节点.
+ * 节点上下线时只有落在该节点虚拟节点区间的key会被重新映射, 其他key的路由不变.
+ * 环上的位置和key的hash都是非负int, 见 {@link #hash(String)}.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 19:50
+ */
+public final class ConsistentHashRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32();
+
+    private static final ConsistentHashRing EMPTY = new ConsistentHashRing(Collections.emptySet(), DEFAULT_VIRTUAL_NODES);
+
+    private final Set<String> members;
+    /**
+     * 虚拟节点在环上的位置, 升序
+     */
+    private final int[] positions;
+    /**
+     * 虚拟节点对应的真实节点
+     */
+    private final String[] nodes;
+
+    private ConsistentHashRing(Set<String> members, int virtualNodes) {
+        this.members = Collections.unmodifiableSet(members);
+        int size = members.size() * virtualNodes;
+        long[] entries = new long[size];
+        String[] memberArray = members.toArray(new String[0]);
+        int index = 0;
+        for (int i = 0; i < memberArray.length; i++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                int position = hash(memberArray[i].concat(StringConstants.Symbol.AT).concat(String.valueOf(v)));
+                // 高32位为位置, 低32位为节点下标, 排序后位置相同时按节点下标排序, 结果与成员顺序无关.
+                entries[index++] = ((long) position << 32) | i;
+            }
+        }
+        Arrays.sort(entries);
+        this.positions = new int[size];
+        this.nodes = new String[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = (int) (entries[i] >>> 32);
+            nodes[i] = memberArray[(int) entries[i]];
+        }
+    }
+
+    public static ConsistentHashRing of(Collection<String> members) {
+        return of(members, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public static ConsistentHashRing of(Collection<String> members, int virtualNodes) {
+        if (members == null || members.isEmpty()) {
+            return EMPTY;
+        }
+        // 排序保证相同的成员集合构建出相同的环.
+        String[] sorted = members.toArray(new String[0]);
+        Arrays.sort(sorted);
+        return new ConsistentHashRing(new LinkedHashSet<>(Arrays.asList(sorted)), Math.max(virtualNodes, 1));
+    }
+
+    /**
+     * 非负的hash值, 作为环上的位置或路由key
+     * @param key key
+     * @return    hash
+     */
+    public static int hash(String key) {
+        return HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asInt() & Integer.MAX_VALUE;
+    }
+
+    /**
+     * 顺时针找到第一个虚拟节点对应的真实节点.
+     * @param hash key的hash值
+     * @return     节点, 环为空时返回null
+     */
+    public String route(int hash) {
+        if (positions.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(positions, hash & Integer.MAX_VALUE);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return nodes[index == positions.length ? 0 : index];
+    }
+
+    public String route(String key) {
+        return route(hash(key));
+    }
+
+    /**
+     * 成员是否与给定的节点集合相同
+     * @param others 节点集合
+     * @return       是否相同
+     */
+    public boolean sameMembers(Collection<String> others) {
+        if (others == null || others.isEmpty()) {
+            return members.isEmpty();
+        }
+        if (others.size() == members.size() && members.containsAll(others)) {
+            return true;
+        }
+        // others可能包含重复元素.
+        return members.equals(others instanceof Set ? others : new LinkedHashSet<>(others));
+    }
+
+    public Set<String> getMembers() {
+        return members;
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+}
@@ -9,10 +9,14 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
- * 借助redis和guava来标记某个socket服务的hash节点
+ * 借助redis和guava来标记某个socket服务的hash节点.
+ * 多节点模式下通过一致性hash环路由, 环由服务的在线节点(hash因子)构建并缓存在本地, 节点集合变化时重新构建并原子替换.
  * @author qiyuan.hong
  * @version 1.0
  * @date 2022/3/24 15:52
@@ -28,17 +32,53 @@ public class LoadBalanceHashFactorManager {
             CacheBuilder.newBuilder().initialCapacity(1024).expireAfterAccess(10L, TimeUnit.MINUTES).build();
 
 
+    /**
+     * key: 模块名, value: 当前节点集合的一致性hash环
+     */
+    private static final Map<String, ConsistentHashRing> RINGS = new ConcurrentHashMap<>(16);
+
+    /**
+     * 获取模块的一致性hash环, 节点集合未变化时直接返回缓存的环.
+     * @param module      模块名
+     * @param hashFactors 在线节点的哈希因子
+     * @return            一致性hash环
+     */
+    public static ConsistentHashRing getRing(String module, Collection<String> hashFactors) {
+        ConsistentHashRing ring = RINGS.get(module);
+        if (ring != null && ring.sameMembers(hashFactors)) {
+            return ring;
+        }
+        ConsistentHashRing newRing = ConsistentHashRing.of(hashFactors);
+        log.info("@@@ Rebuild socket hash ring, module:{}, members:{}", module, newRing.getMembers());
+        RINGS.put(module, newRing);
+        return newRing;
+    }
+
+    /**
+     * 根据模块、hash值和在线节点获取哈希因子
+     * @param module      模块名
+     * @param hash        哈希值, see {@link SocketClusterStatus#getSocketIoPathHash(String)}
+     * @param hashFactors 在线节点的哈希因子
+     * @return            哈希因子
+     */
+    public static String queryHashFactor(String module, int hash, Collection<String> hashFactors) {
+        String hashFactor = getRing(module, hashFactors).route(hash);
+        return hashFactor == null ? CommonConstants.DEFAULT_HASH_FACTOR : hashFactor;
+    }
+
     private static String genKey(String module, int hash) {
         return SocketClusterStatus.class.getSimpleName().concat(StringConstants.Symbol.COLON)
                 .concat(module).concat(StringConstants.Symbol.COLON).concat(hash + "");
     }
 
     /**
-     * 根据模块和hash值获取哈希因子
+     * 根据模块和hash值获取哈希因子, 按固定槽位注册的节点.
      * @param module 模块名
      * @param hash 哈希值
      * @return 哈希因子
+     * @deprecated 取模路由在节点增减时几乎所有用户都会被重新映射, 使用 {@link #queryHashFactor(String, int, Collection)}
      */
+    @Deprecated
     public static String queryHashFactor(String module, int hash) {
         String key = genKey(module, hash);
         String hashFactor = HASH_CACHE.getIfPresent(key);
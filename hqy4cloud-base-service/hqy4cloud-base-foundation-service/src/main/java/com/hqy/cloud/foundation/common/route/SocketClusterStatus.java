@@ -61,10 +61,28 @@ public class SocketClusterStatus implements Serializable {
     }
 
     /**
-     * 根据bizId获取socket io的hash值
+     * 根据bizId获取socket io的hash值, 网关根据该值在一致性hash环上路由到节点, 与节点数无关.
+     * @see LoadBalanceHashFactorManager#queryHashFactor(String, int, java.util.Collection)
      * @param bizId 业务id
      * @return hash值
      */
+    public int getSocketIoPathHash(String bizId) {
+        if (!enableMultiWsNode) {
+            throw new IllegalStateException("@@@ SocketHashContext.enableMultiWsNode is false.");
+        }
+        if (StringUtils.isBlank(bizId)) {
+            throw new IllegalStateException("@@@ bizId can not empty.");
+        }
+        return ConsistentHashRing.hash(bizId);
+    }
+
+    /**
+     * 根据bizId获取socket io的hash槽位(hash % countMultiNodes), 与 {@link LoadBalanceHashFactorManager#queryHashFactor(String, int)} 的固定槽位配套使用.
+     * @param bizId 业务id
+     * @return hash槽位
+     * @deprecated 取模路由在节点增减时几乎所有用户都会被重新映射, 使用 {@link #getSocketIoPathHash(String)}
+     */
+    @Deprecated
     public int getSocketIoPathHashMod(String bizId) {
         if (!enableMultiWsNode) {
             throw new IllegalStateException("@@@ SocketHashContext.enableMultiWsNode is false.");
@@ -44,10 +44,10 @@ public class SocketClusterStatusManager {
             hashContext = SmartRedisManager.getInstance().get(key, SocketClusterStatus.class);
             if (Objects.isNull(hashContext)) {
                 log.info("@@@ 获取不到当前服务：{} 的socketHashContext.", serviceName);
-                hashContext = new SocketClusterStatus(env, serviceName);
+                hashContext = new SocketClusterStatus(serviceName, env);
 
             }
-            CLUSTER_STATUS_CACHE.put(serviceName, hashContext);
+            CLUSTER_STATUS_CACHE.put(key, hashContext);
         }
         return hashContext;
     }
@@ -3,7 +3,10 @@ package com.hqy.cloud.foundation.id;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.hqy.cloud.common.base.project.MicroServiceConstants;
 import com.hqy.cloud.common.swticher.CommonSwitcher;
+import cn.hutool.core.map.MapUtil;
+import com.hqy.cloud.id.service.IdGenService;
 import com.hqy.cloud.id.service.RemoteLeafService;
+import com.hqy.cloud.id.struct.BatchResultStruct;
 import com.hqy.cloud.id.struct.ResultStruct;
 import com.hqy.cloud.rpc.nacos.client.RPCClient;
 import com.hqy.cloud.rpc.nacos.utils.NacosConfigurationUtils;
@@ -11,6 +14,10 @@ import com.hqy.cloud.util.identity.ProjectSnowflakeIdWorker;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 分布式id成器
  * 主要调用rpc - id service获取分布式id
@@ -22,18 +29,74 @@ import org.apache.commons.lang3.StringUtils;
 public class DistributedIdGen {
 
     /**
-     * 获取分布式leaf分段id
+     * 客户端预取segment id的批量大小.
+     */
+    private static final int SEGMENT_PREFETCH_SIZE = 100;
+
+    private static final Map<String, SegmentIdPrefetchBuffer> SEGMENT_BUFFERS = MapUtil.newConcurrentHashMap();
+
+    /**
+     * 获取分布式leaf分段id, 从客户端预取缓冲区中获取
      */
     public static long getSegmentId(String key) {
+        if (StringUtils.isBlank(key)) {
+            throw new UnsupportedOperationException("BizTag key should not be empty.");
+        }
+        return SEGMENT_BUFFERS.computeIfAbsent(key, k -> new SegmentIdPrefetchBuffer(k, SEGMENT_PREFETCH_SIZE)).next();
+    }
+
+    /**
+     * 批量获取分布式leaf分段id, 超过单次rpc上限时分多次获取
+     * @param key  业务key
+     * @param size 数量
+     * @return     ids
+     */
+    public static List<Long> getSegmentIds(String key, int size) {
         if (StringUtils.isBlank(key)) {
             throw new UnsupportedOperationException("BizTag key should not be empty.");
         }
         RemoteLeafService leafService = RPCClient.getRemoteService(RemoteLeafService.class);
-        ResultStruct struct = leafService.getSegmentId(key);
-        if (!struct.isResult()) {
-            throw new IllegalArgumentException("Failed execute to get segment id, result code = " + struct.id);
+        List<Long> ids = new ArrayList<>(size);
+        while (ids.size() < size) {
+            BatchResultStruct struct = leafService.getSegmentIds(key, Math.min(size - ids.size(), IdGenService.MAX_BATCH_SIZE));
+            if (!struct.isResult() || struct.ids.isEmpty()) {
+                throw new IllegalArgumentException("Failed execute to get segment ids, result code = " + struct.code);
+            }
+            ids.addAll(struct.ids);
+        }
+        return ids;
+    }
+
+    /**
+     * 批量获取分布式雪花id
+     * @param size 数量
+     * @return     ids
+     */
+    public static List<Long> getSnowflakeIds(int size) {
+        List<Long> ids = new ArrayList<>(size);
+        try {
+            RemoteLeafService leafService = RPCClient.getRemoteService(RemoteLeafService.class);
+            while (ids.size() < size) {
+                BatchResultStruct struct = leafService.getSnowflakeNextIds(Math.min(size - ids.size(), IdGenService.MAX_BATCH_SIZE));
+                if (!struct.isResult() || struct.ids.isEmpty()) {
+                    log.warn("Failed execute to get ids by rpc, error code: {}.", struct.code);
+                    break;
+                }
+                ids.addAll(struct.ids);
+            }
+        } catch (Throwable exception) {
+            log.warn("Failed execute to get ids by rpc, cause: {}.", exception.getMessage(), exception);
+        }
+
+        if (ids.size() < size && CommonSwitcher.ENABLE_USING_PID_SNOWFLAKE_WORKER_ID.isOn()) {
+            while (ids.size() < size) {
+                ids.add(ProjectSnowflakeIdWorker.getInstance().nextId());
+            }
+        }
+        if (ids.size() < size) {
+            throw new UnsupportedOperationException("No supported distributed id.");
         }
-        return struct.id;
+        return ids;
     }
     
     
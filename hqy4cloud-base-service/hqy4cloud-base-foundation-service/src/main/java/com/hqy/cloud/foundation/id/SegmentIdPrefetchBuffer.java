@@ -0,0 +1,97 @@
+package com.hqy.cloud.foundation.id;
+
+import com.hqy.cloud.id.service.RemoteLeafService;
+import com.hqy.cloud.id.struct.BatchResultStruct;
+import com.hqy.cloud.rpc.nacos.client.RPCClient;
+import com.hqy.cloud.util.thread.ParentExecutorService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 客户端segment id预取缓冲区.
+ * 通过批量rpc从id服务(LeafSegmentIdGen双buffer)预取一批id, 剩余数量低于水位线时异步补充,
+ * 缓冲区为空时才同步走一次批量rpc.
+ * 注意: 进程重启时缓冲区中未使用的id会被丢弃, segment id本身允许不连续.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 17:05
+ */
+@Slf4j
+public class SegmentIdPrefetchBuffer {
+
+    private final String key;
+    private final int batchSize;
+    private final int lowWaterMark;
+
+    private final Queue<Long> ids = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean loading = new AtomicBoolean(false);
+
+    public SegmentIdPrefetchBuffer(String key, int batchSize) {
+        this.key = key;
+        this.batchSize = batchSize;
+        this.lowWaterMark = Math.max(batchSize / 5, 1);
+    }
+
+    public long next() {
+        Long id = poll();
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = poll();
+            if (id != null) {
+                return id;
+            }
+            // 缓冲区已空, 同步加载.
+            load();
+        }
+        id = poll();
+        if (id == null) {
+            throw new IllegalStateException("Failed execute to get segment id, key = " + key);
+        }
+        return id;
+    }
+
+    private Long poll() {
+        Long id = ids.poll();
+        if (id != null && size.decrementAndGet() < lowWaterMark) {
+            prefetch();
+        }
+        return id;
+    }
+
+    private void prefetch() {
+        if (loading.compareAndSet(false, true)) {
+            try {
+                ParentExecutorService.getInstance().execute(() -> {
+                    try {
+                        load();
+                    } catch (Throwable cause) {
+                        log.warn("Failed execute to prefetch segment ids, key = {}, cause: {}", key, cause.getMessage());
+                    } finally {
+                        loading.set(false);
+                    }
+                });
+            } catch (Throwable cause) {
+                loading.set(false);
+                log.warn("Failed execute to submit prefetch segment ids task, key = {}.", key, cause);
+            }
+        }
+    }
+
+    private void load() {
+        RemoteLeafService leafService = RPCClient.getRemoteService(RemoteLeafService.class);
+        BatchResultStruct struct = leafService.getSegmentIds(key, batchSize);
+        if (!struct.isResult()) {
+            throw new IllegalArgumentException("Failed execute to get segment ids, result code = " + struct.code);
+        }
+        ids.addAll(struct.ids);
+        size.addAndGet(struct.ids.size());
+    }
+
+}
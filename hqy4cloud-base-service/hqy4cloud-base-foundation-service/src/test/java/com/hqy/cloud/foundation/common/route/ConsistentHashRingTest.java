@@ -0,0 +1,113 @@
+package com.hqy.cloud.foundation.common.route;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 23:50
+ */
+public class ConsistentHashRingTest {
+
+    private static final int KEYS = 20000;
+
+    @Test
+    public void emptyRing() {
+        ConsistentHashRing ring = ConsistentHashRing.of(Collections.emptyList());
+        assertTrue(ring.isEmpty());
+        assertNull(ring.route("user-1"));
+        assertTrue(ring.sameMembers(null));
+    }
+
+    @Test
+    public void hashIsNonNegative() {
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(ConsistentHashRing.hash("user-" + i) >= 0);
+        }
+    }
+
+    @Test
+    public void routeIsIndependentOfMemberOrder() {
+        ConsistentHashRing ring = ConsistentHashRing.of(Arrays.asList("10.0.0.1:8080", "10.0.0.2:8080", "10.0.0.3:8080"));
+        ConsistentHashRing reversed = ConsistentHashRing.of(Arrays.asList("10.0.0.3:8080", "10.0.0.2:8080", "10.0.0.1:8080"));
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user-" + i;
+            assertEquals(ring.route(key), reversed.route(key));
+        }
+        assertTrue(ring.sameMembers(Arrays.asList("10.0.0.2:8080", "10.0.0.3:8080", "10.0.0.1:8080", "10.0.0.1:8080")));
+        assertFalse(ring.sameMembers(Arrays.asList("10.0.0.1:8080", "10.0.0.2:8080")));
+    }
+
+    @Test
+    public void keysAreSpreadOverMembers() {
+        List<String> members = members(4);
+        ConsistentHashRing ring = ConsistentHashRing.of(members);
+        Map<String, Integer> counts = new HashMap<>(8);
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.route("user-" + i), 1, Integer::sum);
+        }
+        assertEquals(members.size(), counts.size());
+        for (int count : counts.values()) {
+            // 理想为25%, 160个虚拟节点下偏差应在10%以内
+            assertTrue("unbalanced: " + counts, count > KEYS * 0.15 && count < KEYS * 0.35);
+        }
+    }
+
+    @Test
+    public void addingMemberOnlyMovesKeysToIt() {
+        List<String> members = members(4);
+        ConsistentHashRing ring = ConsistentHashRing.of(members);
+        List<String> grown = new ArrayList<>(members);
+        grown.add("10.0.0.100:8080");
+        ConsistentHashRing grownRing = ConsistentHashRing.of(grown);
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user-" + i;
+            String before = ring.route(key);
+            String after = grownRing.route(key);
+            if (!before.equals(after)) {
+                assertEquals("10.0.0.100:8080", after);
+                moved++;
+            }
+        }
+        // 理想为1/5的key迁移到新节点
+        assertTrue("moved: " + moved, moved > KEYS * 0.1 && moved < KEYS * 0.3);
+    }
+
+    @Test
+    public void removingMemberOnlyMovesItsKeys() {
+        List<String> members = members(5);
+        ConsistentHashRing ring = ConsistentHashRing.of(members);
+        String removed = members.get(2);
+        List<String> shrunk = new ArrayList<>(members);
+        shrunk.remove(removed);
+        ConsistentHashRing shrunkRing = ConsistentHashRing.of(shrunk);
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user-" + i;
+            String before = ring.route(key);
+            String after = shrunkRing.route(key);
+            assertNotEquals(removed, after);
+            if (!before.equals(removed)) {
+                assertEquals(before, after);
+            }
+        }
+    }
+
+    private static List<String> members(int count) {
+        List<String> members = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            members.add("10.0.0." + i + ":8080");
+        }
+        return members;
+    }
+
+}
@@ -1,7 +1,11 @@
 package com.hqy.cloud.id.service;
 
+import com.hqy.cloud.id.struct.BatchResultStruct;
 import com.hqy.cloud.id.struct.ResultStruct;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author qiyuan.hong
  * @version 1.0
@@ -9,6 +13,16 @@ import com.hqy.cloud.id.struct.ResultStruct;
  */
 public interface IdGenService {
 
+    /**
+     * 批量获取id时, 一次最多获取的数量.
+     */
+    int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * 批量获取id时 参数不合法的错误码
+     */
+    long EXCEPTION_ILLEGAL_BATCH_SIZE = -10;
+
     /**
      * get id.
      * @param key key
@@ -16,4 +30,25 @@ public interface IdGenService {
      */
     ResultStruct get(String key);
 
+    /**
+     * batch get ids.
+     * @param key  key
+     * @param size size, 1 ~ {@link #MAX_BATCH_SIZE}
+     * @return     BatchResultStruct.
+     */
+    default BatchResultStruct get(String key, int size) {
+        if (size <= 0 || size > MAX_BATCH_SIZE) {
+            return BatchResultStruct.failed(EXCEPTION_ILLEGAL_BATCH_SIZE);
+        }
+        List<Long> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ResultStruct struct = get(key);
+            if (!struct.result) {
+                return BatchResultStruct.failed(struct.id);
+            }
+            ids.add(struct.id);
+        }
+        return BatchResultStruct.success(ids);
+    }
+
 }
@@ -4,6 +4,7 @@ import com.facebook.swift.codec.ThriftField;
 import com.facebook.swift.service.ThriftMethod;
 import com.facebook.swift.service.ThriftService;
 import com.hqy.cloud.common.base.project.MicroServiceConstants;
+import com.hqy.cloud.id.struct.BatchResultStruct;
 import com.hqy.cloud.id.struct.ResultStruct;
 import com.hqy.cloud.rpc.service.RPCService;
 
@@ -33,5 +34,22 @@ public interface RemoteLeafService extends RPCService {
     @ThriftMethod
     ResultStruct getSnowflakeNextId();
 
+    /**
+     * 批量获取segment id, 一次最多获取 {@link IdGenService#MAX_BATCH_SIZE} 个.
+     * @param key  业务key.
+     * @param size 数量.
+     * @return     {@link BatchResultStruct}
+     */
+    @ThriftMethod
+    BatchResultStruct getSegmentIds(@ThriftField(1) String key, @ThriftField(2) int size);
+
+    /**
+     * 批量获取雪花算法的id, 一次最多获取 {@link IdGenService#MAX_BATCH_SIZE} 个.
+     * @param size 数量.
+     * @return     {@link BatchResultStruct}
+     */
+    @ThriftMethod
+    BatchResultStruct getSnowflakeNextIds(@ThriftField(1) int size);
+
 
 }
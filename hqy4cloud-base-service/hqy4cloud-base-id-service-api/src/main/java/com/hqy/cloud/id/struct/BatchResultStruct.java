@@ -0,0 +1,50 @@
+package com.hqy.cloud.id.struct;
+
+import com.facebook.swift.codec.ThriftField;
+import com.facebook.swift.codec.ThriftStruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量获取分布式id， thrift rpc返回结果
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 16:50
+ */
+@Data
+@ThriftStruct
+@NoArgsConstructor
+@AllArgsConstructor
+public final class BatchResultStruct {
+
+    /**
+     * ids, 请求失败时为空.
+     */
+    @ThriftField(1)
+    public List<Long> ids;
+
+    /**
+     * 是否请求成功.
+     */
+    @ThriftField(2)
+    public boolean result;
+
+    /**
+     * 请求失败时的错误码.
+     */
+    @ThriftField(3)
+    public long code;
+
+    public static BatchResultStruct success(List<Long> ids) {
+        return new BatchResultStruct(ids, true, 0);
+    }
+
+    public static BatchResultStruct failed(long code) {
+        return new BatchResultStruct(Collections.emptyList(), false, code);
+    }
+
+}
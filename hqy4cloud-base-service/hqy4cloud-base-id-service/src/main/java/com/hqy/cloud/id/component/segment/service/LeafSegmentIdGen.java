@@ -6,6 +6,7 @@ import com.hqy.cloud.id.component.segment.model.SegmentBuffer;
 import com.hqy.cloud.id.entities.LeafAlloc;
 import com.hqy.cloud.id.service.IdGen;
 import com.hqy.cloud.id.service.LeafAllocTkService;
+import com.hqy.cloud.id.struct.BatchResultStruct;
 import com.hqy.cloud.id.struct.ResultStruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -112,6 +113,36 @@ public class LeafSegmentIdGen implements IdGen {
         return new ResultStruct(EXCEPTION_ID_KEY_NOT_EXISTS, false);
     }
 
+    @Override
+    public BatchResultStruct get(String key, int size) {
+        if (size <= 0 || size > MAX_BATCH_SIZE) {
+            return BatchResultStruct.failed(EXCEPTION_ILLEGAL_BATCH_SIZE);
+        }
+        if (!initOk) {
+            return BatchResultStruct.failed(EXCEPTION_ID_CACHE_INIT_FALSE);
+        }
+        SegmentBuffer buffer = cache.get(key);
+        if (Objects.isNull(buffer)) {
+            return BatchResultStruct.failed(EXCEPTION_ID_KEY_NOT_EXISTS);
+        }
+        if (!buffer.isInitOk()) {
+            // init buffer by single get.
+            ResultStruct struct = get(key);
+            if (!struct.result) {
+                return BatchResultStruct.failed(struct.id);
+            }
+            if (size == 1) {
+                return BatchResultStruct.success(Collections.singletonList(struct.id));
+            }
+            BatchResultStruct result = getIdsFromSegmentBuffer(buffer, size - 1);
+            if (result.result) {
+                result.ids.add(0, struct.id);
+            }
+            return result;
+        }
+        return getIdsFromSegmentBuffer(buffer, size);
+    }
+
 
 
     private void updateCacheFromDb() {
@@ -216,32 +247,7 @@ public class LeafSegmentIdGen implements IdGen {
             buffer.rLock().lock();
             try {
                 final Segment segment = buffer.getCurrent();
-                if (!buffer.isNextReady() && (segment.getIdle() < 0.9 * segment.getStep())
-                        && buffer.getThreadRunning().compareAndSet(false, true)) {
-                    service.execute(() -> {
-                        Segment next = buffer.getSegments()[buffer.nextPos()];
-                        boolean updateOk = false;
-                        try {
-                            updateSegmentFromDb(buffer.getKey(), next);
-                            updateOk = true;
-                            log.info("update segment {} from db {}", buffer.getKey(), next);
-                        }
-                        catch (Exception e) {
-                            log.warn(buffer.getKey() + " updateSegmentFromDb exception", e);
-                        } finally {
-                            if (updateOk) {
-                                buffer.wLock().lock();
-                                buffer.setNextReady(true);
-                                buffer.getThreadRunning().set(false);
-                                buffer.wLock().unlock();
-                            }
-                            else {
-                                buffer.getThreadRunning().set(false);
-                            }
-                        }
-                    });
-
-                }
+                loadNextSegmentIfNecessary(buffer, segment);
                 long value;
                 if (segment.getRandomStep() > 1) {
                     // 随机从1-10里面增加
@@ -282,6 +288,96 @@ public class LeafSegmentIdGen implements IdGen {
 
     }
 
+    private BatchResultStruct getIdsFromSegmentBuffer(SegmentBuffer buffer, int size) {
+        List<Long> ids = new ArrayList<>(size);
+        while (true) {
+            buffer.rLock().lock();
+            try {
+                final Segment segment = buffer.getCurrent();
+                loadNextSegmentIfNecessary(buffer, segment);
+                takeIds(segment, size - ids.size(), ids);
+                if (ids.size() == size) {
+                    return BatchResultStruct.success(ids);
+                }
+            } finally {
+                buffer.rLock().unlock();
+            }
+            waitAndSleep(buffer);
+            buffer.wLock().lock();
+            try {
+                final Segment segment = buffer.getCurrent();
+                takeIds(segment, size - ids.size(), ids);
+                if (ids.size() == size) {
+                    return BatchResultStruct.success(ids);
+                }
+                if (buffer.isNextReady()) {
+                    buffer.switchPos();
+                    buffer.setNextReady(false);
+                }
+                else {
+                    log.error("Both two segments in {} are not ready!", buffer);
+                    return BatchResultStruct.failed(EXCEPTION_ID_TWO_SEGMENTS_ARE_NULL);
+                }
+            }
+            finally {
+                buffer.wLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 从当前segment中一次性截取一段id, 当前segment不够时只返回剩余的部分.
+     * @param segment 当前segment
+     * @param want    需要的数量
+     * @param ids     ids
+     */
+    private void takeIds(Segment segment, int want, List<Long> ids) {
+        if (segment.getRandomStep() > 1) {
+            for (int i = 0; i < want; i++) {
+                long value = segment.getValue().getAndAdd(randomAdd(segment.getRandomStep()));
+                if (value >= segment.getMax()) {
+                    return;
+                }
+                ids.add(value);
+            }
+            return;
+        }
+        long value = segment.getValue().getAndAdd(want);
+        long end = Math.min(value + want, segment.getMax());
+        for (long id = value; id < end; id++) {
+            ids.add(id);
+        }
+    }
+
+    private void loadNextSegmentIfNecessary(SegmentBuffer buffer, Segment segment) {
+        if (!buffer.isNextReady() && (segment.getIdle() < 0.9 * segment.getStep())
+                && buffer.getThreadRunning().compareAndSet(false, true)) {
+            service.execute(() -> {
+                Segment next = buffer.getSegments()[buffer.nextPos()];
+                boolean updateOk = false;
+                try {
+                    updateSegmentFromDb(buffer.getKey(), next);
+                    updateOk = true;
+                    log.info("update segment {} from db {}", buffer.getKey(), next);
+                }
+                catch (Exception e) {
+                    log.warn(buffer.getKey() + " updateSegmentFromDb exception", e);
+                } finally {
+                    if (updateOk) {
+                        buffer.wLock().lock();
+                        buffer.setNextReady(true);
+                        buffer.getThreadRunning().set(false);
+                        buffer.wLock().unlock();
+                    }
+                    else {
+                        buffer.getThreadRunning().set(false);
+                    }
+                }
+            });
+
+        }
+    }
+
     private void waitAndSleep(SegmentBuffer buffer) {
         int roll = 0;
         while (buffer.getThreadRunning().get()) {
@@ -2,6 +2,7 @@ package com.hqy.cloud.id.component.segment.service;
 
 import com.hqy.cloud.id.exception.InitException;
 import com.hqy.cloud.id.service.IdGenService;
+import com.hqy.cloud.id.struct.BatchResultStruct;
 import com.hqy.cloud.id.struct.ResultStruct;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -36,4 +37,9 @@ public class SegmentService implements IdGenService {
     public ResultStruct get(String key) {
         return this.idGen.get(key);
     }
+
+    @Override
+    public BatchResultStruct get(String key, int size) {
+        return this.idGen.get(key, size);
+    }
 }
@@ -5,6 +5,7 @@ import com.hqy.cloud.common.base.project.MicroServiceConstants;
 import com.hqy.cloud.id.component.snowflake.core.support.SnowflakeRedisHolder;
 import com.hqy.cloud.id.component.snowflake.exception.InitWorkerIdException;
 import com.hqy.cloud.id.service.IdGen;
+import com.hqy.cloud.id.struct.BatchResultStruct;
 import com.hqy.cloud.id.struct.ResultStruct;
 import com.hqy.cloud.rpc.core.Environment;
 import com.hqy.cloud.util.spring.SpringContextHolder;
@@ -79,7 +80,7 @@ public class SnowflakeIdGen implements IdGen {
     }
 
     @Override
-    public ResultStruct get(String key) {
+    public synchronized ResultStruct get(String key) {
         long timestamp = timeGen();
         if (timestamp < lastTimestamp) {
             long offset = lastTimestamp - timestamp;
@@ -125,6 +126,12 @@ public class SnowflakeIdGen implements IdGen {
     }
 
 
+    @Override
+    public synchronized BatchResultStruct get(String key, int size) {
+        // 持有锁批量生成, 避免每个id都竞争一次锁.
+        return IdGen.super.get(key, size);
+    }
+
     @Override
     public boolean init() {
         return true;
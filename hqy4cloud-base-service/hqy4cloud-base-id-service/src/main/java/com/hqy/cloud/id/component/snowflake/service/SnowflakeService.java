@@ -3,6 +3,7 @@ package com.hqy.cloud.id.component.snowflake.service;
 import com.hqy.cloud.id.exception.InitException;
 import com.hqy.cloud.id.service.IdGen;
 import com.hqy.cloud.id.service.IdGenService;
+import com.hqy.cloud.id.struct.BatchResultStruct;
 import com.hqy.cloud.id.struct.ResultStruct;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -36,4 +37,9 @@ public class SnowflakeService implements IdGenService {
         return idGen.get(key);
     }
 
+    @Override
+    public BatchResultStruct get(String key, int size) {
+        return idGen.get(key, size);
+    }
+
 }
@@ -4,6 +4,7 @@ import cn.hutool.core.util.StrUtil;
 import com.hqy.cloud.id.component.segment.service.SegmentService;
 import com.hqy.cloud.id.component.snowflake.service.SnowflakeService;
 import com.hqy.cloud.id.service.RemoteLeafService;
+import com.hqy.cloud.id.struct.BatchResultStruct;
 import com.hqy.cloud.id.struct.ResultStruct;
 import com.hqy.cloud.rpc.thrift.service.AbstractRPCService;
 import lombok.RequiredArgsConstructor;
@@ -32,4 +33,14 @@ public class RemoteLeafServiceImpl extends AbstractRPCService implements RemoteL
     public ResultStruct getSnowflakeNextId() {
         return snowflakeService.get(StrUtil.EMPTY);
     }
+
+    @Override
+    public BatchResultStruct getSegmentIds(String key, int size) {
+        return segmentService.get(key, size);
+    }
+
+    @Override
+    public BatchResultStruct getSnowflakeNextIds(int size) {
+        return snowflakeService.get(StrUtil.EMPTY, size);
+    }
 }
@@ -14,10 +14,12 @@ import com.hqy.cloud.canal.core.parser.support.InMemoryModelTableMetadataManager
 import com.hqy.cloud.canal.core.parser.support.InMemoryParseResultInterceptorManager;
 import com.hqy.cloud.canal.core.processor.BaseCanalBinlogEventProcessor;
 import com.hqy.cloud.canal.core.processor.CanalBinlogEventProcessorFactory;
+import com.hqy.cloud.canal.core.processor.CanalBinlogPipeline;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
@@ -70,10 +72,19 @@ public class CanalAutoConfiguration implements SmartInitializingSingleton, BeanF
         return InMemoryParseResultInterceptorManager.of(modelTableMetadataManager);
     }
 
+    /**
+     * binlog流水线, lane并发数通过 canal.pipeline.parallelism 配置, 小于等于0时为cpu核数.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    public CanalBinlogPipeline canalBinlogPipeline(@Value("${canal.pipeline.parallelism:0}") int parallelism) {
+        return CanalBinlogPipeline.of(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
     @Bean
     @Primary
-    public CanalGlue canalGlue(CanalBinlogEventProcessorFactory canalBinlogEventProcessorFactory) {
-        return DefaultCanalGlue.of(canalBinlogEventProcessorFactory);
+    public CanalGlue canalGlue(CanalBinlogEventProcessorFactory canalBinlogEventProcessorFactory, CanalBinlogPipeline canalBinlogPipeline) {
+        return DefaultCanalGlue.of(canalBinlogEventProcessorFactory, canalBinlogPipeline);
     }
 
     @Override
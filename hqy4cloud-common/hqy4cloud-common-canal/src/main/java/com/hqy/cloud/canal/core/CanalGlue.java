@@ -1,5 +1,7 @@
 package com.hqy.cloud.canal.core;
 
+import java.util.List;
+
 /**
  * @author qiyuan.hong
  * @version 1.0
@@ -12,4 +14,12 @@ public interface CanalGlue {
      * @param content binlog data.
      */
     void process(String content);
+
+    /**
+     * receive a batch of binlog data, return after the whole batch completed.
+     * @param contents binlog data in binlog order.
+     */
+    default void process(List<String> contents) {
+        contents.forEach(this::process);
+    }
 }
@@ -2,11 +2,14 @@ package com.hqy.cloud.canal.core;
 
 import com.hqy.cloud.canal.core.adapter.support.SourceAdapterFacade;
 import com.hqy.cloud.canal.core.processor.BaseCanalBinlogEventProcessor;
+import com.hqy.cloud.canal.core.processor.CanalBinlogPipeline;
 import com.hqy.cloud.canal.core.processor.CanalBinlogEventProcessorFactory;
 import com.hqy.cloud.canal.model.CanalBinLogEvent;
 import com.hqy.cloud.canal.model.ModelTable;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -15,16 +18,23 @@ import java.util.List;
  * @version 1.0
  * @date 2023/5/18 9:54
  */
+@Slf4j
 public class DefaultCanalGlue implements CanalGlue {
 
     private final CanalBinlogEventProcessorFactory canalBinlogEventProcessorFactory;
+    private final CanalBinlogPipeline canalBinlogPipeline;
 
-    private DefaultCanalGlue(CanalBinlogEventProcessorFactory canalBinlogEventProcessorFactory) {
+    private DefaultCanalGlue(CanalBinlogEventProcessorFactory canalBinlogEventProcessorFactory, CanalBinlogPipeline canalBinlogPipeline) {
         this.canalBinlogEventProcessorFactory = canalBinlogEventProcessorFactory;
+        this.canalBinlogPipeline = canalBinlogPipeline;
     }
 
     public static CanalGlue of(CanalBinlogEventProcessorFactory canalBinlogEventProcessorFactory) {
-        return new DefaultCanalGlue(canalBinlogEventProcessorFactory);
+        return new DefaultCanalGlue(canalBinlogEventProcessorFactory, null);
+    }
+
+    public static CanalGlue of(CanalBinlogEventProcessorFactory canalBinlogEventProcessorFactory, CanalBinlogPipeline canalBinlogPipeline) {
+        return new DefaultCanalGlue(canalBinlogEventProcessorFactory, canalBinlogPipeline);
     }
 
     @Override
@@ -38,6 +48,29 @@ public class DefaultCanalGlue implements CanalGlue {
         baseCanalBinlogEventProcessors.forEach((processor) -> processor.process(event));
     }
 
+    @Override
+    public void process(List<String> contents) {
+        if (canalBinlogPipeline == null) {
+            CanalGlue.super.process(contents);
+            return;
+        }
+        List<CanalBinlogPipeline.Task> tasks = new ArrayList<>(contents.size());
+        for (String content : contents) {
+            try {
+                CanalBinLogEvent event = SourceAdapterFacade.X.adapt(CanalBinLogEvent.class, content);
+                ModelTable modelTable = ModelTable.of(event.getDatabase(), event.getTable());
+                List<BaseCanalBinlogEventProcessor<?>> baseCanalBinlogEventProcessors = this.canalBinlogEventProcessorFactory.get(modelTable);
+                if (CollectionUtils.isEmpty(baseCanalBinlogEventProcessors)) {
+                    continue;
+                }
+                baseCanalBinlogEventProcessors.forEach(processor -> tasks.addAll(processor.prepare(event)));
+            } catch (Throwable cause) {
+                log.error("Failed execute to prepare canal message = {}.", content, cause);
+            }
+        }
+        canalBinlogPipeline.execute(tasks);
+    }
+
 
 
 }
@@ -1,6 +1,7 @@
 package com.hqy.cloud.canal.core.processor;
 
 import com.hqy.cloud.canal.common.BinLogEventType;
+import com.hqy.cloud.common.base.lang.StringConstants;
 import com.hqy.cloud.canal.common.OperationType;
 import com.hqy.cloud.canal.core.BaseParameterizedTypeReferenceSupport;
 import com.hqy.cloud.canal.core.parser.*;
@@ -11,10 +12,14 @@ import com.hqy.cloud.canal.model.CanalBinLogResult;
 import com.hqy.cloud.canal.model.ModelTable;
 import com.hqy.cloud.util.AssertUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author qiyuan.hong
@@ -69,32 +74,7 @@ public abstract class BaseCanalBinlogEventProcessor<T> extends BaseParameterized
             onParse(modelTable);
             List<CanalBinLogResult<T>> resultList
                     = canalBinLogEventParser.parse(event, getKlass(), primaryKeyFunction, commonEntryFunction);
-            Optional.ofNullable(resultList).ifPresent(list -> list.forEach(result -> {
-                // insert事件
-                if (BinLogEventType.INSERT == result.getBinLogEventType() && OperationType.DML == result.getOperationType()) {
-                    onBeforeInsertProcess(modelTable, result.getBeforeData(), result.getAfterData());
-                    processInsertInternal(result);
-                    onAfterInsertProcess(modelTable, result.getBeforeData(), result.getAfterData());
-                }
-                // update事件
-                if (BinLogEventType.UPDATE == result.getBinLogEventType() && OperationType.DML == result.getOperationType()) {
-                    onBeforeUpdateProcess(modelTable, result.getBeforeData(), result.getAfterData());
-                    processUpdateInternal(result);
-                    onAfterUpdateProcess(modelTable, result.getBeforeData(), result.getAfterData());
-                }
-                // delete事件
-                if (BinLogEventType.DELETE == result.getBinLogEventType() && OperationType.DML == result.getOperationType()) {
-                    onBeforeDeleteProcess(modelTable, result.getBeforeData(), result.getAfterData());
-                    processDeleteInternal(result);
-                    onAfterDeleteProcess(modelTable, result.getBeforeData(), result.getAfterData());
-                }
-                // DDL事件
-                if (OperationType.DDL == result.getOperationType()) {
-                    onBeforeDDLProcess(modelTable, result.getBeforeData(), result.getAfterData(), result.getSql());
-                    processDDLInternal(result);
-                    onAfterDDLProcess(modelTable, result.getBeforeData(), result.getAfterData(), result.getSql());
-                }
-            }));
+            Optional.ofNullable(resultList).ifPresent(list -> list.forEach(result -> process(modelTable, result)));
             onParseFinish(modelTable);
         } catch (Exception e) {
             exceptionHandler.onError(event, e);
@@ -103,6 +83,109 @@ public abstract class BaseCanalBinlogEventProcessor<T> extends BaseParameterized
         }
     }
 
+    /**
+     * 流水线模式: 解析binlog事件并拆分为行任务, 由 {@link CanalBinlogPipeline} 按 库.表 + 主键 分区并发执行,
+     * 表中存在没有主键的行时整张表按表分区.
+     * 同一个事件的所有行执行完成后才回调 onParseFinish/onParseCompletion, 某一行执行失败不影响其他行.
+     * @param event binlog事件
+     * @return      行任务, 按binlog顺序排列
+     */
+    public final List<CanalBinlogPipeline.Task> prepare(CanalBinLogEvent event) {
+        AssertUtil.isTrue(init.get(), String.format("Processor %s Not Init!", getChildKlass().getSimpleName()));
+        ModelTable modelTable = ModelTable.of(event.getDatabase(), event.getTable());
+        List<CanalBinLogResult<T>> resultList;
+        try {
+            onParse(modelTable);
+            resultList = canalBinLogEventParser.parse(event, getKlass(), primaryKeyFunction, commonEntryFunction);
+        } catch (Exception e) {
+            exceptionHandler.onError(event, e);
+            onParseCompletion(modelTable);
+            return Collections.emptyList();
+        }
+        if (CollectionUtils.isEmpty(resultList)) {
+            onParseFinish(modelTable);
+            onParseCompletion(modelTable);
+            return Collections.emptyList();
+        }
+
+        String tableKey = modelTable.database() + StringConstants.Symbol.POINT + modelTable.table();
+        EventContext context = new EventContext(event, modelTable, resultList.size());
+        List<CanalBinlogPipeline.Task> tasks = new ArrayList<>(resultList.size());
+        for (CanalBinLogResult<T> result : resultList) {
+            boolean barrier = OperationType.DDL == result.getOperationType();
+            // 没有主键的行由流水线把整张表路由到表分区, 保证同一张表内的顺序.
+            String primaryKey = barrier || result.getPrimaryKey() == null ? null : String.valueOf(result.getPrimaryKey());
+            tasks.add(new CanalBinlogPipeline.Task(tableKey, primaryKey, barrier, () -> {
+                try {
+                    process(modelTable, result);
+                } catch (Throwable cause) {
+                    context.error = cause;
+                } finally {
+                    context.rowCompleted();
+                }
+            }));
+        }
+        return tasks;
+    }
+
+    private void process(ModelTable modelTable, CanalBinLogResult<T> result) {
+        // insert事件
+        if (BinLogEventType.INSERT == result.getBinLogEventType() && OperationType.DML == result.getOperationType()) {
+            onBeforeInsertProcess(modelTable, result.getBeforeData(), result.getAfterData());
+            processInsertInternal(result);
+            onAfterInsertProcess(modelTable, result.getBeforeData(), result.getAfterData());
+        }
+        // update事件
+        if (BinLogEventType.UPDATE == result.getBinLogEventType() && OperationType.DML == result.getOperationType()) {
+            onBeforeUpdateProcess(modelTable, result.getBeforeData(), result.getAfterData());
+            processUpdateInternal(result);
+            onAfterUpdateProcess(modelTable, result.getBeforeData(), result.getAfterData());
+        }
+        // delete事件
+        if (BinLogEventType.DELETE == result.getBinLogEventType() && OperationType.DML == result.getOperationType()) {
+            onBeforeDeleteProcess(modelTable, result.getBeforeData(), result.getAfterData());
+            processDeleteInternal(result);
+            onAfterDeleteProcess(modelTable, result.getBeforeData(), result.getAfterData());
+        }
+        // DDL事件
+        if (OperationType.DDL == result.getOperationType()) {
+            onBeforeDDLProcess(modelTable, result.getBeforeData(), result.getAfterData(), result.getSql());
+            processDDLInternal(result);
+            onAfterDDLProcess(modelTable, result.getBeforeData(), result.getAfterData(), result.getSql());
+        }
+    }
+
+    /**
+     * 流水线模式下一个binlog事件的执行状态.
+     */
+    private final class EventContext {
+        private final CanalBinLogEvent event;
+        private final ModelTable modelTable;
+        private final AtomicInteger remaining;
+        private volatile Throwable error;
+
+        private EventContext(CanalBinLogEvent event, ModelTable modelTable, int rows) {
+            this.event = event;
+            this.modelTable = modelTable;
+            this.remaining = new AtomicInteger(rows);
+        }
+
+        private void rowCompleted() {
+            if (remaining.decrementAndGet() != 0) {
+                return;
+            }
+            try {
+                if (error == null) {
+                    onParseFinish(modelTable);
+                } else {
+                    exceptionHandler.onError(event, error);
+                }
+            } finally {
+                onParseCompletion(modelTable);
+            }
+        }
+    }
+
     private void onParse(ModelTable modelTable) {
         Optional.ofNullable(parseResultInterceptors).ifPresent(items -> items.forEach(item -> item.onParse(modelTable)));
     }
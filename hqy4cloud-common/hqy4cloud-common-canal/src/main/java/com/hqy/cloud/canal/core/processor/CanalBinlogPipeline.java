@@ -0,0 +1,175 @@
+package com.hqy.cloud.canal.core.processor;
+
+import com.hqy.cloud.common.base.lang.StringConstants;
+import com.hqy.cloud.util.thread.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * binlog批量处理流水线.
+ * 一批binlog事件被 {@link BaseCanalBinlogEventProcessor#prepare} 拆分为行任务, 按 库.表 + 主键 分区到不同的lane,
+ * 不同lane在工作线程池中并发执行, 同一个lane内严格按照binlog顺序执行, 因此同一行数据的变更顺序不变.
+ * 一段任务中某张表存在没有主键的行时, 该表的所有行都路由到表对应的lane, 保证无主键行与其他行的相对顺序.
+ * DDL等屏障任务会等待之前的任务全部完成后单独执行.
+ * {@link #execute(List)} 在整批任务完成后才返回, 调用方在返回后再提交offset.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 17:40
+ */
+@Slf4j
+public class CanalBinlogPipeline {
+
+    private final int parallelism;
+    private final ExecutorService workers;
+
+    public CanalBinlogPipeline(int parallelism) {
+        this.parallelism = Math.max(parallelism, 1);
+        this.workers = this.parallelism == 1 ? null : new ThreadPoolExecutor(this.parallelism - 1, this.parallelism - 1,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamedThreadFactory("canal-binlog-pipeline", true));
+    }
+
+    public static CanalBinlogPipeline of(int parallelism) {
+        return new CanalBinlogPipeline(parallelism);
+    }
+
+    /**
+     * 执行一批行任务, 所有任务完成后返回.
+     * @param tasks 按binlog顺序排列的行任务
+     */
+    public void execute(List<Task> tasks) {
+        List<Task> segment = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            if (task.barrier) {
+                executeParallel(segment);
+                segment.clear();
+                task.run();
+            } else {
+                segment.add(task);
+            }
+        }
+        executeParallel(segment);
+    }
+
+    private void executeParallel(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        if (parallelism == 1 || tasks.size() == 1) {
+            tasks.forEach(Task::run);
+            return;
+        }
+        List<List<Task>> lanes = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        // 存在无主键行的表, 整张表按表分区.
+        Set<String> tableOrdered = new HashSet<>();
+        for (Task task : tasks) {
+            if (task.primaryKey == null) {
+                tableOrdered.add(task.tableKey);
+            }
+        }
+        for (Task task : tasks) {
+            String partitionKey = tableOrdered.contains(task.tableKey) ? task.tableKey : task.getPartitionKey();
+            lanes.get(laneOf(partitionKey)).add(task);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(parallelism);
+        List<Task> callerLane = null;
+        for (List<Task> lane : lanes) {
+            if (lane.isEmpty()) {
+                continue;
+            }
+            if (callerLane == null) {
+                // 当前线程执行一个lane, 少一次线程切换.
+                callerLane = lane;
+                continue;
+            }
+            futures.add(CompletableFuture.runAsync(() -> lane.forEach(Task::run), workers));
+        }
+        if (callerLane != null) {
+            callerLane.forEach(Task::run);
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+
+    private int laneOf(String partitionKey) {
+        int hash = partitionKey.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % parallelism;
+    }
+
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdown();
+        }
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * 行任务.
+     */
+    public static final class Task implements Runnable {
+        /**
+         * 库.表
+         */
+        private final String tableKey;
+        /**
+         * 主键, 没有主键或屏障任务为null
+         */
+        private final String primaryKey;
+        /**
+         * 是否为屏障任务, 例如DDL
+         */
+        private final boolean barrier;
+        private final Runnable action;
+
+        public Task(String tableKey, String primaryKey, boolean barrier, Runnable action) {
+            this.tableKey = tableKey;
+            this.primaryKey = primaryKey;
+            this.barrier = barrier;
+            this.action = action;
+        }
+
+        @Override
+        public void run() {
+            try {
+                action.run();
+            } catch (Throwable cause) {
+                log.error("Failed execute to process binlog task, partition key: {}.", getPartitionKey(), cause);
+            }
+        }
+
+        /**
+         * @return 分区key, 库.表:主键, 没有主键时为 库.表
+         */
+        public String getPartitionKey() {
+            return primaryKey == null ? tableKey : tableKey + StringConstants.Symbol.COLON + primaryKey;
+        }
+
+        public String getTableKey() {
+            return tableKey;
+        }
+
+        public String getPrimaryKey() {
+            return primaryKey;
+        }
+
+        public boolean isBarrier() {
+            return barrier;
+        }
+    }
+
+}
@@ -50,6 +50,11 @@ public class HttpGeneralSwitcher extends CommonSwitcher {
      */
     public static final HttpGeneralSwitcher ENABLE_ACCOUNT_PASSWORD_ENCODER_ENCODE = new HttpGeneralSwitcher(154, "节点-是否启用MD5的PasswordEncoder的encode", true);
 
+    /**
+     * 节点-共享超限统计时是否采用本地令牌桶 + Redis异步批量租约的方式（关闭则每次请求都走Redis滑动窗口）
+     */
+    public static final HttpGeneralSwitcher ENABLE_LOCAL_LEASE_SHARED_LIMITER = new HttpGeneralSwitcher(155, "节点-共享超限统计是否采用本地额度+Redis异步租约(固定窗口)", false);
+
 
 
 
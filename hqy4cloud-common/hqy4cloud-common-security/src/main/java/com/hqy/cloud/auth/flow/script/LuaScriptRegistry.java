@@ -0,0 +1,116 @@
+package com.hqy.cloud.auth.flow.script;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * lua脚本注册表.
+ * 每个classpath下的lua脚本只读取一次并缓存SHA1, 执行时使用 EVALSHA 只发送脚本的SHA1;
+ * redis返回 NOSCRIPT (重启、SCRIPT FLUSH、集群中新的节点) 时使用 EVAL 发送完整脚本, redis会缓存该脚本, 之后继续走 EVALSHA.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 21:00
+ */
+@Slf4j
+public final class LuaScriptRegistry {
+
+    private LuaScriptRegistry() {}
+
+    private static final String NO_SCRIPT_ERROR = "NOSCRIPT";
+
+    private static final Map<String, LuaScript> SCRIPTS = new ConcurrentHashMap<>(8);
+
+    /**
+     * 获取classpath下的lua脚本, 同一个路径只加载一次.
+     * @param path classpath路径, 例如 limit/slidingLimit.lua
+     * @return     lua脚本
+     */
+    public static LuaScript get(String path) {
+        return SCRIPTS.computeIfAbsent(path, LuaScriptRegistry::load);
+    }
+
+    private static LuaScript load(String path) {
+        try (InputStream inputStream = new ClassPathResource(path).getInputStream()) {
+            String script = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+            return new LuaScript(path, script, DigestUtils.sha1DigestAsHex(script));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed execute to load lua script: " + path, e);
+        }
+    }
+
+    private static boolean isNoScriptError(Throwable cause) {
+        while (cause != null) {
+            String message = cause.getMessage();
+            if (message != null && message.contains(NO_SCRIPT_ERROR)) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    public static final class LuaScript {
+        private final String path;
+        private final byte[] script;
+        private final String sha1;
+
+        private LuaScript(String path, String script, String sha1) {
+            this.path = path;
+            this.script = script.getBytes(StandardCharsets.UTF_8);
+            this.sha1 = sha1;
+        }
+
+        /**
+         * 执行脚本, key和参数按UTF-8编码.
+         * @param redisTemplate redisTemplate
+         * @param returnType    返回值类型, 例如数字为 {@link ReturnType#INTEGER}, 数组为 {@link ReturnType#MULTI}
+         * @param keys          KEYS
+         * @param args          ARGV
+         * @param <T>           返回值
+         * @return              脚本的返回值
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisTemplate<String, ?> redisTemplate, ReturnType returnType, List<String> keys, Object... args) {
+            int numKeys = keys.size();
+            byte[][] keysAndArgs = new byte[numKeys + args.length][];
+            for (int i = 0; i < numKeys; i++) {
+                keysAndArgs[i] = keys.get(i).getBytes(StandardCharsets.UTF_8);
+            }
+            for (int i = 0; i < args.length; i++) {
+                keysAndArgs[numKeys + i] = String.valueOf(args[i]).getBytes(StandardCharsets.UTF_8);
+            }
+            return (T) redisTemplate.execute((RedisCallback<Object>) connection -> {
+                try {
+                    return connection.scriptingCommands().evalSha(sha1, returnType, numKeys, keysAndArgs);
+                } catch (RuntimeException e) {
+                    if (!isNoScriptError(e)) {
+                        throw e;
+                    }
+                    log.info("Lua script {} not cached by redis, reload it.", path);
+                    return connection.scriptingCommands().eval(script, returnType, numKeys, keysAndArgs);
+                }
+            });
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getSha1() {
+            return sha1;
+        }
+    }
+
+}
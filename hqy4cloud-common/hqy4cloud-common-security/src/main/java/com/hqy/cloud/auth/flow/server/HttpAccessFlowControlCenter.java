@@ -5,6 +5,7 @@ import com.hqy.cloud.auth.flow.Measurement;
 import com.hqy.cloud.auth.flow.strategy.AccessFlowController;
 import com.hqy.cloud.common.swticher.CommonSwitcher;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.HttpMethod;
 
 import java.text.SimpleDateFormat;
@@ -18,7 +19,7 @@ import java.util.Objects;
  * @date 2021-08-04 14:14
  */
 @Slf4j
-public class HttpAccessFlowControlCenter {
+public class HttpAccessFlowControlCenter implements DisposableBean {
 
     private final AccessFlowController getController;
 
@@ -64,6 +65,13 @@ public class HttpAccessFlowControlCenter {
     }
 
 
+    @Override
+    public void destroy() {
+        getController.close();
+        postController.close();
+        uriController.close();
+    }
+
     /**
      * 根据请求方法和相应的 超限配置策略 获取到流量控制器
      * @param method http method
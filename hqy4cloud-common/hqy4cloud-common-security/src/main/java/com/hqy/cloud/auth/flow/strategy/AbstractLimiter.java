@@ -24,4 +24,10 @@ public abstract class AbstractLimiter implements ResourceLimitStrategy {
     public void setConfig(FlowLimitConfig config) {
         this.config = config;
     }
+
+    /**
+     * 释放限流器持有的资源, 比如后台定时任务.
+     */
+    public void close() {
+    }
 }
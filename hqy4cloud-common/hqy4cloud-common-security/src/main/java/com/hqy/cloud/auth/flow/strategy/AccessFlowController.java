@@ -26,12 +26,15 @@ public class AccessFlowController {
 
     private final AbstractLimiter redisCacheLimiter;
 
+    private final AbstractLimiter redisLeaseLimiter;
+
     private final Cache<String, String> overLimitCache =
             CacheBuilder.newBuilder().initialCapacity(1024).expireAfterWrite(10L, TimeUnit.MINUTES).build();
 
     public AccessFlowController(FlowLimitConfig config) {
         AssertUtil.notNull(config, "Initialize RedisFlowController failure.");
         redisCacheLimiter = new RedisResourceSlidingWindowsLimiter(config);
+        redisLeaseLimiter = new RedisLeaseFixedWindowLimiter(config);
         localCacheLimiter = new GuavaCacheTokenBucketLimiter(config);
     }
 
@@ -46,6 +49,8 @@ public class AccessFlowController {
     public AbstractLimiter getLimiter() {
         if (HttpGeneralSwitcher.ENABLE_SHARE_IP_OVER_REQUEST_STATISTICS.isOff()) {
             return localCacheLimiter;
+        } else if (HttpGeneralSwitcher.ENABLE_LOCAL_LEASE_SHARED_LIMITER.isOn()) {
+            return redisLeaseLimiter;
         } else {
             return redisCacheLimiter;
         }
@@ -76,5 +81,14 @@ public class AccessFlowController {
         return FlowResult.build();
     }
 
+    /**
+     * 释放限流器资源.
+     */
+    public void close() {
+        localCacheLimiter.close();
+        redisCacheLimiter.close();
+        redisLeaseLimiter.close();
+    }
+
 
 }
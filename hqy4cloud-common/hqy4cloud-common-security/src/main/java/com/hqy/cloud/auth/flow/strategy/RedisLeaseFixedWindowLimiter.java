@@ -0,0 +1,310 @@
+package com.hqy.cloud.auth.flow.strategy;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hqy.cloud.auth.flow.FlowLimitConfig;
+import com.hqy.cloud.auth.flow.LimitMode;
+import com.hqy.cloud.auth.flow.script.LuaScriptRegistry;
+import com.hqy.cloud.common.base.lang.NumberConstants;
+import com.hqy.cloud.common.base.lang.StringConstants;
+import com.hqy.cloud.foundation.cache.redis.support.SmartRedisManager;
+import com.hqy.cloud.util.ReflectUtils;
+import com.hqy.cloud.util.thread.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReturnType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 两级固定窗口限流器: 本地租约额度 + Redis异步批量租约.
+ * 每个固定时间窗口在Redis中有一份全局额度, 请求只在本地租到的额度中扣减, 不访问Redis;
+ * 后台定时任务把所有需要补充额度的资源合并成一次lua调用, 向Redis中当前窗口的全局额度租借(lease),
+ * 同时结算窗口开始时本地预支的额度(reconcile). 额度不会随时间补充, 全局额度用完后直到下一个窗口才恢复.
+ * 全局额度用完的资源在 {@link FlowLimitConfig#getBlockSeconds()} 内持续判定为超限.
+ * 多实例下单个窗口的超发上限为每个实例预支的额度; Redis不可用时退化为单机限流.
+ * @see RedisResourceSlidingWindowsLimiter
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 16:20
+ */
+@Slf4j
+public class RedisLeaseFixedWindowLimiter extends AbstractLimiter {
+
+    private static final String KEY_PREFIX = ReflectUtils.genkeyPrefix(RedisLeaseFixedWindowLimiter.class);
+
+    /**
+     * 租约lua脚本, 只加载一次.
+     */
+    private static final LuaScriptRegistry.LuaScript LEASE_SCRIPT = LuaScriptRegistry.get("limit/leaseLimit.lua");
+
+    /**
+     * 租约结算周期.
+     */
+    private static final long RECONCILE_INTERVAL_MILLIS = 50;
+
+    /**
+     * 一次lua调用最多结算的资源数.
+     */
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private static final ScheduledExecutorService RECONCILE_EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("lease-limiter-reconcile", true));
+
+    private final Cache<String, ResourceBucket> buckets;
+
+    private final ScheduledFuture<?> reconcileFuture;
+
+    /**
+     * 需要向Redis租借或结算令牌的资源.
+     */
+    private final Set<ResourceBucket> pendingBuckets = ConcurrentHashMap.newKeySet();
+
+    private final long windowMillis;
+    private final int windowSeconds;
+    private final int limit;
+    private final long leaseSize;
+    private final long lowWatermark;
+    private final long blockMillis;
+
+    public RedisLeaseFixedWindowLimiter(FlowLimitConfig config) {
+        super(config);
+        this.windowSeconds = config.getWindows().seconds;
+        this.windowMillis = windowSeconds * NumberConstants.ONE_SECONDS_4MILLISECONDS;
+        this.limit = Math.max(config.getCount(), 1);
+        this.leaseSize = Math.max(limit / 5, 1);
+        this.lowWatermark = leaseSize / 2;
+        this.blockMillis = Math.max(config.getBlockSeconds(), 0) * NumberConstants.ONE_SECONDS_4MILLISECONDS;
+        this.buckets = CacheBuilder.newBuilder().initialCapacity(512)
+                .expireAfterAccess(Math.max(Math.max(windowSeconds * 2L, 10 * 60L), config.getBlockSeconds()), TimeUnit.SECONDS).build();
+        this.reconcileFuture = RECONCILE_EXECUTOR.scheduleWithFixedDelay(this::reconcile, RECONCILE_INTERVAL_MILLIS, RECONCILE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean isOverLimit(String resource) {
+        if (getConfig().getLimitMode() == LimitMode.THREAD_COUNT) {
+            resource = RedisLeaseFixedWindowLimiter.class.getSimpleName();
+        }
+        long now = currentTimeMillis();
+        ResourceBucket bucket = getBucket(resource);
+        if (now < bucket.blockedUntil) {
+            return true;
+        }
+        WindowLease lease = bucket.getLease(now / windowMillis);
+
+        long tokens;
+        do {
+            tokens = lease.tokens.get();
+            if (tokens <= 0) {
+                if (!lease.exhausted) {
+                    submitLease(bucket, lease);
+                } else if (blockMillis > 0) {
+                    // 全局额度已用完, 在封禁时间内不再扣减额度.
+                    bucket.blockedUntil = now + blockMillis;
+                }
+                return true;
+            }
+        } while (!lease.tokens.compareAndSet(tokens, tokens - 1));
+
+        if (tokens - 1 <= lowWatermark && !lease.exhausted) {
+            // 提前补充令牌
+            submitLease(bucket, lease);
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        reconcileFuture.cancel(false);
+        pendingBuckets.clear();
+        buckets.invalidateAll();
+    }
+
+    private ResourceBucket getBucket(String resource) {
+        ResourceBucket bucket = buckets.getIfPresent(resource);
+        if (bucket == null) {
+            try {
+                bucket = buckets.get(resource, () -> new ResourceBucket(resource));
+            } catch (ExecutionException e) {
+                bucket = new ResourceBucket(resource);
+            }
+        }
+        return bucket;
+    }
+
+    private void submitLease(ResourceBucket bucket, WindowLease lease) {
+        if (lease.pending.compareAndSet(false, true)) {
+            pendingBuckets.add(bucket);
+        }
+    }
+
+    /**
+     * 定时批量租借和结算令牌.
+     */
+    private void reconcile() {
+        if (pendingBuckets.isEmpty()) {
+            return;
+        }
+        try {
+            long currentWindow = currentTimeMillis() / windowMillis;
+            Map<Long, List<LeaseClaim>> claims = new HashMap<>(4);
+            Iterator<ResourceBucket> iterator = pendingBuckets.iterator();
+            while (iterator.hasNext()) {
+                ResourceBucket bucket = iterator.next();
+                iterator.remove();
+                WindowLease lease = bucket.lease;
+                lease.pending.set(false);
+                if (lease.window < currentWindow) {
+                    // 窗口已过期, 无需结算.
+                    continue;
+                }
+                long unsettled = lease.unsettled.getAndSet(0);
+                long request = unsettled;
+                if (!lease.exhausted && lease.tokens.get() <= lowWatermark) {
+                    request += leaseSize;
+                }
+                if (request > 0) {
+                    claims.computeIfAbsent(lease.window, w -> new ArrayList<>()).add(new LeaseClaim(bucket.resource, lease, unsettled, request));
+                }
+            }
+            for (Map.Entry<Long, List<LeaseClaim>> entry : claims.entrySet()) {
+                List<LeaseClaim> windowClaims = entry.getValue();
+                for (int from = 0; from < windowClaims.size(); from += MAX_BATCH_SIZE) {
+                    lease(entry.getKey(), windowClaims.subList(from, Math.min(from + MAX_BATCH_SIZE, windowClaims.size())));
+                }
+            }
+        } catch (Throwable cause) {
+            log.error("Failed execute to reconcile lease limiter, cause: {}", cause.getMessage(), cause);
+        }
+    }
+
+    private void lease(long window, List<LeaseClaim> claims) {
+        List<String> args = new ArrayList<>(claims.size() * 2 + 2);
+        args.add(String.valueOf(limit));
+        args.add(String.valueOf(windowSeconds * 2));
+        for (LeaseClaim claim : claims) {
+            args.add(claim.resource);
+            args.add(String.valueOf(claim.request));
+        }
+        String key = KEY_PREFIX.concat(String.valueOf(windowSeconds)).concat(StringConstants.Symbol.COLON).concat(String.valueOf(window));
+
+        List<Long> grants = null;
+        try {
+            grants = LEASE_SCRIPT.execute(SmartRedisManager.getInstance().getRedisTemplate(),
+                    ReturnType.MULTI, Collections.singletonList(key), args.toArray());
+        } catch (Exception e) {
+            log.warn("Failed execute to lease tokens from redis, fallback to local limit, cause: {}", e.getMessage());
+        }
+
+        for (int i = 0; i < claims.size(); i++) {
+            LeaseClaim claim = claims.get(i);
+            WindowLease lease = claim.lease;
+            if (grants == null || grants.size() <= i) {
+                // redis不可用, 退化为单机限流, 预支的令牌等待下次结算.
+                lease.unsettled.addAndGet(claim.unsettled);
+                long extra = Math.min(claim.request - claim.unsettled, lease.localQuota());
+                if (extra > 0) {
+                    lease.granted.addAndGet(extra);
+                    lease.unsettled.addAndGet(extra);
+                    lease.tokens.addAndGet(extra);
+                }
+                continue;
+            }
+            long grant = grants.get(i);
+            // 预支的令牌超出全局额度时本地令牌为负数, 相当于欠款, 由后续请求偿还.
+            lease.tokens.addAndGet(grant - claim.unsettled);
+            lease.granted.addAndGet(grant - claim.unsettled);
+            if (grant < claim.request) {
+                lease.exhausted = true;
+            }
+        }
+    }
+
+    private final class ResourceBucket {
+        private final String resource;
+        private volatile WindowLease lease;
+        /**
+         * 全局额度用完后的封禁截止时间.
+         */
+        private volatile long blockedUntil;
+
+        private ResourceBucket(String resource) {
+            this.resource = resource;
+            this.lease = new WindowLease(-1, 0);
+        }
+
+        private WindowLease getLease(long window) {
+            WindowLease current = this.lease;
+            if (current.window >= window) {
+                return current;
+            }
+            synchronized (this) {
+                current = this.lease;
+                if (current.window < window) {
+                    // 新的时间窗口, 本地先预支一份令牌, 由后台任务向Redis结算.
+                    current = new WindowLease(window, Math.min(leaseSize, limit));
+                    this.lease = current;
+                    submitLease(this, current);
+                }
+                return current;
+            }
+        }
+    }
+
+    private final class WindowLease {
+        private final long window;
+        /**
+         * 本地可用令牌.
+         */
+        private final AtomicLong tokens;
+        /**
+         * 本地预支, 尚未向Redis结算的令牌.
+         */
+        private final AtomicLong unsettled;
+        /**
+         * 当前窗口本实例拿到的令牌总数.
+         */
+        private final AtomicLong granted;
+        private final AtomicBoolean pending = new AtomicBoolean(false);
+        private volatile boolean exhausted;
+
+        private WindowLease(long window, long advance) {
+            this.window = window;
+            this.tokens = new AtomicLong(advance);
+            this.unsettled = new AtomicLong(advance);
+            this.granted = new AtomicLong(advance);
+        }
+
+        private long localQuota() {
+            return limit - granted.get();
+        }
+    }
+
+    private static final class LeaseClaim {
+        private final String resource;
+        private final WindowLease lease;
+        private final long unsettled;
+        private final long request;
+
+        private LeaseClaim(String resource, WindowLease lease, long unsettled, long request) {
+            this.resource = resource;
+            this.lease = lease;
+            this.unsettled = unsettled;
+            this.request = request;
+        }
+    }
+
+}
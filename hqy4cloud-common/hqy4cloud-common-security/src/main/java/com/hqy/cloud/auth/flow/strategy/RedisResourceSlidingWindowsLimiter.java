@@ -2,12 +2,11 @@ package com.hqy.cloud.auth.flow.strategy;
 
 import com.hqy.cloud.auth.flow.FlowLimitConfig;
 import com.hqy.cloud.auth.flow.LimitMode;
+import com.hqy.cloud.auth.flow.script.LuaScriptRegistry;
 import com.hqy.cloud.common.base.lang.NumberConstants;
 import com.hqy.cloud.foundation.cache.redis.support.SmartRedisManager;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
-import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.data.redis.connection.ReturnType;
 
 import java.util.Collections;
 
@@ -20,12 +19,16 @@ import java.util.Collections;
 @Slf4j
 public class RedisResourceSlidingWindowsLimiter extends AbstractLimiter {
 
+    /**
+     * 滑动窗口lua脚本, 只加载一次.
+     */
+    private static final LuaScriptRegistry.LuaScript SLIDING_SCRIPT = LuaScriptRegistry.get("limit/slidingLimit.lua");
+
     public RedisResourceSlidingWindowsLimiter(FlowLimitConfig config) {
         super(config);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public boolean isOverLimit(String resource) {
         //流量限制规则
         FlowLimitConfig config = getConfig();
@@ -40,11 +43,7 @@ public class RedisResourceSlidingWindowsLimiter extends AbstractLimiter {
 
         Long flag = null;
         try {
-            //lua脚本
-            DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
-            redisScript.setResultType(Long.class);
-            redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource("limit/slidingLimit.lua")));
-            flag = SmartRedisManager.getInstance().getRedisTemplate().execute(redisScript, Collections.singletonList(resource),
+            flag = SLIDING_SCRIPT.execute(SmartRedisManager.getInstance().getRedisTemplate(), ReturnType.INTEGER, Collections.singletonList(resource),
                     String.valueOf(now - timeWindow), String.valueOf(now), String.valueOf(config.getCount()), String.valueOf(now), String.valueOf(config.getBlockSeconds()));
         } catch (Exception e) {
             log.error(e.getMessage(), e);
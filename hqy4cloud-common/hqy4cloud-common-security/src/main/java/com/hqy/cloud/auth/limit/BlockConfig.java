@@ -16,11 +16,29 @@ import java.io.Serializable;
 @AllArgsConstructor
 public class BlockConfig implements Serializable {
 
+    /**
+     * 固定为新增expireAt之前的默认值, 兼容redis中已经存在的数据.
+     */
+    private static final long serialVersionUID = -548944415180710784L;
+
     private Integer frequency;
     private Long blockedMillis;
+    /**
+     * 封禁到期的时间戳, 旧数据为null, 由redis的ttl负责过期.
+     */
+    private Long expireAt;
+
+    public BlockConfig(Integer frequency, Long blockedMillis) {
+        this.frequency = frequency;
+        this.blockedMillis = blockedMillis;
+    }
 
     public void increment() {
         this.frequency = this.frequency + 1;
     }
 
+    public boolean isExpired(long now) {
+        return expireAt != null && expireAt > 0 && expireAt <= now;
+    }
+
 }
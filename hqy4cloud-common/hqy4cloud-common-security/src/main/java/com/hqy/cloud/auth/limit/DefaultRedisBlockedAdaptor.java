@@ -1,36 +1,92 @@
 package com.hqy.cloud.auth.limit;
 
-import cn.hutool.cache.CacheUtil;
-import cn.hutool.cache.impl.LRUCache;
 import cn.hutool.core.map.MapUtil;
+import com.hqy.cloud.common.base.lang.StringConstants;
 import com.hqy.cloud.common.base.project.MicroServiceConstants;
 import com.hqy.cloud.common.swticher.CommonSwitcher;
 import com.hqy.cloud.common.swticher.HttpGeneralSwitcher;
 import com.hqy.cloud.foundation.cache.redis.key.support.RedisNamedKey;
+import com.hqy.cloud.util.thread.NamedThreadFactory;
+import com.hqy.cloud.util.web.IpRangeIndex;
 import com.hqy.foundation.limit.service.BlockedIpService;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.redisson.api.RMapCache;
+import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.DisposableBean;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * DefaultBlockedAdaptor.
  * @see com.hqy.foundation.limit.service.BlockedIpService
  * 基于Redis的IP黑名单管理，内部为了优化redis 采用内存加定时器进行管理
  * 如果不启用ENABLE_SHARED_BLOCK_IP_LIST的场合，不使用redis来存储，而是使用本地缓存
+ * 黑名单支持单个ip和CIDR网段(IPv4/IPv6), 从redis(或本地缓存)拉取快照, 构建不可变的 {@link IpRangeIndex} 后原子替换,
+ * {@link #isBlockIp(String)} 只查询内存中的索引, 不访问redis.
+ * 共享模式下黑名单的变更通过redis topic广播: 新增的ip直接加入内存, 移除或网段变更时重建索引; 全量快照只做低频兜底刷新.
+ * 刷新失败时保留上一次成功构建的索引.
  * @author qiyuan.hong
  * @version 1.0
  * @date 2022/10/27 17:08
  */
-public abstract class DefaultRedisBlockedAdaptor implements BlockedIpService {
+@Slf4j
+public abstract class DefaultRedisBlockedAdaptor implements BlockedIpService, DisposableBean {
+
+    /**
+     * 全量刷新周期, 变更由topic实时通知.
+     */
+    private static final long REFRESH_INTERVAL_MILLIS = 30 * 1000;
+
+    /**
+     * topic消息: 重建索引.
+     */
+    private static final String INVALIDATE_ALL = "*";
+
+    private static final ScheduledExecutorService REFRESH_EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("blocked-ip-index-refresh", true));
+
     private volatile int frequency;
-    private final LRUCache<String, BlockConfig> localCache;
+    private final boolean shared;
+    private final Map<String, BlockConfig> localCache;
     private final RMapCache<String, BlockConfig> rCache;
+    private final RTopic topic;
+    private final int listenerId;
+    private final ScheduledFuture<?> refreshFuture;
+
+    /**
+     * 所有未过期的黑名单.
+     */
+    private volatile IpRangeIndex allIndex = IpRangeIndex.EMPTY;
+
+    /**
+     * 封禁次数达到frequency的黑名单.
+     */
+    private volatile IpRangeIndex frequentIndex = IpRangeIndex.EMPTY;
+
+    /**
+     * 上次刷新之后本实例添加的ip, 刷新后移除.
+     */
+    private final Map<String, RecentBlock> recentBlocks = new ConcurrentHashMap<>(64);
+
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    /**
+     * 需要重建索引, 刷新过程中的刷新请求不会丢失.
+     */
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
 
 
     public DefaultRedisBlockedAdaptor(String key, RedissonClient redissonClient) {
@@ -39,69 +95,102 @@ public abstract class DefaultRedisBlockedAdaptor implements BlockedIpService {
 
     public DefaultRedisBlockedAdaptor(String key, RedissonClient redissonClient, int frequency) {
         this.frequency = frequency;
-        if (CommonSwitcher.ENABLE_SHARED_BLOCK_IP_LIST.isOff()) {
-            localCache = CacheUtil.newLRUCache(1024);
-            rCache = null;
-        } else {
+        this.shared = CommonSwitcher.ENABLE_SHARED_BLOCK_IP_LIST.isOn();
+        if (shared) {
+            String redisKey = new RedisNamedKey(MicroServiceConstants.GATEWAY, key).getKey();
             localCache = null;
-            rCache = redissonClient.getMapCache(new RedisNamedKey(MicroServiceConstants.GATEWAY, key).getKey());
+            rCache = redissonClient.getMapCache(redisKey);
+            topic = redissonClient.getTopic(redisKey.concat(StringConstants.Symbol.COLON).concat("invalidate"), StringCodec.INSTANCE);
+            listenerId = topic.addListener(String.class, (channel, message) -> onMessage(message));
+        } else {
+            localCache = new ConcurrentHashMap<>(1024);
+            rCache = null;
+            topic = null;
+            listenerId = -1;
         }
+        refreshFuture = REFRESH_EXECUTOR.scheduleWithFixedDelay(this::refreshAsync, 0, REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
     }
 
     @Override
     public void addBlockIp(String ip, int blockSeconds) {
-        if (CommonSwitcher.ENABLE_SHARED_BLOCK_IP_LIST.isOff()) {
-            long timeout = blockSeconds * 1000L;
-            BlockConfig config = localCache.containsKey(ip) ? localCache.get(ip) : new BlockConfig(0, timeout);
-            config.increment();
-            localCache.put(ip, config, timeout);
-        } else {
-            BlockConfig config = rCache.getOrDefault(ip, new BlockConfig(0, blockSeconds * 1000L));
+        if (StringUtils.isBlank(ip)) {
+            return;
+        }
+        ip = ip.trim();
+        long timeout = blockSeconds * 1000L;
+        long expireAt = System.currentTimeMillis() + timeout;
+        BlockConfig config;
+        if (shared) {
+            config = rCache.getOrDefault(ip, new BlockConfig(0, timeout));
             config.increment();
+            config.setBlockedMillis(timeout);
+            config.setExpireAt(expireAt);
             rCache.put(ip, config, blockSeconds, TimeUnit.SECONDS);
+        } else {
+            config = localCache.compute(ip, (k, v) -> {
+                BlockConfig blockConfig = v == null || v.isExpired(System.currentTimeMillis()) ? new BlockConfig(0, timeout) : v;
+                blockConfig.increment();
+                blockConfig.setBlockedMillis(timeout);
+                blockConfig.setExpireAt(expireAt);
+                return blockConfig;
+            });
+        }
+        onBlocked(ip, config.getFrequency(), expireAt);
+        publish(ip.concat(StringConstants.Symbol.COMMA).concat(String.valueOf(config.getFrequency()))
+                .concat(StringConstants.Symbol.COMMA).concat(String.valueOf(expireAt)));
+    }
+
+    private void onBlocked(String ip, int frequency, long expireAt) {
+        recentBlocks.put(ip, new RecentBlock(frequency, expireAt, System.currentTimeMillis()));
+        if (ip.indexOf('/') > 0) {
+            // 网段只能通过索引匹配, 立即刷新.
+            refreshAsync();
         }
     }
 
     @Override
     public void removeBlockIp(String ip) {
-        if (CommonSwitcher.ENABLE_SHARED_BLOCK_IP_LIST.isOff()) {
-            localCache.remove(ip);
-        } else {
+        if (StringUtils.isBlank(ip)) {
+            return;
+        }
+        ip = ip.trim();
+        if (shared) {
             rCache.remove(ip);
+        } else {
+            localCache.remove(ip);
         }
+        recentBlocks.remove(ip);
+        refreshAsync();
+        publish(INVALIDATE_ALL);
     }
 
     @Override
     public void clearAllBlockIp() {
-        if (CommonSwitcher.ENABLE_SHARED_BLOCK_IP_LIST.isOff()) {
-            localCache.clear();
-        } else {
+        if (shared) {
             rCache.clear();
+        } else {
+            localCache.clear();
         }
+        recentBlocks.clear();
+        refreshAsync();
+        publish(INVALIDATE_ALL);
     }
 
     @Override
     public Set<String> getAllBlockIpSet() {
-        if (CommonSwitcher.ENABLE_SHARED_BLOCK_IP_LIST.isOff()) {
+        if (!shared) {
             //未开启redis共享封禁列表 直接return.
-            return localCache.keySet();
+            return Collections.unmodifiableSet(readAll().keySet());
         }
         return rCache.keySet();
     }
 
     @Override
     public Map<String, Long> getAllBlockIp() {
-        Map<String, Long> allBlockIpMap;
-       if (CommonSwitcher.ENABLE_SHARED_BLOCK_IP_LIST.isOff()) {
-           //未开启redis共享封禁列表 直接return.
-           allBlockIpMap = MapUtil.newHashMap(localCache.size());
-           for (String ip : localCache.keySet()) {
-               allBlockIpMap.put(ip, localCache.get(ip).getBlockedMillis());
-           }
-       } else {
-           allBlockIpMap = rCache.readAllMap().entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, v -> v.getValue().getBlockedMillis()));
-       }
-       return allBlockIpMap;
+        Map<String, BlockConfig> blocks = readAll();
+        Map<String, Long> allBlockIpMap = MapUtil.newHashMap(blocks.size());
+        blocks.forEach((ip, config) -> allBlockIpMap.put(ip, config.getBlockedMillis()));
+        return allBlockIpMap;
     }
 
     @Override
@@ -110,28 +199,146 @@ public abstract class DefaultRedisBlockedAdaptor implements BlockedIpService {
             return false;
         }
         ip = ip.trim();
-        BlockConfig blockConfig;
-        if (HttpGeneralSwitcher.ENABLE_SHARED_BLOCK_IP_LIST.isOff()) {
-            blockConfig = localCache.get(ip);
-        } else {
-            blockConfig = rCache.get(ip);
+        long now = System.currentTimeMillis();
+        boolean checkFrequency = HttpGeneralSwitcher.ENABLE_IP_RATE_LIMIT_HACK_CHECK_RULE.isOff();
+        IpRangeIndex index = checkFrequency ? frequentIndex : allIndex;
+        if (index.contains(ip, now)) {
+            return true;
         }
-
-        if (Objects.isNull(blockConfig)) {
+        if (recentBlocks.isEmpty()) {
             return false;
         }
+        RecentBlock recent = recentBlocks.get(ip);
+        if (Objects.isNull(recent) || recent.expireAt <= now) {
+            return false;
+        }
+        return !checkFrequency || recent.frequency >= this.frequency;
+    }
 
-        if (HttpGeneralSwitcher.ENABLE_IP_RATE_LIMIT_HACK_CHECK_RULE.isOff()) {
-            return blockConfig.getFrequency() >= this.frequency;
+    /**
+     * 立即异步刷新索引, 正在刷新时标记为dirty, 当前刷新结束后再刷新一次.
+     */
+    public void refreshAsync() {
+        dirty.set(true);
+        if (!refreshing.get()) {
+            REFRESH_EXECUTOR.execute(this::refresh);
         }
+    }
+
+    private void refresh() {
+        while (dirty.get() && refreshing.compareAndSet(false, true)) {
+            boolean succeeded = true;
+            try {
+                while (succeeded && dirty.getAndSet(false)) {
+                    succeeded = rebuild();
+                }
+            } finally {
+                refreshing.set(false);
+            }
+            if (!succeeded) {
+                // 等待下次定时刷新重试.
+                return;
+            }
+        }
+    }
+
+    /**
+     * 重建索引, 失败时保留上一次成功构建的索引.
+     * @return 是否成功
+     */
+    private boolean rebuild() {
+        long start = System.currentTimeMillis();
+        Map<String, BlockConfig> blocks;
+        try {
+            blocks = readAll();
+        } catch (Throwable cause) {
+            dirty.set(true);
+            log.error("Failed execute to read blocked ip list, keep the last index, cause: {}", cause.getMessage(), cause);
+            return false;
+        }
+        IpRangeIndex.Builder all = IpRangeIndex.builder();
+        IpRangeIndex.Builder frequent = IpRangeIndex.builder();
+        int threshold = this.frequency;
+        for (Map.Entry<String, BlockConfig> entry : blocks.entrySet()) {
+            BlockConfig config = entry.getValue();
+            long expireAt = config.getExpireAt() == null ? IpRangeIndex.NEVER_EXPIRE : config.getExpireAt();
+            if (!all.add(entry.getKey(), expireAt)) {
+                continue;
+            }
+            if (config.getFrequency() != null && config.getFrequency() >= threshold) {
+                frequent.add(entry.getKey(), expireAt);
+            }
+        }
+        this.allIndex = all.build();
+        this.frequentIndex = frequent.build();
+        // 刷新开始之前添加的ip已经包含在快照中.
+        recentBlocks.values().removeIf(recent -> recent.createdAt < start);
         return true;
     }
 
+    private void publish(String message) {
+        if (topic == null) {
+            return;
+        }
+        try {
+            topic.publishAsync(message);
+        } catch (Throwable cause) {
+            log.warn("Failed execute to publish blocked ip change, cause: {}", cause.getMessage());
+        }
+    }
+
+    private void onMessage(String message) {
+        if (INVALIDATE_ALL.equals(message)) {
+            refreshAsync();
+            return;
+        }
+        String[] values = StringUtils.split(message, StringConstants.Symbol.COMMA);
+        if (values == null || values.length != 3) {
+            refreshAsync();
+            return;
+        }
+        try {
+            onBlocked(values[0], Integer.parseInt(values[1]), Long.parseLong(values[2]));
+        } catch (NumberFormatException e) {
+            refreshAsync();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refreshFuture.cancel(false);
+        if (topic != null) {
+            topic.removeListener(listenerId);
+        }
+    }
+
+    private Map<String, BlockConfig> readAll() {
+        if (shared) {
+            return rCache.readAllMap();
+        }
+        long now = System.currentTimeMillis();
+        localCache.values().removeIf(config -> config.isExpired(now));
+        return new HashMap<>(localCache);
+    }
+
     public void setFrequency(int frequency) {
         this.frequency = frequency;
+        refreshAsync();
     }
 
     public int getFrequency() {
         return frequency;
     }
+
+    private static final class RecentBlock {
+        private final int frequency;
+        private final long expireAt;
+        private final long createdAt;
+
+        private RecentBlock(int frequency, long expireAt, long createdAt) {
+            this.frequency = frequency;
+            this.expireAt = expireAt;
+            this.createdAt = createdAt;
+        }
+    }
 }
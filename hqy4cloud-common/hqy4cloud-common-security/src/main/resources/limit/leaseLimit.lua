@@ -0,0 +1,20 @@
+--KEYS[1]: 限流时间窗口 hash key
+--ARGV[1]: 阈值
+--ARGV[2]: key 过期时间(秒)
+--ARGV[3...]: 成对出现的 资源(hash field), 申请的令牌数
+--返回: 每个资源实际租到的令牌数
+local limit = tonumber(ARGV[1])
+local grants = {}
+for i = 3, #ARGV, 2 do
+    local used = tonumber(redis.call('hget', KEYS[1], ARGV[i]) or '0')
+    local grant = math.min(tonumber(ARGV[i + 1]), limit - used)
+    if grant < 0 then
+        grant = 0
+    end
+    if grant > 0 then
+        redis.call('hincrby', KEYS[1], ARGV[i], grant)
+    end
+    grants[#grants + 1] = grant
+end
+redis.call('expire', KEYS[1], ARGV[2])
+return grants
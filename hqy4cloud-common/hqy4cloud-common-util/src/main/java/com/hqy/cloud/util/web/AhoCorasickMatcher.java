@@ -0,0 +1,210 @@
+package com.hqy.cloud.util.web;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * 不可变的 Aho-Corasick 多模式匹配自动机, 忽略大小写.
+ * 一次线性扫描即可判断文本是否包含任一关键词, 耗时与关键词数量无关.
+ * 每个关键词带有分组掩码(group mask), 不同分组的关键词共用一个自动机, 匹配时按掩码过滤.
+ * ASCII 字符预计算了完整的状态转移表, 其他字符沿失败指针回溯.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 15:50
+ */
+public final class AhoCorasickMatcher {
+
+    private static final int ASCII = 128;
+    private static final int ROOT = 0;
+
+    /**
+     * ascii dfa, delta[state * ASCII + char]
+     */
+    private final int[] asciiDelta;
+    private final int[] fail;
+    private final int[] outputMask;
+    /**
+     * sorted transitions of trie.
+     */
+    private final char[][] childKeys;
+    private final int[][] childStates;
+    private final int patternCount;
+
+    private AhoCorasickMatcher(Map<String, Integer> patterns) {
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> masks = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        masks.add(0);
+        for (Map.Entry<String, Integer> entry : patterns.entrySet()) {
+            int state = ROOT;
+            String pattern = entry.getKey();
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    masks.add(0);
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            masks.set(state, masks.get(state) | entry.getValue());
+        }
+
+        int size = trie.size();
+        this.patternCount = patterns.size();
+        this.fail = new int[size];
+        this.outputMask = new int[size];
+        this.asciiDelta = new int[size * ASCII];
+        this.childKeys = new char[size][];
+        this.childStates = new int[size][];
+        for (int state = 0; state < size; state++) {
+            outputMask[state] = masks.get(state);
+            Map<Character, Integer> children = trie.get(state);
+            char[] keys = new char[children.size()];
+            int[] states = new int[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> child : children.entrySet()) {
+                keys[i] = child.getKey();
+                states[i++] = child.getValue();
+            }
+            childKeys[state] = keys;
+            childStates[state] = states;
+        }
+
+        // bfs, build failure links and ascii dfa.
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : childStates[ROOT]) {
+            queue.add(child);
+        }
+        for (int c = 0; c < ASCII; c++) {
+            asciiDelta[c] = Math.max(child(ROOT, (char) c), ROOT);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputMask[state] |= outputMask[fail[state]];
+            char[] keys = childKeys[state];
+            for (int i = 0; i < keys.length; i++) {
+                int child = childStates[state][i];
+                fail[child] = step(fail[state], keys[i]);
+                queue.add(child);
+            }
+            for (int c = 0; c < ASCII; c++) {
+                int child = child(state, (char) c);
+                asciiDelta[state * ASCII + c] = child > ROOT ? child : asciiDelta[fail[state] * ASCII + c];
+            }
+        }
+    }
+
+    /**
+     * build matcher.
+     * @param groups key: group mask, value: keywords of the group.
+     * @return       immutable matcher.
+     */
+    public static AhoCorasickMatcher build(Map<Integer, ? extends Collection<String>> groups) {
+        Map<String, Integer> patterns = new HashMap<>(64);
+        for (Map.Entry<Integer, ? extends Collection<String>> entry : groups.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            for (String word : entry.getValue()) {
+                if (StringUtils.isEmpty(word)) {
+                    continue;
+                }
+                patterns.merge(toLowerCase(word), entry.getKey(), (a, b) -> a | b);
+            }
+        }
+        return new AhoCorasickMatcher(patterns);
+    }
+
+    public static AhoCorasickMatcher build(Collection<String> keywords) {
+        Map<Integer, Collection<String>> groups = new HashMap<>(2);
+        groups.put(1, keywords);
+        return build(groups);
+    }
+
+    /**
+     * 文本是否包含指定分组的任一关键词.
+     * @param text text
+     * @param mask group mask
+     * @return     matched or not.
+     */
+    public boolean matches(CharSequence text, int mask) {
+        return text != null && patternCount != 0 && scan(text, mask);
+    }
+
+    /**
+     * 一次扫描多段文本, 每段文本按各自的分组掩码匹配, 关键词不会跨段匹配, 命中后立即返回.
+     * @param texts 文本, null表示跳过
+     * @param masks 每段文本的分组掩码
+     * @return      第一段命中的文本下标, -1表示都不匹配
+     */
+    public int indexOfMatch(CharSequence[] texts, int[] masks) {
+        if (patternCount == 0) {
+            return -1;
+        }
+        for (int i = 0; i < texts.length; i++) {
+            if (texts[i] != null && scan(texts[i], masks[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean scan(CharSequence text, int mask) {
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            state = c < ASCII ? asciiDelta[state * ASCII + c] : step(state, c);
+            if ((outputMask[state] & mask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean matches(CharSequence text) {
+        return matches(text, -1);
+    }
+
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            int child = child(state, c);
+            if (child > ROOT) {
+                return child;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = fail[state];
+        }
+    }
+
+    private int child(int state, char c) {
+        int index = Arrays.binarySearch(childKeys[state], c);
+        return index < 0 ? -1 : childStates[state][index];
+    }
+
+    private static String toLowerCase(String word) {
+        StringBuilder sb = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            sb.append(Character.toLowerCase(word.charAt(i)));
+        }
+        return sb.toString();
+    }
+
+}
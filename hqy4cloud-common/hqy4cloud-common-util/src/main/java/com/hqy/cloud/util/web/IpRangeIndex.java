@@ -0,0 +1,218 @@
+package com.hqy.cloud.util.web;
+
+import com.google.common.net.InetAddresses;
+import org.apache.commons.lang3.StringUtils;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * 不可变的ip索引, 支持IPv4、IPv6和CIDR网段, 每个条目带过期时间.
+ * 内部为按位的二叉radix trie, 节点的子节点和过期时间存放在数组中, 终止节点用 {@link BitSet} 标记;
+ * 查找时沿ip的二进制位向下走, 经过任一未过期的终止节点即命中, 耗时只与地址长度有关, 与条目数量无关.
+ * IPv4映射的IPv6地址(::ffff:a.b.c.d)按IPv4处理. 只解析ip字面量, 不会触发DNS查询.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 20:30
+ */
+public final class IpRangeIndex {
+
+    public static final long NEVER_EXPIRE = Long.MAX_VALUE;
+
+    public static final IpRangeIndex EMPTY = builder().build();
+
+    private static final int IPV4_ROOT = 0;
+    private static final int IPV6_ROOT = 1;
+
+    /**
+     * children[node * 2 + bit], 0表示没有子节点(根节点不会是子节点).
+     */
+    private final int[] children;
+    private final long[] expireAt;
+    private final BitSet terminals;
+    private final int size;
+
+    private IpRangeIndex(Builder builder) {
+        int nodes = builder.nodes;
+        this.children = Arrays.copyOf(builder.children, nodes * 2);
+        this.expireAt = Arrays.copyOf(builder.expireAt, nodes);
+        this.terminals = (BitSet) builder.terminals.clone();
+        this.size = builder.size;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean contains(String ip) {
+        return contains(ip, System.currentTimeMillis());
+    }
+
+    /**
+     * ip是否被某个未过期的条目(单个ip或网段)包含.
+     * @param ip  ip字面量
+     * @param now 当前时间戳
+     * @return    是否命中
+     */
+    public boolean contains(String ip, long now) {
+        if (size == 0 || StringUtils.isBlank(ip)) {
+            return false;
+        }
+        byte[] address = parse(ip.trim());
+        if (address == null) {
+            return false;
+        }
+        int node = address.length == 4 ? IPV4_ROOT : IPV6_ROOT;
+        int bits = address.length * 8;
+        for (int i = 0; ; i++) {
+            if (terminals.get(node) && expireAt[node] > now) {
+                return true;
+            }
+            if (i == bits) {
+                return false;
+            }
+            node = children[node * 2 + bit(address, i)];
+            if (node == 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 条目数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 解析ip字面量, IPv4为4字节, IPv6为16字节.
+     * @param ip ip
+     * @return   地址字节, 非法ip返回null
+     */
+    static byte[] parse(String ip) {
+        if (ip.indexOf(':') < 0) {
+            return parseIpv4(ip);
+        }
+        try {
+            // IPv4映射的IPv6地址会被解析为Inet4Address.
+            InetAddress address = InetAddresses.forString(ip);
+            return address.getAddress();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static byte[] parseIpv4(String ip) {
+        byte[] address = new byte[4];
+        int part = 0;
+        int value = -1;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                if (value > 255) {
+                    return null;
+                }
+            } else if (c == '.' && value >= 0 && part < 3) {
+                address[part++] = (byte) value;
+                value = -1;
+            } else {
+                return null;
+            }
+        }
+        if (part != 3 || value < 0) {
+            return null;
+        }
+        address[3] = (byte) value;
+        return address;
+    }
+
+    private static int bit(byte[] address, int index) {
+        return (address[index >>> 3] >>> (7 - (index & 7))) & 1;
+    }
+
+    public static final class Builder {
+        private int[] children = new int[64];
+        private long[] expireAt = new long[32];
+        private final BitSet terminals = new BitSet();
+        private int nodes = 2;
+        private int size;
+
+        private Builder() {
+        }
+
+        public Builder add(String ipOrCidr) {
+            add(ipOrCidr, NEVER_EXPIRE);
+            return this;
+        }
+
+        /**
+         * 添加一个ip或者网段, 例如 10.0.0.1, 10.0.0.0/8, 2001:db8::/32
+         * @param ipOrCidr       ip或者CIDR网段
+         * @param expireAtMillis 过期时间戳, 小于等于0表示永不过期
+         * @return               是否添加成功, 非法的ip或网段返回false
+         */
+        public boolean add(String ipOrCidr, long expireAtMillis) {
+            if (StringUtils.isBlank(ipOrCidr)) {
+                return false;
+            }
+            String value = ipOrCidr.trim();
+            int slash = value.indexOf('/');
+            byte[] address = parse(slash < 0 ? value : value.substring(0, slash));
+            if (address == null) {
+                return false;
+            }
+            int bits = address.length * 8;
+            int prefix = bits;
+            if (slash >= 0) {
+                try {
+                    prefix = Integer.parseInt(value.substring(slash + 1));
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+                // IPv4映射地址的网段前缀按IPv4计算.
+                if (address.length == 4 && value.indexOf(':') >= 0) {
+                    prefix -= 96;
+                }
+                if (prefix < 0 || prefix > bits) {
+                    return false;
+                }
+            }
+
+            int node = address.length == 4 ? IPV4_ROOT : IPV6_ROOT;
+            for (int i = 0; i < prefix; i++) {
+                int slot = node * 2 + bit(address, i);
+                int child = children[slot];
+                if (child == 0) {
+                    child = newNode();
+                    children[slot] = child;
+                }
+                node = child;
+            }
+            long expire = expireAtMillis <= 0 ? NEVER_EXPIRE : expireAtMillis;
+            if (terminals.get(node)) {
+                expireAt[node] = Math.max(expireAt[node], expire);
+            } else {
+                terminals.set(node);
+                expireAt[node] = expire;
+                size++;
+            }
+            return true;
+        }
+
+        private int newNode() {
+            if (nodes == expireAt.length) {
+                expireAt = Arrays.copyOf(expireAt, nodes * 2);
+                children = Arrays.copyOf(children, nodes * 4);
+            }
+            return nodes++;
+        }
+
+        public IpRangeIndex build() {
+            return new IpRangeIndex(this);
+        }
+    }
+
+}
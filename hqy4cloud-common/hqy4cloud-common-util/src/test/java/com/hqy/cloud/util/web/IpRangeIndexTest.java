@@ -0,0 +1,141 @@
+package com.hqy.cloud.util.web;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 23:55
+ */
+public class IpRangeIndexTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    public void emptyIndex() {
+        assertEquals(0, IpRangeIndex.EMPTY.size());
+        assertFalse(IpRangeIndex.EMPTY.contains("10.0.0.1", NOW));
+    }
+
+    @Test
+    public void singleIpv4() {
+        IpRangeIndex index = IpRangeIndex.builder().add("192.168.1.10").build();
+        assertTrue(index.contains("192.168.1.10", NOW));
+        assertTrue(index.contains(" 192.168.1.10 ", NOW));
+        assertFalse(index.contains("192.168.1.11", NOW));
+        assertFalse(index.contains("192.168.1.1", NOW));
+    }
+
+    @Test
+    public void ipv4Cidr() {
+        IpRangeIndex index = IpRangeIndex.builder().add("10.0.0.0/8").add("172.16.0.0/12").build();
+        assertTrue(index.contains("10.0.0.0", NOW));
+        assertTrue(index.contains("10.255.255.255", NOW));
+        assertFalse(index.contains("11.0.0.0", NOW));
+        assertTrue(index.contains("172.31.255.255", NOW));
+        assertFalse(index.contains("172.32.0.0", NOW));
+        assertFalse(index.contains("172.15.255.255", NOW));
+    }
+
+    @Test
+    public void zeroPrefixMatchesEveryAddressOfTheFamily() {
+        IpRangeIndex index = IpRangeIndex.builder().add("0.0.0.0/0").build();
+        assertTrue(index.contains("1.2.3.4", NOW));
+        assertTrue(index.contains("255.255.255.255", NOW));
+        assertFalse(index.contains("2001:db8::1", NOW));
+    }
+
+    @Test
+    public void ipv6AndMappedIpv4() {
+        IpRangeIndex index = IpRangeIndex.builder().add("2001:db8::/32").add("::ffff:10.1.0.0/112").build();
+        assertTrue(index.contains("2001:db8::1", NOW));
+        assertTrue(index.contains("2001:0db8:ffff::", NOW));
+        assertFalse(index.contains("2001:db9::1", NOW));
+        // ::ffff:10.1.0.0/112 等价于 10.1.0.0/16
+        assertTrue(index.contains("10.1.2.3", NOW));
+        assertTrue(index.contains("::ffff:10.1.2.3", NOW));
+        assertFalse(index.contains("10.2.0.1", NOW));
+    }
+
+    @Test
+    public void expiredEntriesDoNotMatch() {
+        IpRangeIndex.Builder builder = IpRangeIndex.builder();
+        assertTrue(builder.add("10.0.0.1", NOW + 10));
+        assertTrue(builder.add("10.0.1.0/24", NOW - 10));
+        IpRangeIndex index = builder.build();
+        assertTrue(index.contains("10.0.0.1", NOW));
+        assertFalse(index.contains("10.0.0.1", NOW + 10));
+        assertFalse(index.contains("10.0.1.5", NOW));
+    }
+
+    @Test
+    public void wideRangeStillMatchesWhenNarrowEntryExpired() {
+        IpRangeIndex.Builder builder = IpRangeIndex.builder().add("10.0.0.0/24");
+        builder.add("10.0.0.1", NOW - 10);
+        IpRangeIndex index = builder.build();
+        assertTrue(index.contains("10.0.0.1", NOW));
+    }
+
+    @Test
+    public void duplicateKeepsTheLatestExpiry() {
+        IpRangeIndex.Builder builder = IpRangeIndex.builder();
+        builder.add("10.0.0.1", NOW + 10);
+        builder.add("10.0.0.1", NOW + 100);
+        builder.add("10.0.0.1", NOW + 50);
+        IpRangeIndex index = builder.build();
+        assertEquals(1, index.size());
+        assertTrue(index.contains("10.0.0.1", NOW + 99));
+        assertFalse(index.contains("10.0.0.1", NOW + 100));
+    }
+
+    @Test
+    public void nonPositiveExpiryNeverExpires() {
+        IpRangeIndex.Builder builder = IpRangeIndex.builder();
+        builder.add("10.0.0.1", 0);
+        IpRangeIndex index = builder.build();
+        assertTrue(index.contains("10.0.0.1", Long.MAX_VALUE - 1));
+    }
+
+    @Test
+    public void invalidEntriesAreRejected() {
+        IpRangeIndex.Builder builder = IpRangeIndex.builder();
+        assertFalse(builder.add(null, 0));
+        assertFalse(builder.add(" ", 0));
+        assertFalse(builder.add("256.0.0.1", 0));
+        assertFalse(builder.add("1.2.3", 0));
+        assertFalse(builder.add("1.2.3.4.5", 0));
+        assertFalse(builder.add("1..2.3", 0));
+        assertFalse(builder.add("10.0.0.0/33", 0));
+        assertFalse(builder.add("10.0.0.0/-1", 0));
+        assertFalse(builder.add("10.0.0.0/x", 0));
+        assertFalse(builder.add("2001:db8::/129", 0));
+        assertFalse(builder.add("example.com", 0));
+        assertEquals(0, builder.build().size());
+    }
+
+    @Test
+    public void invalidLookupsDoNotMatch() {
+        IpRangeIndex index = IpRangeIndex.builder().add("0.0.0.0/0").build();
+        assertFalse(index.contains(null, NOW));
+        assertFalse(index.contains("", NOW));
+        assertFalse(index.contains("unknown", NOW));
+        assertFalse(index.contains("1.2.3.256", NOW));
+    }
+
+    @Test
+    public void builderGrowsBeyondInitialCapacity() {
+        IpRangeIndex.Builder builder = IpRangeIndex.builder();
+        for (int i = 0; i < 256; i++) {
+            builder.add("10.0." + i + ".1");
+        }
+        IpRangeIndex index = builder.build();
+        assertEquals(256, index.size());
+        for (int i = 0; i < 256; i++) {
+            assertTrue(index.contains("10.0." + i + ".1", NOW));
+            assertFalse(index.contains("10.0." + i + ".2", NOW));
+        }
+    }
+
+}
@@ -19,5 +19,15 @@ public interface Constants {
 
     int CORS_FILTER_ORDER = Ordered.LOWEST_PRECEDENCE;
 
+    /**
+     * 合并后的请求体, 见WrapperRequestGlobalFilter
+     */
+    String CACHED_REQUEST_BODY_ATTR = "hqy.gateway.cachedRequestBody";
+
+    /**
+     * 解码后的请求体字符串
+     */
+    String CACHED_REQUEST_BODY_STRING_ATTR = "hqy.gateway.cachedRequestBodyString";
+
 
 }
@@ -5,10 +5,14 @@ import com.hqy.cloud.auth.core.authentication.UploadFileSecurityChecker;
 import com.hqy.cloud.auth.core.authentication.support.DefaultUploadFileSecurityChecker;
 import com.hqy.cloud.auth.limit.support.BiBlockedIpRedisService;
 import com.hqy.cloud.auth.limit.support.ManualBlockedIpService;
+import com.hqy.cloud.gateway.server.ThrottledBlockMeterBinder;
+import com.hqy.cloud.gateway.server.ThrottledBlockPersister;
 import com.hqy.cloud.gateway.server.auth.AuthorizationManager;
 import com.hqy.cloud.gateway.server.support.GlobalExceptionHandler;
 import com.hqy.foundation.limit.service.BlockedIpService;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -44,4 +48,16 @@ public class GatewayConfiguration {
     public GlobalExceptionHandler globalExceptionHandler() {
         return new GlobalExceptionHandler();
     }
+
+    @Configuration
+    @ConditionalOnClass(MeterBinder.class)
+    static class ThrottledBlockMetricsConfiguration {
+
+        @Bean
+        public ThrottledBlockMeterBinder throttledBlockMeterBinder(ThrottledBlockPersister throttledBlockPersister) {
+            return new ThrottledBlockMeterBinder(throttledBlockPersister);
+        }
+
+    }
+
 }
@@ -56,7 +56,7 @@ public class GlobalHttpThrottleFilter implements GlobalFilter, Ordered {
             //没有启用限流器...继续执行责任链
             return chain.filter(exchange);
         } else {
-            LimitResult limitResult = httpThrottles.limitValue(request);
+            LimitResult limitResult = httpThrottles.limitValue(exchange);
             if (limitResult.isNeedLimit()) {
                 String resultTip = StringUtils.isBlank(limitResult.getTip()) ? ResultCode.ILLEGAL_REQUEST_LIMITED.message : limitResult.getTip();
                 log.warn("HttpThrottled the request: {}, {}, {}.", requestIp, url, resultTip);
@@ -1,29 +1,37 @@
 package com.hqy.cloud.gateway.filter;
 
+import com.hqy.cloud.common.bind.MessageResponse;
 import com.hqy.cloud.common.swticher.HttpGeneralSwitcher;
-import io.netty.buffer.ByteBufAllocator;
+import com.hqy.cloud.gateway.util.RequestUtil;
+import com.hqy.cloud.gateway.util.ResponseUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.core.io.buffer.*;
-import org.springframework.http.HttpHeaders;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
-import java.util.Objects;
+import java.util.function.Function;
 
+import static com.hqy.cloud.gateway.Constants.CACHED_REQUEST_BODY_ATTR;
 import static com.hqy.cloud.gateway.Constants.WRAPPER_REQUEST_FILTER_ORDER;
 
 /**
  * 基于gateway webFlux 请求体内容被截断、不可重复读的包装过滤器
+ * 请求体的所有DataBuffer通过 {@link DataBufferUtils#join(org.reactivestreams.Publisher, int)} 合并,
+ * netty下为CompositeByteBuf, 不拷贝数据; 合并后的body放入exchange属性中, 后续过滤器通过 {@link RequestUtil#resolveBody(ServerWebExchange)} 读取.
+ * 请求体超过 gateway.request-body.max-bytes 时直接返回413, Content-Length超限的请求不会读取body.
  * @author qy
  * @date  2021-07-30 12:00
  */
@@ -31,6 +39,12 @@ import static com.hqy.cloud.gateway.Constants.WRAPPER_REQUEST_FILTER_ORDER;
 @Component
 public class WrapperRequestGlobalFilter implements GlobalFilter, Ordered {
 
+    private final int maxBodyBytes;
+
+    public WrapperRequestGlobalFilter(@Value("${gateway.request-body.max-bytes:10485760}") int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
 
@@ -40,25 +54,42 @@ public class WrapperRequestGlobalFilter implements GlobalFilter, Ordered {
         ServerHttpRequest request = exchange.getRequest();
         if (request.getMethod() == HttpMethod.OPTIONS) {
             return chain.filter(exchange);
-        } else {
-            DefaultDataBufferFactory defaultDataBufferFactory = new DefaultDataBufferFactory();
-            DefaultDataBuffer defaultDataBuffer = defaultDataBufferFactory.allocateBuffer(0);
-            //构建新数据流， 当body为空时，构建空流
-            Flux<DataBuffer> bodyDataBuffer = exchange.getRequest().getBody().defaultIfEmpty(defaultDataBuffer);
-            return DataBufferUtils.join(bodyDataBuffer)
-                    .flatMap(dataBuffer -> {
-                        DataBufferUtils.retain(dataBuffer);
-                        Flux<DataBuffer> cachedFlux = Flux
-                                .defer(() -> Flux.just(dataBuffer.slice(0, dataBuffer.readableByteCount())));
-                        ServerHttpRequest mutatedRequest = new ServerHttpRequestDecorator(exchange.getRequest()) {
-                            @Override
-                            public Flux<DataBuffer> getBody() {
-                                return cachedFlux;
-                            }
-                        };
-                        return chain.filter(exchange.mutate().request(mutatedRequest).build());
-                    });
         }
+        long contentLength = request.getHeaders().getContentLength();
+        if (contentLength > maxBodyBytes) {
+            return rejectOversizeBody(exchange, contentLength);
+        }
+        return DataBufferUtils.join(request.getBody(), maxBodyBytes)
+                .map(body -> cacheBodyAndFilter(exchange, chain, body))
+                //body为空时构建空的缓冲区, 原始的body流不能再次订阅.
+                .switchIfEmpty(Mono.fromSupplier(() -> cacheBodyAndFilter(exchange, chain, exchange.getResponse().bufferFactory().allocateBuffer(0))))
+                .onErrorResume(DataBufferLimitException.class, e -> Mono.just(rejectOversizeBody(exchange, contentLength)))
+                .flatMap(Function.identity());
+    }
+
+    private Mono<Void> cacheBodyAndFilter(ServerWebExchange exchange, GatewayFilterChain chain, DataBuffer body) {
+        exchange.getAttributes().put(CACHED_REQUEST_BODY_ATTR, body);
+        ServerHttpRequest mutatedRequest = new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                // 每次读取返回一个新的slice, 由读取方释放, body本身在请求结束时释放.
+                return Flux.defer(() -> Flux.just(body.retainedSlice(body.readPosition(), body.readableByteCount())));
+            }
+        };
+        return chain.filter(exchange.mutate().request(mutatedRequest).build())
+                .doFinally(signal -> {
+                    exchange.getAttributes().remove(CACHED_REQUEST_BODY_ATTR);
+                    DataBufferUtils.release(body);
+                });
+    }
+
+    private Mono<Void> rejectOversizeBody(ServerWebExchange exchange, long contentLength) {
+        ServerHttpRequest request = exchange.getRequest();
+        log.warn("Reject request body too large: {}, {}, content-length: {}, limit: {}.",
+                RequestUtil.getIpAddress(request), request.getURI().getPath(), contentLength, maxBodyBytes);
+        ServerHttpResponse response = exchange.getResponse();
+        MessageResponse message = new MessageResponse(false, HttpStatus.PAYLOAD_TOO_LARGE.getReasonPhrase(), HttpStatus.PAYLOAD_TOO_LARGE.value());
+        return Mono.defer(() -> response.writeWith(Flux.just(ResponseUtil.outputBuffer(message, response, HttpStatus.PAYLOAD_TOO_LARGE))));
     }
 
     @Override
@@ -5,11 +5,13 @@ import com.hqy.cloud.common.base.lang.StringConstants;
 import com.hqy.cloud.common.swticher.CommonSwitcher;
 import com.hqy.cloud.util.JsonUtil;
 import com.hqy.foundation.util.SocketHashFactorUtils;
+import com.hqy.cloud.foundation.common.route.ConsistentHashRing;
 import com.hqy.cloud.foundation.common.route.LoadBalanceHashFactorManager;
 import com.hqy.cloud.rpc.model.RPCServerAddress;
 import com.hqy.cloud.rpc.nacos.node.Metadata;
 import com.hqy.cloud.rpc.nacos.utils.NacosInstanceUtils;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.client.ServiceInstance;
@@ -22,17 +24,21 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
 
 
 /**
  * 基于socket hash值进行负载的策略<br>
- * 通常用于socket.io项目注册的时候配置了集群启动 因此某个客户端必须有状态的进行TCP的长连接握手. 基于hash值进行标记连接.
+ * 通常用于socket.io项目注册的时候配置了集群启动 因此某个客户端必须有状态的进行TCP的长连接握手. 基于hash值进行标记连接.<br>
+ * hash值在一致性hash环上路由, 节点增减时只有少部分用户需要重新连接; 实例元数据解析后缓存为路由快照, 实例列表变化时替换.
  * @author qiyuan.hong
  * @version 1.0
  * @date 2022/3/25 17:41
@@ -42,6 +48,11 @@ public class SocketHashLoadBalanceStrategy extends ServiceInstanceLoadBalancer {
 
     private static final Logger log = LoggerFactory.getLogger(SocketHashLoadBalanceStrategy.class);
 
+    /**
+     * key: 服务名, value: 路由快照
+     */
+    private final Map<String, RouteSnapshot> snapshots = new ConcurrentHashMap<>(4);
+
     @Override
     public Mono<Response<ServiceInstance>> choose(ServerWebExchange exchange, DiscoveryClient discoveryClient) {
         URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
@@ -60,41 +71,55 @@ public class SocketHashLoadBalanceStrategy extends ServiceInstanceLoadBalancer {
         if (CommonSwitcher.JUST_4_TEST_DEBUG.isOn()) {
             log.info("@@@ 采用hash负载均衡, 当前服务的实例数 -> {}", instances.size());
         }
+        RouteSnapshot snapshot = getSnapshot(instances);
+        if (snapshot.socketInstances.isEmpty()) {
+            return new DefaultResponse(null);
+        }
 
         ServerHttpRequest request = exchange.getRequest();
         //获取请求中的hash值
-        List<String> thisHash = request.getQueryParams().get(StringConstants.Auth.SOCKET_MULTI_PARAM_KEY);
-        ServiceInstance instance = null;
-        if (CollectionUtils.isEmpty(thisHash)) {
-            //如果请求的hash值为空 返回一个无状态的实例
-            ServiceInstance serviceInstance;
-            if (instances.size() == 1) {
-                serviceInstance = instances.get(0);
-            } else {
-                serviceInstance = instances.get(new Random().nextInt() % instances.size());
-            }
-            //获取socket.io项目端口
-            int socketPort = getSocketPort(serviceInstance);
-            instance = copy(socketPort, serviceInstance);
-
-        } else {
-            String hash = thisHash.get(0);
-            String module = instances.get(0).getServiceId();
-            String queryHashFactor = LoadBalanceHashFactorManager.queryHashFactor(module, Integer.parseInt(hash));
-            if (CommonSwitcher.JUST_4_TEST_DEBUG.isOn()) {
-                log.info("@@@ 采用hash值进行负载, hash:{}, module:{}, queryHashFactor:{}", hash, module, queryHashFactor);
-            }
-            for (ServiceInstance serviceInstance : instances) {
-                //获取socket.io项目端口
-                int socketPort = getSocketPort(serviceInstance);
-                String hashFactor = SocketHashFactorUtils.genHashFactor(serviceInstance.getHost(), socketPort);
-                if (queryHashFactor.equals(hashFactor)) {
-                    instance = copy(socketPort, serviceInstance);
-                    break;
+        String hash = request.getQueryParams().getFirst(StringConstants.Auth.SOCKET_MULTI_PARAM_KEY);
+        if (StringUtils.isNotBlank(hash)) {
+            try {
+                String queryHashFactor = snapshot.ring.route(Integer.parseInt(hash));
+                if (CommonSwitcher.JUST_4_TEST_DEBUG.isOn()) {
+                    log.info("@@@ 采用hash值进行负载, hash:{}, module:{}, queryHashFactor:{}", hash, snapshot.module, queryHashFactor);
                 }
+                return new DefaultResponse(queryHashFactor == null ? null : snapshot.socketInstances.get(queryHashFactor));
+            } catch (NumberFormatException e) {
+                log.warn("@@@ Invalid socket hash param: {}, module: {}", hash, snapshot.module);
             }
         }
-        return new DefaultResponse(instance);
+        //如果请求的hash值为空 返回一个无状态的实例
+        List<ServiceInstance> candidates = snapshot.instanceList;
+        return new DefaultResponse(candidates.get(ThreadLocalRandom.current().nextInt(candidates.size())));
+    }
+
+    /**
+     * 获取服务的路由快照, 实例列表未变化时直接使用缓存的快照, 不再逐个解析实例的元数据.
+     * @param instances 服务实例
+     * @return          路由快照
+     */
+    private RouteSnapshot getSnapshot(List<ServiceInstance> instances) {
+        String module = instances.get(0).getServiceId();
+        long signature = signature(instances);
+        RouteSnapshot snapshot = snapshots.get(module);
+        if (snapshot != null && snapshot.signature == signature && snapshot.size == instances.size()) {
+            return snapshot;
+        }
+        snapshot = new RouteSnapshot(module, signature, instances);
+        snapshots.put(module, snapshot);
+        return snapshot;
+    }
+
+    private static long signature(List<ServiceInstance> instances) {
+        long signature = 1;
+        for (ServiceInstance instance : instances) {
+            signature = 31 * signature + Objects.hashCode(instance.getHost());
+            signature = 31 * signature + instance.getPort();
+            signature = 31 * signature + Objects.hashCode(instance.getMetadata());
+        }
+        return signature;
     }
 
     private int getSocketPort(ServiceInstance serviceInstance) {
@@ -115,5 +140,39 @@ public class SocketHashLoadBalanceStrategy extends ServiceInstanceLoadBalancer {
             return 0;
         }
     }
-}
 
+    /**
+     * 服务实例的路由快照, 不可变, 实例变化时整体替换.
+     */
+    private final class RouteSnapshot {
+        private final String module;
+        private final long signature;
+        private final int size;
+        /**
+         * key: 哈希因子, value: 使用socket.io端口的实例
+         */
+        private final Map<String, ServiceInstance> socketInstances;
+        private final List<ServiceInstance> instanceList;
+        private final ConsistentHashRing ring;
+
+        private RouteSnapshot(String module, long signature, List<ServiceInstance> instances) {
+            this.module = module;
+            this.signature = signature;
+            this.size = instances.size();
+            Map<String, ServiceInstance> socketInstances = new LinkedHashMap<>(instances.size());
+            for (ServiceInstance serviceInstance : instances) {
+                //获取socket.io项目端口
+                int socketPort = getSocketPort(serviceInstance);
+                if (socketPort <= 0) {
+                    continue;
+                }
+                String hashFactor = SocketHashFactorUtils.genHashFactor(serviceInstance.getHost(), socketPort);
+                socketInstances.put(hashFactor, copy(socketPort, serviceInstance));
+            }
+            this.socketInstances = socketInstances;
+            this.instanceList = new ArrayList<>(socketInstances.values());
+            this.ring = LoadBalanceHashFactorManager.getRing(module, socketInstances.keySet());
+        }
+    }
+
+}
@@ -5,14 +5,12 @@ import com.hqy.cloud.auth.core.authentication.UploadFileSecurityChecker;
 import com.hqy.cloud.auth.flow.FlowResult;
 import com.hqy.cloud.auth.flow.server.HttpAccessFlowControlCenter;
 import com.hqy.cloud.coll.enums.BiBlockType;
-import com.hqy.cloud.coll.service.CollPersistService;
 import com.hqy.cloud.coll.struct.ThrottledBlockStruct;
 import com.hqy.cloud.common.base.lang.StringConstants;
 import com.hqy.cloud.common.base.lang.exception.RpcException;
 import com.hqy.cloud.common.swticher.HttpGeneralSwitcher;
 import com.hqy.cloud.gateway.util.RequestUtil;
 import com.hqy.cloud.rpc.core.Environment;
-import com.hqy.cloud.rpc.nacos.client.RPCClient;
 import com.hqy.foundation.common.HttpRequestInfo;
 import com.hqy.foundation.limit.LimitResult;
 import com.hqy.foundation.limit.service.HttpThrottles;
@@ -24,6 +22,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
 
 import java.util.List;
 import java.util.Map;
@@ -44,9 +43,11 @@ public class GatewayHttpThrottles implements HttpThrottles {
     private final HttpAccessFlowControlCenter flowControlCenter;
     private final ThrottlesProcess throttlesProcess;
     private final UploadFileSecurityChecker uploadFileSecurityChecker;
+    private final ThrottledBlockPersister throttledBlockPersister;
     private static final int MAX_LENGTH = 1024;
 
-    public LimitResult limitValue(ServerHttpRequest request) {
+    public LimitResult limitValue(ServerWebExchange exchange) {
+        final ServerHttpRequest request = exchange.getRequest();
 
         final HttpRequestInfo requestInfo = new HttpRequestInfo() {
             @Override
@@ -102,7 +103,7 @@ public class GatewayHttpThrottles implements HttpThrottles {
 
             @Override
             public String getRequestBody() {
-                return RequestUtil.resolveBodyFromRequest(request);
+                return RequestUtil.resolveBody(exchange);
             }
         };
 
@@ -168,25 +169,14 @@ public class GatewayHttpThrottles implements HttpThrottles {
     public LimitResult checkHackAccess(String uri, String url, String QueryString, String requestBody, String requestIp) {
         //聚合浓缩黑客判定方法....
         if (HttpGeneralSwitcher.ENABLE_HTTP_THROTTLE_SECURITY_CHECKING.isOn()) {
-            //检查请求体
-            if (StringUtils.isNotBlank(requestBody)) {
-                if (throttlesProcess.isHackAccess(requestBody, ThrottlesProcess.PARAMS_CHECK_MODE)) {
-                    return limitHackAccessAndPersistBlockIp(requestIp, url, BiBlockType.HACK_ACCESS_PARAM.value, requestBody);
-                }
-            }
-
-            //检查url或请求参数
-            if (StringUtils.isNotBlank(QueryString)) {
-                if (throttlesProcess.isHackAccess(QueryString, ThrottlesProcess.URI_CHECK_MODE)) {
-                    return limitHackAccessAndPersistBlockIp(requestIp, url, BiBlockType.HACK_ACCESS_URI.value, requestBody);
-                }
+            //一次扫描请求体、请求参数和uri
+            String checkUri = INCLINED_ROD.equals(uri) ? null : uri;
+            int mode = throttlesProcess.checkHackAccess(requestBody, QueryString, checkUri);
+            if (mode == ThrottlesProcess.PARAMS_CHECK_MODE) {
+                return limitHackAccessAndPersistBlockIp(requestIp, url, BiBlockType.HACK_ACCESS_PARAM.value, requestBody);
             }
-
-            //检查uri
-            if (StringUtils.isNotBlank(uri) && !INCLINED_ROD.equals(uri)) {
-                if (throttlesProcess.isHackAccess(uri, ThrottlesProcess.URI_CHECK_MODE)) {
-                    return limitHackAccessAndPersistBlockIp(requestIp, url, BiBlockType.HACK_ACCESS_URI.value, requestBody);
-                }
+            if (mode == ThrottlesProcess.URI_CHECK_MODE) {
+                return limitHackAccessAndPersistBlockIp(requestIp, url, BiBlockType.HACK_ACCESS_URI.value, requestBody);
             }
         }
         return new LimitResult();
@@ -216,7 +206,7 @@ public class GatewayHttpThrottles implements HttpThrottles {
 
     /**
      * 记录封禁 行为日志，历史记录，方便将来查看...
-     * 将有问题的ip 通过消息队列进行数据的异步持久化...
+     * 将有问题的ip 放入有界队列, 由 {@link ThrottledBlockPersister} 异步批量持久化...
      * @param ip              被封禁的ip
      * @param blockSeconds    被堵塞的时间时长，秒
      * @param url             被拦截时的访问url  例如是人工指定？还是HttpThrottleFilter(发现了恶意访问)，还是BIBlock(恶意关键词等..)
@@ -243,11 +233,8 @@ public class GatewayHttpThrottles implements HttpThrottles {
         struct.env = Environment.getInstance().getEnvironment();
         struct.throttleBy = createdBy;
 
-        try {
-            CollPersistService remoteService = RPCClient.getRemoteService(CollPersistService.class);
-            remoteService.saveThrottledBlockHistory(struct);
-        } catch (Exception e) {
-            log.warn("Failed execute to persist block log, cause: {}", e.getMessage());
+        if (!throttledBlockPersister.submit(struct)) {
+            log.debug("Block history buffer is full, drop block log: {}, {}", ip, url);
         }
 
     }
@@ -0,0 +1,46 @@
+package com.hqy.cloud.gateway.server;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 将封禁记录持久化的统计注册到micrometer, 通过actuator metrics端点查看:
+ * /actuator/metrics/gateway.block.persist?tag=type:accepted|dropped|persisted|failed
+ * /actuator/metrics/gateway.block.persist.pending
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 23:40
+ */
+public class ThrottledBlockMeterBinder implements MeterBinder {
+
+    public static final String METER_NAME = "gateway.block.persist";
+
+    private final ThrottledBlockPersister persister;
+
+    public ThrottledBlockMeterBinder(ThrottledBlockPersister persister) {
+        this.persister = persister;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        register(registry, "accepted", "block records accepted into the buffer", ThrottledBlockPersister::getAccepted);
+        register(registry, "dropped", "block records dropped because the buffer is full", ThrottledBlockPersister::getDropped);
+        register(registry, "persisted", "block records sent to the collection service", ThrottledBlockPersister::getPersisted);
+        register(registry, "failed", "block records failed to send to the collection service", ThrottledBlockPersister::getFailed);
+        Gauge.builder(METER_NAME + ".pending", persister, ThrottledBlockPersister::getPending)
+                .description("block records waiting in the buffer")
+                .register(registry);
+    }
+
+    private void register(MeterRegistry registry, String type, String description, ToDoubleFunction<ThrottledBlockPersister> function) {
+        FunctionCounter.builder(METER_NAME, persister, function)
+                .tag("type", type)
+                .description(description)
+                .register(registry);
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.hqy.cloud.gateway.server;
+
+import com.hqy.cloud.coll.service.CollPersistService;
+import com.hqy.cloud.coll.struct.ThrottledBlockStruct;
+import com.hqy.cloud.rpc.nacos.client.RPCClient;
+import com.hqy.cloud.util.thread.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 封禁记录异步批量持久化.
+ * 网关封禁ip时只把记录放入有界队列, 不在响应式过滤链中发起rpc; 后台线程按批大小或时间窗口批量发送给采集服务.
+ * 队列满时丢弃新记录并计数, 各项计数通过 {@link ThrottledBlockMeterBinder} 导出到micrometer.
+ * 配置项: gateway.block-persist.capacity / batch-size / flush-interval-millis
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 20:10
+ */
+@Slf4j
+@Component
+public class ThrottledBlockPersister implements DisposableBean {
+
+    private final int batchSize;
+    private final BlockingQueue<ThrottledBlockStruct> queue;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private long reportedDropped;
+
+    public ThrottledBlockPersister(@Value("${gateway.block-persist.capacity:4096}") int capacity,
+                                   @Value("${gateway.block-persist.batch-size:100}") int batchSize,
+                                   @Value("${gateway.block-persist.flush-interval-millis:1000}") long flushIntervalMillis) {
+        this.batchSize = Math.max(batchSize, 1);
+        this.queue = new ArrayBlockingQueue<>(Math.max(capacity, this.batchSize));
+        this.executor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("gateway-block-persist", true));
+        this.executor.scheduleWithFixedDelay(this::flush, flushIntervalMillis, Math.max(flushIntervalMillis, 10), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 提交一条封禁记录, 不阻塞.
+     * @param struct 封禁记录
+     * @return       false: 队列已满, 记录被丢弃
+     */
+    public boolean submit(ThrottledBlockStruct struct) {
+        if (!queue.offer(struct)) {
+            dropped.increment();
+            return false;
+        }
+        accepted.increment();
+        if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flush);
+            } catch (Throwable cause) {
+                flushRequested.set(false);
+            }
+        }
+        return true;
+    }
+
+    private synchronized void flush() {
+        flushRequested.set(false);
+        try {
+            List<ThrottledBlockStruct> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                send(batch);
+                boolean full = batch.size() == batchSize;
+                batch.clear();
+                if (!full) {
+                    break;
+                }
+            }
+            long totalDropped = dropped.sum();
+            if (totalDropped > reportedDropped) {
+                log.warn("Block history buffer overflow, dropped: {}, total dropped: {}.", totalDropped - reportedDropped, totalDropped);
+                reportedDropped = totalDropped;
+            }
+        } catch (Throwable cause) {
+            log.error("Failed execute to flush block history.", cause);
+        }
+    }
+
+    private void send(List<ThrottledBlockStruct> batch) {
+        try {
+            CollPersistService remoteService = RPCClient.getRemoteService(CollPersistService.class);
+            remoteService.saveThrottledBlockHistories(new ArrayList<>(batch));
+            persisted.add(batch.size());
+        } catch (Exception e) {
+            failed.add(batch.size());
+            log.warn("Failed execute to persist block log, size: {}, cause: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getPersisted() {
+        return persisted.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public int getPending() {
+        return queue.size();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+}
@@ -3,25 +3,50 @@ package com.hqy.cloud.gateway.server;
 import com.hqy.foundation.limit.service.BlockedIpService;
 import com.hqy.foundation.limit.service.ManualWhiteIpService;
 import com.hqy.foundation.limit.service.ThrottlesServer;
+import com.hqy.cloud.util.web.AhoCorasickMatcher;
 import com.hqy.cloud.util.web.HtmlCommonUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 节流执行器
+ * 黑客关键词使用预编译的 {@link AhoCorasickMatcher} 匹配, 内置关键词 + 配置项 gateway.hackWords.param / gateway.hackWords.uri,
+ * 配置变更时重新构建自动机并原子替换.
  * @author qy
  * @date 2021-08-02 10:45
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class ThrottlesProcess implements ThrottlesServer {
+public class ThrottlesProcess implements ThrottlesServer, InitializingBean, ApplicationListener<EnvironmentChangeEvent> {
 
     private final BlockedIpService manualBlockedIpService;
     private final BlockedIpService biBlockedIpService;
     private final ManualWhiteIpService manualWhiteIpService;
+    private final Environment environment;
+
+    /**
+     * 参数和uri关键词共用一个自动机, 按模式掩码区分.
+     */
+    private volatile AhoCorasickMatcher hackWordsMatcher;
+
+    private static final String HACK_WORDS_PREFIX = "gateway.hack-words";
+    private static final String HACK_WORDS_PARAM_KEY = HACK_WORDS_PREFIX + ".param";
+    private static final String HACK_WORDS_URI_KEY = HACK_WORDS_PREFIX + ".uri";
 
     /**
      * 校验参数
@@ -39,27 +64,91 @@ public class ThrottlesProcess implements ThrottlesServer {
     public static final int IP_ACCESS_BLOCK_SECONDS = 15 * 60;
 
 
+    @Override
+    public void afterPropertiesSet() {
+        refreshHackWords();
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        boolean hackWordsChanged = event.getKeys().stream()
+                .anyMatch(key -> key.replace("-", "").toLowerCase().startsWith(HACK_WORDS_PREFIX.replace("-", "")));
+        if (hackWordsChanged) {
+            refreshHackWords();
+        }
+    }
+
+    /**
+     * 重新构建黑客关键词自动机, 构建完成后原子替换, 构建失败时保留旧的自动机.
+     */
+    public void refreshHackWords() {
+        try {
+            List<String> paramWords = new ArrayList<>(HtmlCommonUtil.HACK_WORDS_IN_PARAM);
+            List<String> uriWords = new ArrayList<>(HtmlCommonUtil.HACK_WORDS_IN_URI);
+            Binder binder = Binder.get(environment);
+            paramWords.addAll(binder.bind(HACK_WORDS_PARAM_KEY, Bindable.listOf(String.class)).orElse(Collections.emptyList()));
+            uriWords.addAll(binder.bind(HACK_WORDS_URI_KEY, Bindable.listOf(String.class)).orElse(Collections.emptyList()));
+            Map<Integer, List<String>> groups = new HashMap<>(4);
+            groups.put(modeMask(PARAMS_CHECK_MODE), paramWords);
+            groups.put(modeMask(URI_CHECK_MODE), uriWords);
+            AhoCorasickMatcher matcher = AhoCorasickMatcher.build(groups);
+            this.hackWordsMatcher = matcher;
+            log.info("Refresh hack words matcher, param words: {}, uri words: {}, patterns: {}.", paramWords.size(), uriWords.size(), matcher.getPatternCount());
+        } catch (Throwable cause) {
+            log.error("Failed execute to refresh hack words matcher, cause: {}", cause.getMessage(), cause);
+        }
+    }
+
     @Override
     public boolean isHackAccess(String paramStringOrUri, int mode) {
         if (StringUtils.isBlank(paramStringOrUri)) {
             return false;
-        } else {
-            paramStringOrUri = HtmlCommonUtil.htmlUnescape(paramStringOrUri);
         }
+        if (mode != PARAMS_CHECK_MODE && mode != URI_CHECK_MODE) {
+            return false;
+        }
+        AhoCorasickMatcher matcher = getHackWordsMatcher();
+        // 一次线性扫描
+        return matcher != null && matcher.matches(HtmlCommonUtil.htmlUnescape(paramStringOrUri), modeMask(mode));
+    }
 
-        String finalParamStringOrUri = paramStringOrUri;
-
-        if (mode == PARAMS_CHECK_MODE) {
-            //校验param参数
-            return HtmlCommonUtil.HACK_WORDS_IN_PARAM.stream()
-                    .anyMatch(word -> StringUtils.containsIgnoreCase(finalParamStringOrUri, word));
+    /**
+     * 一次扫描请求的所有部分: 请求体按参数关键词匹配, 查询串和uri按uri关键词匹配.
+     * @param requestBody 请求体
+     * @param queryString 查询串
+     * @param uri         uri
+     * @return            命中的校验模式 {@link #PARAMS_CHECK_MODE} / {@link #URI_CHECK_MODE}, 未命中返回 -1
+     */
+    public int checkHackAccess(String requestBody, String queryString, String uri) {
+        AhoCorasickMatcher matcher = getHackWordsMatcher();
+        if (matcher == null) {
+            return -1;
         }
-        if (mode == URI_CHECK_MODE) {
-            //校验uri
-            return HtmlCommonUtil.HACK_WORDS_IN_URI.stream()
-                    .anyMatch(word -> StringUtils.containsIgnoreCase(finalParamStringOrUri, word));
+        CharSequence[] texts = {unescape(requestBody), unescape(queryString), unescape(uri)};
+        int[] masks = {modeMask(PARAMS_CHECK_MODE), modeMask(URI_CHECK_MODE), modeMask(URI_CHECK_MODE)};
+        int index = matcher.indexOfMatch(texts, masks);
+        if (index < 0) {
+            return -1;
         }
-        return false;
+        return index == 0 ? PARAMS_CHECK_MODE : URI_CHECK_MODE;
+    }
+
+    private AhoCorasickMatcher getHackWordsMatcher() {
+        AhoCorasickMatcher matcher = this.hackWordsMatcher;
+        if (matcher == null) {
+            // not initialized.
+            refreshHackWords();
+            matcher = this.hackWordsMatcher;
+        }
+        return matcher;
+    }
+
+    private static String unescape(String text) {
+        return StringUtils.isBlank(text) ? null : HtmlCommonUtil.htmlUnescape(text);
+    }
+
+    private static int modeMask(int mode) {
+        return 1 << mode;
     }
 
 
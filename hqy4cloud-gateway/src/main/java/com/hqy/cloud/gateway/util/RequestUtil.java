@@ -6,24 +6,24 @@ import com.hqy.cloud.common.base.lang.StringConstants;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import reactor.core.publisher.Flux;
+import org.springframework.web.server.ServerWebExchange;
 
 import java.net.InetAddress;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.UnknownHostException;
-import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static com.hqy.cloud.gateway.Constants.CACHED_REQUEST_BODY_ATTR;
+import static com.hqy.cloud.gateway.Constants.CACHED_REQUEST_BODY_STRING_ATTR;
+
 /**
  * 请求工具类
  * @author qiyuan.hong
@@ -89,29 +89,22 @@ public class RequestUtil {
 
 
     /**
-     * 读取被WrapperRequestGlobalFilter修饰的body内容
-     * @param serverHttpRequest
-     * @return
+     * 读取被WrapperRequestGlobalFilter缓存的body内容, 同一个请求只解码一次.
+     * @param exchange ServerWebExchange
+     * @return         body, 未缓存body时返回null
      */
-    public static String resolveBodyFromRequest(ServerHttpRequest serverHttpRequest) {
-        Flux<DataBuffer> body = serverHttpRequest.getBody();
-        AtomicReference<String> bodyRef = new AtomicReference<>();
-        body.subscribe(buffer -> {
-            CharBuffer charBuffer = StandardCharsets.UTF_8.decode(buffer.asByteBuffer());
-            DataBufferUtils.release(buffer);
-            bodyRef.set(charBuffer.toString());
-        });
-        return bodyRef.get();
-
-        /*StringBuilder sb = new StringBuilder();
-        body.subscribe(buffer -> {
-            byte[] bytes = new byte[buffer.readableByteCount()];
-            buffer.read(bytes);
-            String bodyString = new String(bytes, StandardCharsets.UTF_8);
-            sb.append(bodyString);
-        });
-
-        return formatStr(sb.toString());*/
+    public static String resolveBody(ServerWebExchange exchange) {
+        String cached = exchange.getAttribute(CACHED_REQUEST_BODY_STRING_ATTR);
+        if (cached != null) {
+            return cached;
+        }
+        DataBuffer body = exchange.getAttribute(CACHED_REQUEST_BODY_ATTR);
+        if (body == null) {
+            return null;
+        }
+        String bodyString = body.toString(body.readPosition(), body.readableByteCount(), StandardCharsets.UTF_8);
+        exchange.getAttributes().put(CACHED_REQUEST_BODY_STRING_ATTR, bodyString);
+        return bodyString;
     }
 
 
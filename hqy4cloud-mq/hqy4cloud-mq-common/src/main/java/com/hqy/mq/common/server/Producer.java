@@ -3,6 +3,8 @@ package com.hqy.mq.common.server;
 import com.hqy.cloud.common.base.lang.exception.MessageQueueException;
 import com.hqy.mq.common.bind.MessageModel;
 
+import java.util.List;
+
 /**
  * 生产者.
  * @author qiyuan.hong
@@ -18,4 +20,11 @@ public interface Producer {
      */
     <T extends MessageModel> void send(T message) throws MessageQueueException;
 
+    /**
+     * 批量投递消息, 由具体的消息队列使用原生的批量方式发送.
+     * @param messages mq消息
+     * @throws MessageQueueException 异常.
+     */
+    <T extends MessageModel> void sendBatch(List<T> messages) throws MessageQueueException;
+
 }
@@ -6,7 +6,9 @@ import com.hqy.mq.common.bind.MessageModel;
 import com.hqy.mq.common.lang.enums.MessageQueue;
 import com.hqy.mq.common.server.Producer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
 
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -25,15 +27,35 @@ public abstract class AbstractProducer implements Producer {
 
     @Override
      public <T extends MessageModel> void send(T message) throws MessageQueueException {
-        if (Objects.isNull(message) || Objects.isNull(message.getParameters())) {
-            throw new MessageQueueException(MessageQueueException.EMPTY_MESSAGE_CODE, "Mq message should not be null.");
-        }
+        checkMessage(message);
         if (CommonSwitcher.JUST_4_TEST_DEBUG.isOn() && log.isDebugEnabled()) {
             log.debug("Send message to {}, message: {}.", mq.name, message.jsonPayload());
         }
         sendMessage(message);
     }
 
+    @Override
+    public <T extends MessageModel> void sendBatch(List<T> messages) throws MessageQueueException {
+        if (CollectionUtils.isEmpty(messages)) {
+            throw new MessageQueueException(MessageQueueException.EMPTY_MESSAGE_CODE, "Mq messages should not be empty.");
+        }
+        messages.forEach(this::checkMessage);
+        if (CommonSwitcher.JUST_4_TEST_DEBUG.isOn() && log.isDebugEnabled()) {
+            log.debug("Send {} messages to {}.", messages.size(), mq.name);
+        }
+        if (messages.size() == 1) {
+            sendMessage(messages.get(0));
+        } else {
+            sendMessages(messages);
+        }
+    }
+
+    private <T extends MessageModel> void checkMessage(T message) {
+        if (Objects.isNull(message) || Objects.isNull(message.getParameters())) {
+            throw new MessageQueueException(MessageQueueException.EMPTY_MESSAGE_CODE, "Mq message should not be null.");
+        }
+    }
+
     /**
      * 发消息逻辑由具体的消息队列模块处理。
      * @param message 消息j
@@ -41,4 +63,15 @@ public abstract class AbstractProducer implements Producer {
      */
     protected abstract <T extends MessageModel> void sendMessage(T message) throws MessageQueueException;
 
+    /**
+     * 批量发消息, 默认逐条发送, 具体的消息队列模块覆盖为原生的批量发送.
+     * @param messages 消息
+     * @throws MessageQueueException 异常.
+     */
+    protected <T extends MessageModel> void sendMessages(List<T> messages) throws MessageQueueException {
+        for (T message : messages) {
+            sendMessage(message);
+        }
+    }
+
 }
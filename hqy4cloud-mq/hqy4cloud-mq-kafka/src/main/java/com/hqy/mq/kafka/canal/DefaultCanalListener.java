@@ -7,6 +7,7 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.support.Acknowledgment;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * @author qiyuan.hong
@@ -27,13 +28,12 @@ public class DefaultCanalListener implements CanalListener {
             return;
         }
         log.info("canal listener message size: {}.", consumerRecords.size());
-        for (ConsumerRecord<String, String> consumerRecord : consumerRecords) {
-            String value = consumerRecord.value();
-            try {
-                canalGlue.process(value);
-            } catch (Throwable cause) {
-                log.error("Failed execute to consume canal message = {}.", value, cause);
-            }
+        List<String> values = consumerRecords.stream().map(ConsumerRecord::value).collect(Collectors.toList());
+        try {
+            // 整批处理完成后才提交offset.
+            canalGlue.process(values);
+        } catch (Throwable cause) {
+            log.error("Failed execute to consume canal messages, size = {}.", values.size(), cause);
         }
         acknowledgment.acknowledge();
     }
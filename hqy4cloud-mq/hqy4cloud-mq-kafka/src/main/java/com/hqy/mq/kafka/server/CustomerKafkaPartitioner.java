@@ -2,8 +2,14 @@ package com.hqy.mq.kafka.server;
 
 import org.apache.kafka.clients.producer.Partitioner;
 import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 自定义分区策略
@@ -14,24 +20,93 @@ import java.util.Map;
  *      spring.kafka.producer.properties.partitioner.class=com.hqy.mq.kafka.server.CustomerKafkaPartitioner
  * 2.若发送消息时未指定 Partition，但指定了 key（kafka允许为每条消息设置一个key），则对key值进行hash计算，根据计算结果路由到指定分区，这种情况下可以保证同一个 Key 的所有消息都进入到相同的分区；
  * 3. Partition 和 key 都未指定，则使用kafka默认的分区策略，轮询选出一个 Partition；
+ * 本分区器: 有key的消息使用murmur2 hash取模(与kafka默认分区器一致), 没有key的消息默认使用粘性分区,
+ * 即一个批次内的消息写入同一个可用分区, 批次发送后再切换分区; 配置 {@link #STICKY_CONFIG}=false 则轮询可用分区.
  * @author qiyuan.hong
  * @version 1.0
  * @date 2022/5/12 14:52
  */
 public class CustomerKafkaPartitioner implements Partitioner {
 
+    /**
+     * 没有key的消息是否采用粘性分区, 默认开启. 关闭则轮询.
+     */
+    public static final String STICKY_CONFIG = "hqy.partitioner.sticky";
+
+    private boolean sticky = true;
+    private final Map<String, Integer> stickyPartitions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> roundRobinCounters = new ConcurrentHashMap<>();
+
     @Override
     public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
-        return 0;
+        List<PartitionInfo> partitions = cluster.partitionsForTopic(topic);
+        int numPartitions = partitions.size();
+        if (numPartitions <= 1) {
+            return 0;
+        }
+        if (keyBytes != null) {
+            // 与kafka默认分区器相同的murmur2 hash, 同一个key总是路由到相同的分区.
+            return Utils.toPositive(Utils.murmur2(keyBytes)) % numPartitions;
+        }
+        if (sticky) {
+            Integer partition = stickyPartitions.get(topic);
+            return partition != null ? partition : nextStickyPartition(topic, cluster, -1);
+        }
+        int next = roundRobinCounters.computeIfAbsent(topic, t -> new AtomicInteger()).getAndIncrement();
+        return availablePartition(cluster, topic, numPartitions, next);
     }
 
+    /**
+     * 当前分区的批次已经发送, 没有key的消息切换到其他分区. 同一批次的消息都写入同一个分区, 减少请求数.
+     */
     @Override
-    public void close() {
+    @SuppressWarnings("deprecation")
+    public void onNewBatch(String topic, Cluster cluster, int prevPartition) {
+        if (sticky) {
+            nextStickyPartition(topic, cluster, prevPartition);
+        }
+    }
+
+    private int nextStickyPartition(String topic, Cluster cluster, int prevPartition) {
+        Integer oldPartition = stickyPartitions.get(topic);
+        if (oldPartition != null && oldPartition != prevPartition) {
+            // 其他线程已经切换.
+            return oldPartition;
+        }
+        int numPartitions = cluster.partitionsForTopic(topic).size();
+        int newPartition = availablePartition(cluster, topic, numPartitions, ThreadLocalRandom.current().nextInt());
+        if (oldPartition == null) {
+            Integer exist = stickyPartitions.putIfAbsent(topic, newPartition);
+            return exist == null ? newPartition : exist;
+        }
+        for (int i = 0; i < numPartitions && newPartition == oldPartition; i++) {
+            newPartition = availablePartition(cluster, topic, numPartitions, ThreadLocalRandom.current().nextInt());
+        }
+        if (stickyPartitions.replace(topic, oldPartition, newPartition)) {
+            return newPartition;
+        }
+        return stickyPartitions.getOrDefault(topic, newPartition);
+    }
 
+    private int availablePartition(Cluster cluster, String topic, int numPartitions, int random) {
+        List<PartitionInfo> availablePartitions = cluster.availablePartitionsForTopic(topic);
+        if (availablePartitions.isEmpty()) {
+            return Utils.toPositive(random) % numPartitions;
+        }
+        return availablePartitions.get(Utils.toPositive(random) % availablePartitions.size()).partition();
     }
 
     @Override
-    public void configure(Map<String, ?> configs) {
+    public void close() {
+        stickyPartitions.clear();
+        roundRobinCounters.clear();
+    }
 
+    @Override
+    public void configure(Map<String, ?> configs) {
+        Object config = configs.get(STICKY_CONFIG);
+        if (config != null) {
+            sticky = Boolean.parseBoolean(config.toString());
+        }
     }
 }
@@ -5,11 +5,14 @@ import com.hqy.mq.common.bind.MessageModel;
 import com.hqy.mq.common.lang.enums.MessageQueue;
 import com.hqy.mq.common.server.support.AbstractProducer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaOperations;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.lang.Nullable;
 import org.springframework.util.concurrent.ListenableFutureCallback;
 
+import java.util.List;
+
 import static com.hqy.mq.kafka.lang.KafkaConstants.PARTITION_KEY;
 import static com.hqy.mq.kafka.lang.KafkaConstants.TIMESTAMP_KEY;
 
@@ -41,11 +44,31 @@ public class KafkaMessageProducer extends AbstractProducer {
 
     @Override
     protected <T extends MessageModel> void sendMessage(T message) throws MessageQueueException {
+        doSend(kafkaTemplate, message);
+    }
+
+    /**
+     * 批量发送: 所有消息先追加到producer的发送缓冲区, 同一分区的消息由kafka合并为一个批次发送;
+     * 事务模板下整批消息在同一个事务中提交.
+     */
+    @Override
+    protected <T extends MessageModel> void sendMessages(List<T> messages) throws MessageQueueException {
+        if (kafkaTemplate.isTransactional() && !kafkaTemplate.inTransaction()) {
+            kafkaTemplate.executeInTransaction(operations -> {
+                messages.forEach(message -> doSend(operations, message));
+                return null;
+            });
+        } else {
+            messages.forEach(message -> doSend(kafkaTemplate, message));
+        }
+    }
+
+    private <T extends MessageModel> void doSend(KafkaOperations<String, String> operations, T message) {
         String topic = message.getParameters().getTarget();
         String key = message.getParameters().getKey();
         Integer partition = message.getParameters().getInt(PARTITION_KEY);
         Long timestamp = message.getParameters().getLong(TIMESTAMP_KEY);
-        kafkaTemplate.send(topic, partition, timestamp, key, message.jsonPayload()).addCallback(new ListenableFutureCallback<SendResult<String, String>>() {
+        operations.send(topic, partition, timestamp, key, message.jsonPayload()).addCallback(new ListenableFutureCallback<SendResult<String, String>>() {
             @Override
             public void onFailure(@Nullable Throwable ex) {
                 doFailure(message, ex);
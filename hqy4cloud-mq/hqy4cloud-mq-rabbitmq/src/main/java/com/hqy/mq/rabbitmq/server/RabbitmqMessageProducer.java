@@ -11,11 +11,14 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.util.concurrent.ListenableFutureCallback;
 
 import javax.annotation.Nullable;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static com.hqy.mq.rabbitmq.lang.RabbitConstants.QUEUE_MAX_PRIORITY_KEY;
 import static com.hqy.mq.rabbitmq.lang.RabbitConstants.TTL;
@@ -50,6 +53,25 @@ public abstract class RabbitmqMessageProducer extends AbstractProducer {
 
     @Override
     protected <T extends MessageModel> void sendMessage(T message) throws MessageQueueException {
+        String jsonPayload = checkParameters(message);
+        doSend(rabbitTemplate, message, jsonPayload);
+    }
+
+    /**
+     * 批量发送: 整批消息在同一个channel上连续发布, 不必每条消息都从缓存中获取/归还channel, 发布确认仍然按消息回调.
+     */
+    @Override
+    protected <T extends MessageModel> void sendMessages(List<T> messages) throws MessageQueueException {
+        List<String> jsonPayloads = messages.stream().map(this::checkParameters).collect(Collectors.toList());
+        rabbitTemplate.invoke(operations -> {
+            for (int i = 0; i < messages.size(); i++) {
+                doSend(operations, messages.get(i), jsonPayloads.get(i));
+            }
+            return null;
+        });
+    }
+
+    private <T extends MessageModel> String checkParameters(T message) {
         //交换机
         String exchange = message.getParameters().getTarget();
         //路由键
@@ -59,7 +81,10 @@ public abstract class RabbitmqMessageProducer extends AbstractProducer {
         if (StringUtils.isAnyBlank(exchange, routingKey, jsonPayload)) {
             throw new MessageQueueException(MessageQueueException.EMPTY_MESSAGE_PARAMS, "Rabbitmq message parameters should not be empty.");
         }
+        return jsonPayload;
+    }
 
+    private <T extends MessageModel> void doSend(RabbitOperations operations, T message, String jsonPayload) {
         MessagePostProcessor processor = getMessagePostProcessor(message);
         CorrelationData correlationData = new CorrelationData();
         correlationData.getFuture().addCallback(new ListenableFutureCallback<CorrelationData.Confirm>() {
@@ -73,7 +98,7 @@ public abstract class RabbitmqMessageProducer extends AbstractProducer {
             }
         });
 
-        rabbitTemplate.convertAndSend(exchange, routingKey, jsonPayload, processor, correlationData);
+        operations.convertAndSend(message.getParameters().getTarget(), message.getParameters().getKey(), jsonPayload, processor, correlationData);
     }
 
     private <T extends MessageModel> MessagePostProcessor getMessagePostProcessor(T message) {
@@ -16,6 +16,9 @@ import org.apache.rocketmq.spring.support.RocketMQHeaders;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 import static com.hqy.cloud.common.base.lang.exception.MessageQueueException.FAILED_SEND_MESSAGE;
@@ -28,6 +31,12 @@ import static com.hqy.mq.common.lang.Constants.ORDERLY_MESSAGE_KEY;
  */
 @Slf4j
 public class RocketmqMessageProducer extends AbstractProducer {
+
+    /**
+     * 单次批量发送的最大字节数, rocketmq默认消息体上限为4M.
+     */
+    private static final int MAX_BATCH_BYTES = 1024 * 1024;
+
     private final RocketMQTemplate rocketMQTemplate;
     public RocketmqMessageProducer(RocketMQTemplate rocketMQTemplate) {
         super(MessageQueue.ROCKETMQ);
@@ -48,19 +57,10 @@ public class RocketmqMessageProducer extends AbstractProducer {
 
     @Override
     protected <T extends MessageModel> void sendMessage(T message) throws MessageQueueException {
-        //主题
-        String destination = message.getParameters().getTarget();
         //消息内容json
         String payload = message.jsonPayload();
-        if (StringUtils.isAnyBlank(destination, payload)) {
-            throw new MessageQueueException(MessageQueueException.EMPTY_MESSAGE_PARAMS, "Rabbitmq message params should not be empty.");
-        }
-        //消息tag
-        String tag = message.getParameters().getKey();
-        if (StringUtils.isNotBlank(tag)) {
-            destination = destination.concat(StringConstants.Symbol.COLON).concat(tag);
-        }
-
+        //主题:tag
+        String destination = getDestination(message, payload);
         //顺序消息的hashkey
         String orderly = message.getParameters().getParameter(ORDERLY_MESSAGE_KEY);
         //构建Rocketmq消息对象
@@ -109,6 +109,78 @@ public class RocketmqMessageProducer extends AbstractProducer {
 
     }
 
+    /**
+     * 批量发送: 连续的、发往同一个主题:tag的非顺序同步消息合并为rocketmq原生的批量消息, 一次请求写入broker;
+     * 顺序消息、单向消息、异步消息仍然逐条发送, 发送前先把已攒下的批次刷出, 保证整体发送顺序与入参一致.
+     */
+    @Override
+    protected <T extends MessageModel> void sendMessages(List<T> messages) throws MessageQueueException {
+        String batchDestination = null;
+        List<T> batchMessages = new ArrayList<>();
+        List<Message<String>> batchRocketMessages = new ArrayList<>();
+        int batchBytes = 0;
+        for (T message : messages) {
+            if (message.messageType() != MessageType.SYNC || StringUtils.isNotBlank(message.getParameters().getParameter(ORDERLY_MESSAGE_KEY))) {
+                flushBatch(batchDestination, batchRocketMessages, batchMessages);
+                batchBytes = 0;
+                sendMessage(message);
+                continue;
+            }
+            String payload = message.jsonPayload();
+            String destination = getDestination(message, payload);
+            //rocketmq按字节限制消息体大小, 这里按UTF-8编码后的字节数计算
+            int size = payload.getBytes(StandardCharsets.UTF_8).length;
+            if (!destination.equals(batchDestination) || (!batchRocketMessages.isEmpty() && batchBytes + size > MAX_BATCH_BYTES)) {
+                flushBatch(batchDestination, batchRocketMessages, batchMessages);
+                batchBytes = 0;
+                batchDestination = destination;
+            }
+            batchMessages.add(message);
+            batchRocketMessages.add(MessageBuilder.withPayload(payload).setHeader(RocketMQHeaders.KEYS, message.messageId()).build());
+            batchBytes += size;
+        }
+        flushBatch(batchDestination, batchRocketMessages, batchMessages);
+    }
+
+    private <T extends MessageModel> void flushBatch(String destination, List<Message<String>> rocketMessages, List<T> messages) {
+        if (rocketMessages.isEmpty()) {
+            return;
+        }
+        syncSendBatch(destination, rocketMessages, messages);
+        rocketMessages.clear();
+        messages.clear();
+    }
+
+    private <T extends MessageModel> void syncSendBatch(String destination, List<Message<String>> rocketMessages, List<T> messages) {
+        SendResult sendResult = null;
+        Throwable cause = null;
+        try {
+            sendResult = rocketMQTemplate.syncSend(destination, rocketMessages);
+        } catch (Throwable e) {
+            cause = e;
+        }
+        if (sendResult != null && SendStatus.SEND_OK.equals(sendResult.getSendStatus())) {
+            messages.forEach(this::doSuccess);
+        } else {
+            Throwable ex = cause != null ? cause : new MessageQueueException(FAILED_SEND_MESSAGE, "Failed execute to sync send batch message to rocketmq.");
+            messages.forEach(message -> doFailure(message, ex));
+        }
+    }
+
+    private <T extends MessageModel> String getDestination(T message, String payload) {
+        //主题
+        String destination = message.getParameters().getTarget();
+        if (StringUtils.isAnyBlank(destination, payload)) {
+            throw new MessageQueueException(MessageQueueException.EMPTY_MESSAGE_PARAMS, "Rocketmq message params should not be empty.");
+        }
+        //消息tag
+        String tag = message.getParameters().getKey();
+        if (StringUtils.isNotBlank(tag)) {
+            destination = destination.concat(StringConstants.Symbol.COLON).concat(tag);
+        }
+        return destination;
+    }
+
     public RocketMQTemplate getRocketMQTemplate() {
         return rocketMQTemplate;
     }
@@ -0,0 +1,164 @@
+package com.hqy.cloud.netty.backpressure;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.ReferenceCountUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * 出站背压处理器, 每个channel一个实例.
+ * channel可写时消息直接写出; 出站缓冲超过高水位线(channel不可写)后消息在本处理器中排队,
+ * 收到可写事件(降到低水位线以下)后按顺序继续写出. 排队的消息超过预算后按 {@link SlowConsumerPolicy} 处理慢消费者.
+ * 默认只缓冲websocket数据帧, close/ping/pong等控制帧直接写出; 子类可重写 {@link #isBuffered(Object)} 和 {@link #coalesceKey(Object)}.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 18:40
+ */
+@Slf4j
+public class OutboundBackpressureHandler extends ChannelDuplexHandler {
+
+    private final OutboundBufferConfig config;
+    private final ArrayDeque<PendingWrite> pending = new ArrayDeque<>();
+
+    public OutboundBackpressureHandler(OutboundBufferConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (!isBuffered(msg) || (pending.isEmpty() && ctx.channel().isWritable())) {
+            ctx.write(msg, promise);
+            return;
+        }
+        pending.addLast(new PendingWrite(msg, promise));
+        if (pending.size() > config.getMaxPendingMessages()) {
+            onSlowConsumer(ctx, msg);
+        }
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        drain(ctx);
+        ctx.flush();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable() && !pending.isEmpty()) {
+            drain(ctx);
+            ctx.flush();
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        releaseAll(new ClosedChannelException());
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        releaseAll(new ClosedChannelException());
+    }
+
+    /**
+     * 消息是否受背压控制.
+     * @param msg 出站消息
+     * @return    true: channel不可写时排队
+     */
+    protected boolean isBuffered(Object msg) {
+        return msg instanceof WebSocketFrame && !(msg instanceof CloseWebSocketFrame
+                || msg instanceof PingWebSocketFrame || msg instanceof PongWebSocketFrame);
+    }
+
+    /**
+     * {@link SlowConsumerPolicy#COALESCE} 策略下消息的合并key, key相同的旧消息会被新消息替换.
+     * @param msg 出站消息
+     * @return    合并key, null表示不能合并
+     */
+    protected Object coalesceKey(Object msg) {
+        return null;
+    }
+
+    private void drain(ChannelHandlerContext ctx) {
+        // ChunkedWriteHandler等处理器会在flush前缓存消息, 逐条flush才能及时感知channel的可写状态.
+        while (!pending.isEmpty() && ctx.channel().isWritable()) {
+            PendingWrite write = pending.pollFirst();
+            ctx.writeAndFlush(write.msg, write.promise);
+        }
+    }
+
+    private void onSlowConsumer(ChannelHandlerContext ctx, Object msg) {
+        SlowConsumerPolicy policy = config.getPolicy();
+        switch (policy) {
+            case DISCONNECT:
+                log.warn("Slow consumer exceeds outbound budget {}, close channel {}.", config.getMaxPendingMessages(), ctx.channel());
+                SlowConsumerMetrics.recordEvicted();
+                SlowConsumerMetrics.recordDropped(pending.size());
+                releaseAll(new IllegalStateException("Slow consumer disconnected."));
+                ctx.close();
+                return;
+            case COALESCE:
+                if (coalesce(msg)) {
+                    SlowConsumerMetrics.recordCoalesced();
+                    return;
+                }
+                // fallthrough, 没有可合并的消息时丢弃最早的消息.
+            case DROP_OLDEST:
+            default:
+                pending.pollFirst().fail(new IllegalStateException("Slow consumer, message dropped."));
+                SlowConsumerMetrics.recordDropped(1);
+        }
+    }
+
+    private boolean coalesce(Object msg) {
+        Object key = coalesceKey(msg);
+        if (key == null) {
+            return false;
+        }
+        Iterator<PendingWrite> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            PendingWrite write = iterator.next();
+            if (write.msg != msg && Objects.equals(key, coalesceKey(write.msg))) {
+                iterator.remove();
+                write.fail(new IllegalStateException("Slow consumer, message coalesced."));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void releaseAll(Throwable cause) {
+        PendingWrite write;
+        while ((write = pending.pollFirst()) != null) {
+            write.fail(cause);
+        }
+    }
+
+    private static final class PendingWrite {
+        private final Object msg;
+        private final ChannelPromise promise;
+
+        private PendingWrite(Object msg, ChannelPromise promise) {
+            this.msg = msg;
+            this.promise = promise;
+        }
+
+        private void fail(Throwable cause) {
+            ReferenceCountUtil.safeRelease(msg);
+            promise.tryFailure(cause);
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.hqy.cloud.netty.backpressure;
+
+import io.netty.channel.WriteBufferWaterMark;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个连接的出站缓冲配置.
+ * channel的出站缓冲超过高水位线后变为不可写, 降到低水位线以下后重新可写;
+ * 不可写期间待发送的消息在应用层排队, 超过 {@link #maxPendingMessages} 后按 {@link #policy} 处理慢消费者.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 18:40
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboundBufferConfig {
+
+    public static final int DEFAULT_LOW_WATER_MARK = 32 * 1024;
+    public static final int DEFAULT_HIGH_WATER_MARK = 64 * 1024;
+    public static final int DEFAULT_MAX_PENDING_MESSAGES = 1024;
+
+    /**
+     * 慢消费者策略
+     */
+    private SlowConsumerPolicy policy = SlowConsumerPolicy.DROP_OLDEST;
+
+    /**
+     * 出站缓冲低水位线, 字节
+     */
+    private int lowWaterMark = DEFAULT_LOW_WATER_MARK;
+
+    /**
+     * 出站缓冲高水位线, 字节
+     */
+    private int highWaterMark = DEFAULT_HIGH_WATER_MARK;
+
+    /**
+     * channel不可写时, 单个连接最多排队的消息数
+     */
+    private int maxPendingMessages = DEFAULT_MAX_PENDING_MESSAGES;
+
+    public OutboundBufferConfig(OutboundBufferConfig config) {
+        this(config.policy, config.lowWaterMark, config.highWaterMark, config.maxPendingMessages);
+    }
+
+    public WriteBufferWaterMark toWaterMark() {
+        int low = Math.max(lowWaterMark, 0);
+        return new WriteBufferWaterMark(low, Math.max(highWaterMark, low));
+    }
+
+}
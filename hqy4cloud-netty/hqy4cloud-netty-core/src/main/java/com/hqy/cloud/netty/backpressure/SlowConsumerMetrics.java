@@ -0,0 +1,55 @@
+package com.hqy.cloud.netty.backpressure;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 慢消费者统计.
+ * 分别记录被丢弃的消息数、被合并的消息数以及因慢消费被断开(驱逐)的连接数, 断开连接时排队中的消息同时计入丢弃数.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 18:40
+ */
+public final class SlowConsumerMetrics {
+
+    private SlowConsumerMetrics() {}
+
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final LongAdder COALESCED = new LongAdder();
+    private static final LongAdder EVICTED = new LongAdder();
+
+    public static void recordDropped(long count) {
+        if (count > 0) {
+            DROPPED.add(count);
+        }
+    }
+
+    public static void recordCoalesced() {
+        COALESCED.increment();
+    }
+
+    public static void recordEvicted() {
+        EVICTED.increment();
+    }
+
+    /**
+     * @return 被丢弃的消息数
+     */
+    public static long getDropped() {
+        return DROPPED.sum();
+    }
+
+    /**
+     * @return 被新消息替换(合并)的消息数
+     */
+    public static long getCoalesced() {
+        return COALESCED.sum();
+    }
+
+    /**
+     * @return 因慢消费被断开的连接数
+     */
+    public static long getEvicted() {
+        return EVICTED.sum();
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.hqy.cloud.netty.backpressure;
+
+/**
+ * 慢消费者策略: 连接的待发送消息超出预算后如何处理.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 18:40
+ */
+public enum SlowConsumerPolicy {
+
+    /**
+     * 丢弃最早的待发送消息.
+     */
+    DROP_OLDEST,
+
+    /**
+     * 合并: 用新消息替换队列中同一类型的旧消息, 找不到可合并的消息时丢弃最早的消息.
+     */
+    COALESCE,
+
+    /**
+     * 断开连接.
+     */
+    DISCONNECT,
+
+    ;
+
+}
@@ -17,7 +17,6 @@ import com.hqy.cloud.netty.websocket.base.WsErrorReason;
 import com.hqy.cloud.netty.websocket.base.enums.CloseCode;
 import com.hqy.cloud.netty.websocket.base.enums.CloseScene;
 import com.hqy.cloud.netty.websocket.base.enums.WsMessageType;
-import com.hqy.cloud.util.JsonUtil;
 import com.hqy.cloud.util.spring.SpringContextHolder;
 import com.hqy.cloud.util.thread.ParentExecutorService;
 import io.netty.buffer.ByteBuf;
@@ -101,11 +100,12 @@ public class WebsocketHandler extends SimpleChannelInboundHandler<Object> {
                 //需要cancel ,防止连接泄露...
                 wsSession = ChannelWsSessionManager.cancel(channelId);
                 //手动断开
-                wsSession.onClose(new WsErrorReason(CloseCode.GOING_AWAY, "channelInactive"), CloseScene.SCENE_CLIENT_END_DISCONNECT);
+                if (Objects.nonNull(wsSession)) {
+                    wsSession.onClose(new WsErrorReason(CloseCode.GOING_AWAY, "channelInactive"), CloseScene.SCENE_CLIENT_END_DISCONNECT);
+                }
             } else {
                 //已经在onClientDisconnect里处理过了close 的报文...
-                wsSession = ChannelWsSessionManager.getSession(channelId);
-                debugPrint("channelInactive", "客户端连接失效(正断)", JsonUtil.toJson(wsSession.getHandshakeData()), DateUtil.formatDateTime(closeFrameTime));
+                debugPrint("channelInactive", "客户端连接失效(正断)", channelId, DateUtil.formatDateTime(closeFrameTime));
             }
 
         } catch (Exception e) {
@@ -278,6 +278,8 @@ public class WebsocketHandler extends SimpleChannelInboundHandler<Object> {
                 boolean result = session.initHandshakeData(request, ctx.channel().remoteAddress());
                 log.info("@@@ InitHandshakeData, result:{}, uri:{}", result, request.uri());
                 if (result) {
+                    //建立用户索引, 按用户推送时无需遍历所有连接.
+                    ChannelWsSessionManager.bindUser(channelId, session.getHandshakeData().getUid());
                     try {
                         session.onOpen();
                     } catch (Exception e) {
@@ -1,5 +1,7 @@
 package com.hqy.cloud.netty.websocket.server;
 
+import com.hqy.cloud.netty.backpressure.OutboundBackpressureHandler;
+import com.hqy.cloud.netty.backpressure.OutboundBufferConfig;
 import com.hqy.cloud.netty.websocket.handler.WebsocketHandler;
 import com.hqy.cloud.netty.websocket.session.BaseWsSession;
 import com.hqy.cloud.netty.websocket.dto.SslKeystoreDTO;
@@ -59,6 +61,10 @@ public abstract class NettyWebsocketServer {
      */
     private int workerThreads = Runtime.getRuntime().availableProcessors() * 2;
 
+    /**
+     * 单个连接的出站缓冲配置, 高低水位线和慢消费者策略
+     */
+    private OutboundBufferConfig outboundBufferConfig = new OutboundBufferConfig();
 
 
     public void bind(int wsPort, boolean ssl) {
@@ -96,6 +102,7 @@ public abstract class NettyWebsocketServer {
                         SO_KEEPALIVE连接会测试链接的状态，这个选项用于可能长时间没有数据交流的连接。
                      */
                     .option(ChannelOption.SO_BACKLOG, 1024 * 8)
+                    .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, outboundBufferConfig.toWaterMark())
                     .handler(new LoggingHandler(LogLevel.INFO))
                     .childHandler(new ChannelInitializer<Channel>() {
                         @Override
@@ -119,6 +126,8 @@ public abstract class NettyWebsocketServer {
                                 channel.pipeline().addLast(new HttpObjectAggregator(1024 * 1024));
                                 //ChunkedWriteHandler来解决大文件或者码流传输过程中可能发生的内存溢出问题。
                                 channel.pipeline().addLast(new ChunkedWriteHandler());
+                                //出站背压, channel不可写时排队, 超出预算按慢消费者策略处理
+                                channel.pipeline().addLast(new OutboundBackpressureHandler(outboundBufferConfig));
                                 //自定义业务handler
                                 channel.pipeline().addLast(new WebsocketHandler(getWsSessionClass()));
                             }
@@ -135,6 +144,14 @@ public abstract class NettyWebsocketServer {
 
     }
 
+    public OutboundBufferConfig getOutboundBufferConfig() {
+        return outboundBufferConfig;
+    }
+
+    public void setOutboundBufferConfig(OutboundBufferConfig outboundBufferConfig) {
+        this.outboundBufferConfig = outboundBufferConfig;
+    }
+
     /**
      * 由子类初始化需要使用加密的 keystore数据
      * @param sslKeystore SslKeystoreDTO
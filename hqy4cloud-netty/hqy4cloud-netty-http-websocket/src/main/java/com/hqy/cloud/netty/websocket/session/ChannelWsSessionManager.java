@@ -1,9 +1,22 @@
 package com.hqy.cloud.netty.websocket.session;
 
+import io.netty.channel.Channel;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * websocket会话注册表.
+ * 会话按channel id存储, 同时维护 用户id -> channel id, 分组 -> channel id 的索引, 按用户或分组查找会话无需遍历所有连接.
+ * 读操作无锁; 同一个channel的注册、绑定、注销通过分段锁(lock striping)串行执行, 保证会话和索引的一致性.
+ * channel关闭后会话会被自动注销.
  * @author qiyuan.hong
  * @version 1.0
  * @date 2022/3/9 9:47
@@ -12,27 +25,212 @@ public class ChannelWsSessionManager {
 
     private ChannelWsSessionManager() {}
 
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * channel关闭后延迟注销的时间, 让handler的channelInactive先处理会话的关闭回调.
+     */
+    private static final long CLOSE_CLEAN_DELAY_MILLIS = 1000;
+
+    private static final Object[] LOCKS = new Object[LOCK_STRIPES];
+
+    static {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
     /**
      * key    channel的id
      * value 当前通道的会话
      */
-    private static final Map<String, BaseWsSession> SESSION_MAP = new HashMap<>();
+    private static final Map<String, SessionEntry> SESSION_MAP = new ConcurrentHashMap<>(1024);
+
+    /**
+     * key   用户id
+     * value channel id
+     */
+    private static final Map<String, Set<String>> USER_INDEX = new ConcurrentHashMap<>(1024);
 
+    /**
+     * key   分组
+     * value channel id
+     */
+    private static final Map<String, Set<String>> GROUP_INDEX = new ConcurrentHashMap<>(64);
+
+    /**
+     * 所有会话的快照
+     * @return key: channel id, value: 会话
+     */
     public static Map<String, BaseWsSession> getSessionMap() {
-        return SESSION_MAP;
+        Map<String, BaseWsSession> sessions = new HashMap<>(SESSION_MAP.size());
+        SESSION_MAP.forEach((channelId, entry) -> sessions.put(channelId, entry.session));
+        return Collections.unmodifiableMap(sessions);
+    }
+
+    public static int size() {
+        return SESSION_MAP.size();
     }
 
     public static BaseWsSession getSession(String channelId) {
-        return SESSION_MAP.get(channelId);
+        SessionEntry entry = SESSION_MAP.get(channelId);
+        return entry == null ? null : entry.session;
+    }
+
+    public static List<BaseWsSession> getSessionsByUser(String uid) {
+        return getSessions(USER_INDEX, uid);
+    }
+
+    public static List<BaseWsSession> getSessionsByGroup(String group) {
+        return getSessions(GROUP_INDEX, group);
     }
 
     public static void registry(String channelId, BaseWsSession wsSession) {
-        SESSION_MAP.put(channelId, wsSession);
+        SessionEntry entry = new SessionEntry(wsSession);
+        SessionEntry previous;
+        synchronized (lockOf(channelId)) {
+            previous = SESSION_MAP.put(channelId, entry);
+            if (previous != null) {
+                unIndex(channelId, previous);
+            }
+        }
+        Channel channel = wsSession.context == null ? null : wsSession.context.channel();
+        if (channel != null) {
+            channel.closeFuture().addListener(future -> channel.eventLoop().schedule(() -> cancel(channelId, entry),
+                    CLOSE_CLEAN_DELAY_MILLIS, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * 绑定会话的用户, 一个用户可以有多个连接.
+     * @param channelId channel id
+     * @param uid       用户id
+     * @return          会话是否存在
+     */
+    public static boolean bindUser(String channelId, String uid) {
+        if (StringUtils.isBlank(uid)) {
+            return false;
+        }
+        synchronized (lockOf(channelId)) {
+            SessionEntry entry = SESSION_MAP.get(channelId);
+            if (entry == null) {
+                return false;
+            }
+            if (uid.equals(entry.uid)) {
+                return true;
+            }
+            if (entry.uid != null) {
+                removeIndex(USER_INDEX, entry.uid, channelId);
+            }
+            entry.uid = uid;
+            addIndex(USER_INDEX, uid, channelId);
+            return true;
+        }
+    }
+
+    public static boolean joinGroup(String channelId, String group) {
+        if (StringUtils.isBlank(group)) {
+            return false;
+        }
+        synchronized (lockOf(channelId)) {
+            SessionEntry entry = SESSION_MAP.get(channelId);
+            if (entry == null) {
+                return false;
+            }
+            if (entry.groups.add(group)) {
+                addIndex(GROUP_INDEX, group, channelId);
+            }
+            return true;
+        }
+    }
+
+    public static boolean leaveGroup(String channelId, String group) {
+        synchronized (lockOf(channelId)) {
+            SessionEntry entry = SESSION_MAP.get(channelId);
+            if (entry == null || !entry.groups.remove(group)) {
+                return false;
+            }
+            removeIndex(GROUP_INDEX, group, channelId);
+            return true;
+        }
     }
 
     public static BaseWsSession cancel(String channelId) {
-        return SESSION_MAP.remove(channelId);
+        synchronized (lockOf(channelId)) {
+            SessionEntry entry = SESSION_MAP.remove(channelId);
+            if (entry == null) {
+                return null;
+            }
+            unIndex(channelId, entry);
+            return entry.session;
+        }
+    }
+
+    private static void cancel(String channelId, SessionEntry entry) {
+        synchronized (lockOf(channelId)) {
+            if (SESSION_MAP.remove(channelId, entry)) {
+                unIndex(channelId, entry);
+            }
+        }
+    }
+
+    private static List<BaseWsSession> getSessions(Map<String, Set<String>> index, String key) {
+        Set<String> channelIds = key == null ? null : index.get(key);
+        if (channelIds == null) {
+            return Collections.emptyList();
+        }
+        List<BaseWsSession> sessions = new ArrayList<>(channelIds.size());
+        for (String channelId : channelIds) {
+            SessionEntry entry = SESSION_MAP.get(channelId);
+            if (entry != null) {
+                sessions.add(entry.session);
+            }
+        }
+        return sessions;
+    }
+
+    private static void unIndex(String channelId, SessionEntry entry) {
+        if (entry.uid != null) {
+            removeIndex(USER_INDEX, entry.uid, channelId);
+        }
+        for (String group : entry.groups) {
+            removeIndex(GROUP_INDEX, group, channelId);
+        }
     }
 
+    private static void addIndex(Map<String, Set<String>> index, String key, String channelId) {
+        index.compute(key, (k, channelIds) -> {
+            if (channelIds == null) {
+                channelIds = ConcurrentHashMap.newKeySet();
+            }
+            channelIds.add(channelId);
+            return channelIds;
+        });
+    }
+
+    private static void removeIndex(Map<String, Set<String>> index, String key, String channelId) {
+        index.computeIfPresent(key, (k, channelIds) -> {
+            channelIds.remove(channelId);
+            return channelIds.isEmpty() ? null : channelIds;
+        });
+    }
+
+    private static Object lockOf(String channelId) {
+        int hash = channelId.hashCode();
+        return LOCKS[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    private static final class SessionEntry {
+        private final BaseWsSession session;
+        /**
+         * 只在持有分段锁时修改.
+         */
+        private volatile String uid;
+        private final Set<String> groups = ConcurrentHashMap.newKeySet();
+
+        private SessionEntry(BaseWsSession session) {
+            this.session = session;
+        }
+    }
 
 }
@@ -24,6 +24,7 @@ import com.corundumstudio.socketio.store.HazelcastStoreFactory;
 import com.corundumstudio.socketio.store.MemoryStoreFactory;
 import com.corundumstudio.socketio.store.RedissonStoreFactory;
 import com.corundumstudio.socketio.store.StoreFactory;
+import com.hqy.cloud.netty.backpressure.OutboundBufferConfig;
 
 import javax.net.ssl.KeyManagerFactory;
 import java.io.InputStream;
@@ -104,6 +105,8 @@ public class Configuration {
 
     private SocketConfig socketConfig = new SocketConfig();
 
+    private OutboundBufferConfig outboundBufferConfig = new OutboundBufferConfig();
+
     private StoreFactory storeFactory = new MemoryStoreFactory();
 
     private JsonSupport jsonSupport;
@@ -177,6 +180,7 @@ public class Configuration {
         setAuthorizationListener(conf.getAuthorizationListener());
         setExceptionListener(conf.getExceptionListener());
         setSocketConfig(conf.getSocketConfig());
+        setOutboundBufferConfig(conf.getOutboundBufferConfig());
         setAckMode(conf.getAckMode());
         setMaxFramePayloadLength(conf.getMaxFramePayloadLength());
         setUpgradeTimeout(conf.getUpgradeTimeout());
@@ -397,6 +401,7 @@ public class Configuration {
      *
      * @see MemoryStoreFactory
      * @see RedissonStoreFactory
+     * @see com.corundumstudio.socketio.store.RedissonBatchStoreFactory
      * @see HazelcastStoreFactory
      */
     public void setStoreFactory(StoreFactory clientStoreFactory) {
@@ -449,6 +454,19 @@ public class Configuration {
         this.socketConfig = socketConfig;
     }
 
+    public OutboundBufferConfig getOutboundBufferConfig() {
+        return outboundBufferConfig;
+    }
+    /**
+     * Per-connection outbound buffer configuration,
+     * write buffer water marks and slow consumer policy
+     *
+     * @param outboundBufferConfig - config
+     */
+    public void setOutboundBufferConfig(OutboundBufferConfig outboundBufferConfig) {
+        this.outboundBufferConfig = outboundBufferConfig;
+    }
+
     /**
      * Auto ack-response mode
      * Default is {@code AckMode.AUTO_SUCCESS_ONLY}
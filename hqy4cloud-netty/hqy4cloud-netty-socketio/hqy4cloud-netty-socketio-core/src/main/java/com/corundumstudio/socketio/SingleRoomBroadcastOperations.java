@@ -17,11 +17,15 @@ package com.corundumstudio.socketio;
 
 import com.corundumstudio.socketio.misc.IterableCollection;
 import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketEncoder;
 import com.corundumstudio.socketio.protocol.PacketType;
 import com.corundumstudio.socketio.store.StoreFactory;
 import com.corundumstudio.socketio.store.pubsub.DispatchMessage;
 import com.corundumstudio.socketio.store.pubsub.PubSubType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 
@@ -30,17 +34,48 @@ import java.util.Collection;
  * Date: 2020/8/8 6:08 PM
  */
 public class SingleRoomBroadcastOperations implements BroadcastOperations {
+    private static final Logger log = LoggerFactory.getLogger(SingleRoomBroadcastOperations.class);
+
     private final String namespace;
     private final String room;
     private final Iterable<SocketIOClient> clients;
     private final StoreFactory storeFactory;
+    private final PacketEncoder encoder;
 
     public SingleRoomBroadcastOperations(String namespace, String room, Iterable<SocketIOClient> clients, StoreFactory storeFactory) {
+        this(namespace, room, clients, storeFactory, null);
+    }
+
+    public SingleRoomBroadcastOperations(String namespace, String room, Iterable<SocketIOClient> clients, StoreFactory storeFactory, PacketEncoder encoder) {
         super();
         this.namespace = namespace;
         this.room = room;
         this.clients = clients;
         this.storeFactory = storeFactory;
+        this.encoder = encoder;
+    }
+
+    /**
+     * 广播的packet只编码一次, 房间内的websocket客户端共享编码结果.
+     * @param namespace namespace
+     * @param packet    广播的packet
+     * @param encoder   encoder, 为null时不共享
+     * @return          设置了共享帧的packet
+     */
+    public static Packet share(String namespace, Packet packet, PacketEncoder encoder) {
+        if (encoder == null || packet.isAckRequested()) {
+            return packet;
+        }
+        // 与NamespaceClient#send中的withNsp一致, 保证所有客户端拿到的是同一个packet
+        Packet shared = packet.withNsp(namespace);
+        if (shared.getSharedFrame() == null) {
+            try {
+                shared.setSharedFrame(encoder.encodeShared(shared));
+            } catch (IOException e) {
+                log.warn("Failed execute to encode shared broadcast packet, cause: {}", e.getMessage());
+            }
+        }
+        return shared;
     }
 
     private void dispatch(Packet packet) {
@@ -56,8 +91,9 @@ public class SingleRoomBroadcastOperations implements BroadcastOperations {
 
     @Override
     public void send(Packet packet) {
+        Packet shared = share(namespace, packet, encoder);
         for (SocketIOClient client : clients) {
-            client.send(packet);
+            client.send(shared);
         }
         dispatch(packet);
     }
@@ -84,11 +120,12 @@ public class SingleRoomBroadcastOperations implements BroadcastOperations {
         packet.setName(name);
         packet.setData(Arrays.asList(data));
 
+        Packet shared = share(namespace, packet, encoder);
         for (SocketIOClient client : clients) {
             if (client.getSessionId().equals(excludedClient.getSessionId())) {
                 continue;
             }
-            client.send(packet);
+            client.send(shared);
         }
         dispatch(packet);
     }
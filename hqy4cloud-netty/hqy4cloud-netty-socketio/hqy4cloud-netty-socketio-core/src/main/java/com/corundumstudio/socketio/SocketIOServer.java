@@ -210,6 +210,7 @@ public class SocketIOServer implements ClientListeners {
         }
         bootstrap.childOption(ChannelOption.SO_KEEPALIVE, config.isTcpKeepAlive());
         bootstrap.childOption(ChannelOption.SO_LINGER, config.getSoLinger());
+        bootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, configCopy.getOutboundBufferConfig().toWaterMark());
 
         bootstrap.option(ChannelOption.SO_REUSEADDR, config.isReuseAddress());
         bootstrap.option(ChannelOption.SO_BACKLOG, config.getAcceptBackLog());
@@ -4,6 +4,7 @@ import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.handler.ClientsBoxEx;
 import com.corundumstudio.socketio.messages.HttpErrorMessage;
+import com.corundumstudio.socketio.namespace.Namespace;
 import com.hqy.cloud.common.base.lang.StringConstants;
 import com.hqy.cloud.util.spring.ProjectContextInfo;
 import io.netty.handler.codec.http.FullHttpRequest;
@@ -70,6 +71,43 @@ public class NettyContextHelper {
         return true;
     }
 
+    /**
+     * 推送同一个事件给一批用户, 只查找一次SocketIOServer, 事件数据只编码一次.
+     * @param bizIds         发给谁
+     * @param eventName      事件名
+     * @param wsMessageJson  事件的json数据
+     * @return 结果
+     */
+    public static boolean doPush(Collection<String> bizIds, String eventName, String wsMessageJson) {
+        if (CollectionUtils.isEmpty(bizIds) || org.apache.commons.lang3.StringUtils.isBlank(eventName)) {
+            return false;
+        }
+        List<UUID> sessionIds = new ArrayList<>(bizIds.size());
+        for (String bizId : bizIds) {
+            if (org.apache.commons.lang3.StringUtils.isBlank(bizId)) {
+                continue;
+            }
+            Set<UUID> uuidSet = ClientsBoxEx.getInstance().getUUID(bizId);
+            if (CollectionUtils.isNotEmpty(uuidSet)) {
+                sessionIds.addAll(uuidSet);
+            }
+        }
+        if (sessionIds.isEmpty()) {
+            //表示通知人都不在线了. 则无需发通知了
+            log.info("@@@ Message receivers are offline, eventName = {}, receivers = {}", eventName, bizIds.size());
+            return true;
+        }
+        SocketIOServer socketIOServer = ProjectContextInfo.getBean(SocketIOServer.class);
+        if (Objects.isNull(socketIOServer)) {
+            log.warn("@@@ ProjectContext info not found SocketIOServer, please confirm socketIOServer registry to context.");
+            return false;
+        }
+        Namespace namespace = (Namespace) socketIOServer.getNamespace(Namespace.DEFAULT_NAME);
+        int count = namespace.sendEvent(sessionIds, eventName, wsMessageJson);
+        log.info("@@@ doPush message, eventName -> {}, receivers -> {}, sent -> {}", eventName, bizIds.size(), count);
+        return true;
+    }
+
     /**
      * 允许跨域，回写跨域相关响应头
      * @param httpResponse httpResponse
@@ -31,6 +31,9 @@ import com.corundumstudio.socketio.store.Store;
 import com.corundumstudio.socketio.store.StoreFactory;
 import com.corundumstudio.socketio.transport.NamespaceClient;
 import com.hqy.cloud.common.swticher.CommonSwitcher;
+import com.hqy.cloud.netty.backpressure.OutboundBufferConfig;
+import com.hqy.cloud.netty.backpressure.SlowConsumerMetrics;
+import com.hqy.cloud.netty.backpressure.SlowConsumerPolicy;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
@@ -156,16 +159,110 @@ public class ClientHead {
 
     public ChannelFuture send(Packet packet, Transport transport) {
         TransportState state = channels.get(transport);
-        state.getPacketsQueue().add(packet);
+        Queue<Packet> queue = state.getPacketsQueue();
+        queue.add(packet);
 
         Channel channel = state.getChannel();
-        if (channel == null
-                || (transport == Transport.POLLING && channel.attr(EncoderHandler.WRITE_ONCE).get() != null)) {
+        if (channel == null || !channel.isWritable()) {
+            // 数据包无法立即写出, 在队列中排队, 超出预算时按慢消费者策略处理.
+            if (!checkOutboundBudget(queue, packet)) {
+                return null;
+            }
+            if (channel == null || transport == Transport.WEBSOCKET) {
+                // websocket通道等待可写事件后继续发送, see onWritable
+                return null;
+            }
+        }
+        if (transport == Transport.POLLING && channel.attr(EncoderHandler.WRITE_ONCE).get() != null) {
             return null;
         }
         return sendPackets(transport, channel);
     }
 
+    /**
+     * websocket通道重新可写(出站缓冲降到低水位线以下), 继续发送排队的数据包
+     * @param channel 通道
+     */
+    public void onWritable(Channel channel) {
+        TransportState state = channels.get(Transport.WEBSOCKET);
+        if (channel.equals(state.getChannel()) && !state.getPacketsQueue().isEmpty()) {
+            sendPackets(Transport.WEBSOCKET, channel);
+        }
+    }
+
+    /**
+     * 检查待发送队列是否超出预算, 只在通道不可写时调用, 队列长度不会超过预算太多.
+     * 队列深度由 {@link PacketsQueue} 计数, 不会遍历队列.
+     * @param queue  待发送队列
+     * @param packet 新加入的数据包
+     * @return       false: 客户端因为慢消费被断开
+     */
+    private boolean checkOutboundBudget(Queue<Packet> queue, Packet packet) {
+        OutboundBufferConfig config = configuration.getOutboundBufferConfig();
+        int maxPending = Math.max(config.getMaxPendingMessages(), 1);
+        SlowConsumerPolicy policy = config.getPolicy();
+        int size = queue.size();
+        if (size <= maxPending) {
+            return true;
+        }
+        if (policy == SlowConsumerPolicy.DISCONNECT) {
+            if (isConnected()) {
+                SlowConsumerMetrics.recordEvicted();
+                SlowConsumerMetrics.recordDropped(size);
+                log.warn("Slow consumer {} exceeds outbound budget {}, disconnect it.", sessionId, maxPending);
+                disconnectSlowConsumer();
+            } else {
+                SlowConsumerMetrics.recordDropped(size);
+                queue.clear();
+            }
+            return false;
+        }
+        if (policy == SlowConsumerPolicy.COALESCE && coalesce(queue, packet)) {
+            size--;
+            SlowConsumerMetrics.recordCoalesced();
+        }
+        // 没有可合并的数据包时丢弃最早的数据包.
+        for (; size > maxPending && queue.poll() != null; size--) {
+            SlowConsumerMetrics.recordDropped(1);
+        }
+        return true;
+    }
+
+    /**
+     * 移除队列中一个与新数据包同名(同一命名空间、同一事件)的旧事件包
+     */
+    private boolean coalesce(Queue<Packet> queue, Packet packet) {
+        if (!isCoalescable(packet)) {
+            return false;
+        }
+        Iterator<Packet> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Packet queued = iterator.next();
+            if (queued != packet && isCoalescable(queued)
+                    && Objects.equals(queued.getName(), packet.getName()) && Objects.equals(queued.getNsp(), packet.getNsp())) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isCoalescable(Packet packet) {
+        return packet.getType() == PacketType.MESSAGE && packet.getSubType() == PacketType.EVENT
+                && !packet.isAckRequested() && packet.getName() != null;
+    }
+
+    private void disconnectSlowConsumer() {
+        for (TransportState state : channels.values()) {
+            state.getPacketsQueue().clear();
+            Channel channel = state.getChannel();
+            if (channel != null) {
+                channel.close();
+            }
+        }
+        onChannelDisconnect();
+    }
+
     private ChannelFuture sendPackets(Transport transport, Channel channel) {
         return channel.writeAndFlush(new OutPacketMessage(this, transport));
     }
@@ -213,14 +213,22 @@ public class EncoderHandler extends ChannelOutboundHandlerAdapter {
 
         while (true) {
             Queue<Packet> queue = msg.getClientHead().getPacketsQueue(msg.getTransport());
-            Packet packet = queue.poll();
+            // 出站缓冲超过高水位线后停止写出, 剩余数据包在通道重新可写后继续发送.
+            Packet packet = ctx.channel().isWritable() ? queue.poll() : null;
             if (packet == null) {
                 writeFutureList.setChannelPromise(promise);
                 break;
             }
 
-            final ByteBuf out = encoder.allocateBuffer(ctx.alloc());
-            encoder.encodePacket(packet, out, ctx.alloc(), true);
+            final ByteBuf out;
+            ByteBuf sharedFrame = packet.getSharedFrame();
+            if (sharedFrame != null) {
+                // 广播packet已经编码过, 写入共享buffer的视图, 不再重复序列化.
+                out = sharedFrame.duplicate();
+            } else {
+                out = encoder.allocateBuffer(ctx.alloc());
+                encoder.encodePacket(packet, out, ctx.alloc(), true);
+            }
 
             WebSocketFrame res = new TextWebSocketFrame(out);
             if (log.isTraceEnabled()) {
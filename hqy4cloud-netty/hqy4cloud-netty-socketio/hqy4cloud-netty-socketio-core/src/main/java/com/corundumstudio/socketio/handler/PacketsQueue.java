@@ -0,0 +1,79 @@
+package com.corundumstudio.socketio.handler;
+
+import com.corundumstudio.socketio.protocol.Packet;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 客户端待发送数据包队列.
+ * {@link ConcurrentLinkedQueue#size()} 需要遍历整个队列, 这里用计数器维护队列深度, 出站预算检查时 {@link #size()} 为O(1).
+ * 并发读写时深度是近似值, 只用于慢消费者判定.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 22:30
+ */
+public class PacketsQueue extends AbstractQueue<Packet> {
+
+    private final Queue<Packet> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+
+    @Override
+    public boolean offer(Packet packet) {
+        boolean added = queue.offer(packet);
+        if (added) {
+            depth.incrementAndGet();
+        }
+        return added;
+    }
+
+    @Override
+    public Packet poll() {
+        Packet packet = queue.poll();
+        if (packet != null) {
+            depth.decrementAndGet();
+        }
+        return packet;
+    }
+
+    @Override
+    public Packet peek() {
+        return queue.peek();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return Math.max(depth.get(), 0);
+    }
+
+    @Override
+    public Iterator<Packet> iterator() {
+        Iterator<Packet> iterator = queue.iterator();
+        return new Iterator<Packet>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Packet next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                depth.decrementAndGet();
+            }
+        };
+    }
+
+}
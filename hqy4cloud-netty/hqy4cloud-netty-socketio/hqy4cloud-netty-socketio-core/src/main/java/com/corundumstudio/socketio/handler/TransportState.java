@@ -19,11 +19,10 @@ import com.corundumstudio.socketio.protocol.Packet;
 import io.netty.channel.Channel;
 
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class TransportState {
 
-    private Queue<Packet> packetsQueue = new ConcurrentLinkedQueue<Packet>();
+    private Queue<Packet> packetsQueue = new PacketsQueue();
     private Channel channel;
 
     public void setPacketsQueue(Queue<Packet> packetsQueue) {
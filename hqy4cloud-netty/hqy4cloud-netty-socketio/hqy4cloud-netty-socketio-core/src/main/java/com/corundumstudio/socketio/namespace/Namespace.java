@@ -20,6 +20,8 @@ import com.corundumstudio.socketio.annotation.ScannerEngine;
 import com.corundumstudio.socketio.listener.*;
 import com.corundumstudio.socketio.protocol.JsonSupport;
 import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketEncoder;
+import com.corundumstudio.socketio.protocol.PacketType;
 import com.corundumstudio.socketio.store.StoreFactory;
 import com.corundumstudio.socketio.store.pubsub.JoinLeaveMessage;
 import com.corundumstudio.socketio.store.pubsub.PubSubType;
@@ -92,6 +94,7 @@ public class Namespace implements SocketIONamespace {
     private final String name;
     private final AckMode ackMode;
     private final JsonSupport jsonSupport;
+    private final PacketEncoder encoder;
     private final StoreFactory storeFactory;
     private final ExceptionListener exceptionListener;
 
@@ -99,6 +102,7 @@ public class Namespace implements SocketIONamespace {
         super();
         this.name = name;
         this.jsonSupport = configuration.getJsonSupport();
+        this.encoder = new PacketEncoder(configuration, jsonSupport);
         this.storeFactory = configuration.getStoreFactory();
         this.exceptionListener = configuration.getExceptionListener();
         this.ackMode = configuration.getAckMode();
@@ -263,12 +267,12 @@ public class Namespace implements SocketIONamespace {
 
     @Override
     public BroadcastOperations getBroadcastOperations() {
-        return new SingleRoomBroadcastOperations(getName(), getName(), allClients.values(), storeFactory);
+        return new SingleRoomBroadcastOperations(getName(), getName(), allClients.values(), storeFactory, encoder);
     }
 
     @Override
     public BroadcastOperations getRoomOperations(String room) {
-        return new SingleRoomBroadcastOperations(getName(), room, getRoomClients(room), storeFactory);
+        return new SingleRoomBroadcastOperations(getName(), room, getRoomClients(room), storeFactory, encoder);
     }
 
     @Override
@@ -313,12 +317,38 @@ public class Namespace implements SocketIONamespace {
 
     public void dispatch(String room, Packet packet) {
         Iterable<SocketIOClient> clients = getRoomClients(room);
+        Packet shared = SingleRoomBroadcastOperations.share(getName(), packet, encoder);
 
         for (SocketIOClient socketIOClient : clients) {
-            socketIOClient.send(packet);
+            socketIOClient.send(shared);
         }
     }
 
+    /**
+     * 发送事件给当前节点上的一批客户端, 数据包只编码一次.
+     * @param sessionIds 客户端的session id
+     * @param name       事件名
+     * @param data       事件数据
+     * @return           实际发送的客户端数
+     */
+    public int sendEvent(Collection<UUID> sessionIds, String name, Object... data) {
+        Packet packet = new Packet(PacketType.MESSAGE);
+        packet.setSubType(PacketType.EVENT);
+        packet.setName(name);
+        packet.setData(Arrays.asList(data));
+        Packet shared = SingleRoomBroadcastOperations.share(getName(), packet, encoder);
+
+        int count = 0;
+        for (UUID sessionId : sessionIds) {
+            SocketIOClient client = allClients.get(sessionId);
+            if (client != null && client.isChannelOpen()) {
+                client.send(shared);
+                count++;
+            }
+        }
+        return count;
+    }
+
     private <K, V> void join(ConcurrentMap<K, Set<V>> map, K key, V value) {
         Set<V> clients = map.get(key);
         if (clients == null) {
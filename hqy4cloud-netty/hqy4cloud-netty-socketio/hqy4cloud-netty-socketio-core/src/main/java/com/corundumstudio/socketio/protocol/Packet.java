@@ -38,6 +38,12 @@ public class Packet implements Serializable {
     private int attachmentsCount;
     private List<ByteBuf> attachments = Collections.emptyList();
 
+    /**
+     * 广播时预先编码好的websocket帧内容, 房间内所有websocket客户端共享, 不参与序列化.
+     * @see PacketEncoder#encodeShared(Packet)
+     */
+    private transient volatile ByteBuf sharedFrame;
+
     protected Packet() {
     }
 
@@ -88,19 +94,29 @@ public class Packet implements Serializable {
         if (this.nsp.equalsIgnoreCase(namespace)) {
             return this;
         } else {
-            Packet newPacket = new Packet(this.type);
-            newPacket.setAckId(this.ackId);
-            newPacket.setData(this.data);
-            newPacket.setDataSource(this.dataSource);
-            newPacket.setName(this.name);
-            newPacket.setSubType(this.subType);
+            Packet newPacket = copy();
             newPacket.setNsp(namespace);
-            newPacket.attachments = this.attachments;
-            newPacket.attachmentsCount = this.attachmentsCount;
             return newPacket;
         }
     }
 
+    /**
+     * Creates a copy of #{@link Packet} without shared frame.
+     * @return packet
+     */
+    Packet copy() {
+        Packet newPacket = new Packet(this.type);
+        newPacket.setAckId(this.ackId);
+        newPacket.setData(this.data);
+        newPacket.setDataSource(this.dataSource);
+        newPacket.setName(this.name);
+        newPacket.setSubType(this.subType);
+        newPacket.setNsp(this.nsp);
+        newPacket.attachments = this.attachments;
+        newPacket.attachmentsCount = this.attachmentsCount;
+        return newPacket;
+    }
+
     public void setNsp(String endpoint) {
         this.nsp = endpoint;
     }
@@ -155,6 +171,14 @@ public class Packet implements Serializable {
         this.dataSource = dataSource;
     }
 
+    public ByteBuf getSharedFrame() {
+        return sharedFrame;
+    }
+
+    public void setSharedFrame(ByteBuf sharedFrame) {
+        this.sharedFrame = sharedFrame;
+    }
+
     @Override
     public String toString() {
         return "Packet [type=" + type + ", ackId=" + ackId + "]";
@@ -57,6 +57,25 @@ public class PacketEncoder {
         return allocator.heapBuffer();
     }
 
+    /**
+     * 广播时只编码一次: 将packet编码为websocket文本帧的内容, 由房间内所有websocket客户端共享.
+     * 返回的buffer是不可释放的堆内存buffer, 每个客户端写入它的 {@link ByteBuf#duplicate()},
+     * 无需在异步的客户端发送队列之间协调引用计数, 最后一个帧发送完成后由GC回收.
+     * packet本身不会被修改; 包含二进制附件的packet返回null, 仍由每个客户端单独编码.
+     * @param packet 广播的packet, namespace必须已经设置
+     * @return       共享的帧内容或者null
+     * @throws IOException 序列化异常
+     */
+    public ByteBuf encodeShared(Packet packet) throws IOException {
+        Packet copy = packet.copy();
+        ByteBuf buf = Unpooled.buffer();
+        encodePacket(copy, buf, ByteBufAllocator.DEFAULT, true);
+        if (copy.hasAttachments()) {
+            return null;
+        }
+        return Unpooled.unreleasableBuffer(buf);
+    }
+
     public void encodeJsonP(Integer jsonpIndex, Queue<Packet> packets, ByteBuf out, ByteBufAllocator allocator, int limit) throws IOException {
         boolean jsonpMode = jsonpIndex != null;
 
@@ -0,0 +1,30 @@
+package com.corundumstudio.socketio.store;
+
+import com.corundumstudio.socketio.store.pubsub.PubSubMessage;
+import com.corundumstudio.socketio.store.pubsub.PubSubType;
+import org.redisson.api.RedissonClient;
+
+/**
+ * 发布消息走 {@link RedissonWriteBehindQueue} 批量提交的 {@link RedissonPubSubStore}, 订阅逻辑不变.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 19:30
+ */
+public class RedissonBatchPubSubStore extends RedissonPubSubStore {
+
+    private final Long nodeId;
+    private final RedissonWriteBehindQueue writeBehind;
+
+    public RedissonBatchPubSubStore(RedissonClient redissonSub, Long nodeId, RedissonWriteBehindQueue writeBehind) {
+        super(redissonSub, redissonSub, nodeId);
+        this.nodeId = nodeId;
+        this.writeBehind = writeBehind;
+    }
+
+    @Override
+    public void publish(PubSubType type, PubSubMessage msg) {
+        msg.setNodeId(nodeId);
+        writeBehind.publish(type.toString(), msg);
+    }
+
+}
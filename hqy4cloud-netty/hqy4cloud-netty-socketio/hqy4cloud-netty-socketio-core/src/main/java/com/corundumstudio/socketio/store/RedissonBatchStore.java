@@ -0,0 +1,102 @@
+package com.corundumstudio.socketio.store;
+
+import com.corundumstudio.socketio.store.pubsub.PubSubStore;
+import com.corundumstudio.socketio.store.pubsub.PubSubType;
+import com.corundumstudio.socketio.store.pubsub.StoreInvalidateMessage;
+import io.netty.util.internal.PlatformDependent;
+import org.redisson.api.RedissonClient;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 带本地缓存的Redisson session store.
+ * 读: 先读本地缓存, 未命中时读Redis并缓存结果(包括不存在的key), 读Redis期间收到失效消息时不缓存读到的值;
+ * 写: 先写本地缓存, 再通过 {@link RedissonWriteBehindQueue} 异步批量写入Redis, 同时广播 {@link PubSubType#INVALIDATE} 让其他节点清除缓存.
+ * @see RedissonBatchStoreFactory
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 19:30
+ */
+public class RedissonBatchStore implements Store {
+
+    /**
+     * 缓存不存在的key.
+     */
+    private static final Object NULL = new Object();
+
+    private final UUID sessionId;
+    private final String name;
+    private final Map<String, Object> map;
+    private final RedissonWriteBehindQueue writeBehind;
+    private final PubSubStore pubSubStore;
+
+    private final ConcurrentMap<String, Object> cache = PlatformDependent.newConcurrentHashMap();
+
+    /**
+     * 失效版本号, 每次收到失效消息加一.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public RedissonBatchStore(UUID sessionId, RedissonClient redisson, RedissonWriteBehindQueue writeBehind, PubSubStore pubSubStore) {
+        this.sessionId = sessionId;
+        this.name = sessionId.toString();
+        this.map = redisson.getMap(name);
+        this.writeBehind = writeBehind;
+        this.pubSubStore = pubSubStore;
+    }
+
+    @Override
+    public void set(String key, Object value) {
+        if (value == null) {
+            del(key);
+            return;
+        }
+        cache.put(key, value);
+        writeBehind.put(name, key, value);
+        pubSubStore.publish(PubSubType.INVALIDATE, new StoreInvalidateMessage(sessionId, key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        Object value = cache.get(key);
+        if (value == null) {
+            long stamp = invalidations.get();
+            Object loaded = map.get(key);
+            Object candidate = loaded == null ? NULL : loaded;
+            // 版本号检查和写缓存在同一个bin锁内, 与invalidate的remove互斥:
+            // 读Redis期间收到失效消息时不缓存, 检查之后收到的失效消息会把刚写入的值清除.
+            // 已有值说明并发写入了新值, 以本地写入为准.
+            Object cached = cache.compute(key, (k, previous) -> previous != null ? previous
+                    : invalidations.get() == stamp ? candidate : null);
+            value = cached == null ? candidate : cached;
+        }
+        return value == NULL ? null : (T) value;
+    }
+
+    @Override
+    public boolean has(String key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void del(String key) {
+        cache.put(key, NULL);
+        writeBehind.remove(name, key);
+        pubSubStore.publish(PubSubType.INVALIDATE, new StoreInvalidateMessage(sessionId, key));
+    }
+
+    /**
+     * 其他节点修改了属性, 清除本地缓存.
+     * @param key 属性key
+     */
+    public void invalidate(String key) {
+        // 先增加版本号再清除, 正在读Redis的线程不会再缓存失效前读到的值.
+        invalidations.incrementAndGet();
+        cache.remove(key);
+    }
+
+}
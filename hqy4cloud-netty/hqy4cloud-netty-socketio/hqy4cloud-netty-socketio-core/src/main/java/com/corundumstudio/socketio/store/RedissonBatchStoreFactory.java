@@ -0,0 +1,89 @@
+package com.corundumstudio.socketio.store;
+
+import com.corundumstudio.socketio.handler.AuthorizeHandler;
+import com.corundumstudio.socketio.handler.ClientHead;
+import com.corundumstudio.socketio.namespace.NamespacesHub;
+import com.corundumstudio.socketio.protocol.JsonSupport;
+import com.corundumstudio.socketio.store.pubsub.BaseStoreFactory;
+import com.corundumstudio.socketio.store.pubsub.PubSubStore;
+import com.corundumstudio.socketio.store.pubsub.PubSubType;
+import com.corundumstudio.socketio.store.pubsub.StoreInvalidateMessage;
+import io.netty.util.internal.PlatformDependent;
+import org.redisson.api.RedissonClient;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 批量写后模式的 {@link RedissonStoreFactory}.
+ * session属性写入和pub/sub消息发布都进入 {@link RedissonWriteBehindQueue}, 合并成管道批量提交, 握手、加入房间等操作不再同步等待Redis;
+ * session属性读取走本地缓存, 其他节点修改属性时通过 {@link PubSubType#INVALIDATE} 消息清除本地缓存.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 19:30
+ */
+public class RedissonBatchStoreFactory extends BaseStoreFactory {
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final RedissonClient redisClient;
+    private final RedissonWriteBehindQueue writeBehind;
+    private final PubSubStore pubSubStore;
+
+    /**
+     * 当前节点上的session store, 用于处理缓存失效消息
+     */
+    private final ConcurrentMap<UUID, RedissonBatchStore> stores = PlatformDependent.newConcurrentHashMap();
+
+    public RedissonBatchStoreFactory(RedissonClient redisson) {
+        this(redisson, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_BATCH_SIZE);
+    }
+
+    public RedissonBatchStoreFactory(RedissonClient redisson, long flushIntervalMillis, int batchSize) {
+        this.redisClient = redisson;
+        this.writeBehind = new RedissonWriteBehindQueue(redisson, flushIntervalMillis, batchSize);
+        this.pubSubStore = new RedissonBatchPubSubStore(redisson, getNodeId(), writeBehind);
+    }
+
+    @Override
+    public void init(NamespacesHub namespacesHub, AuthorizeHandler authorizeHandler, JsonSupport jsonSupport) {
+        super.init(namespacesHub, authorizeHandler, jsonSupport);
+        pubSubStore.subscribe(PubSubType.INVALIDATE, msg -> {
+            RedissonBatchStore store = stores.get(msg.getSessionId());
+            if (store != null) {
+                store.invalidate(msg.getKey());
+            }
+        }, StoreInvalidateMessage.class);
+    }
+
+    @Override
+    public Store createStore(UUID sessionId) {
+        RedissonBatchStore store = new RedissonBatchStore(sessionId, redisClient, writeBehind, pubSubStore);
+        stores.put(sessionId, store);
+        return store;
+    }
+
+    @Override
+    public void onDisconnect(ClientHead client) {
+        stores.remove(client.getSessionId());
+    }
+
+    @Override
+    public PubSubStore pubSubStore() {
+        return pubSubStore;
+    }
+
+    @Override
+    public void shutdown() {
+        writeBehind.shutdown();
+        redisClient.shutdown();
+    }
+
+    @Override
+    public <K, V> Map<K, V> createMap(String name) {
+        return redisClient.getMap(name);
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.corundumstudio.socketio.store;
+
+import com.hqy.cloud.util.thread.NamedThreadFactory;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Redis写后(write-behind)队列.
+ * session属性的写入和pub/sub消息的发布先进入队列, 由后台线程定时或者积攒到batchSize后通过一次 {@link RBatch} 管道提交,
+ * 队列内的操作按提交顺序执行.
+ * 注意: 进程异常退出时队列中未提交的操作会丢失.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 19:30
+ */
+public class RedissonWriteBehindQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(RedissonWriteBehindQueue.class);
+
+    private final RedissonClient redisson;
+    private final int batchSize;
+    private final ScheduledExecutorService executor;
+
+    private final Queue<Consumer<RBatch>> operations = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+
+    public RedissonWriteBehindQueue(RedissonClient redisson, long flushIntervalMillis, int batchSize) {
+        this.redisson = redisson;
+        this.batchSize = Math.max(batchSize, 1);
+        this.executor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("socketio-store-write-behind", true));
+        this.executor.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void put(String name, String key, Object value) {
+        add(batch -> batch.<String, Object>getMap(name).fastPutAsync(key, value));
+    }
+
+    public void remove(String name, String key) {
+        add(batch -> batch.<String, Object>getMap(name).fastRemoveAsync(key));
+    }
+
+    public void publish(String topic, Object message) {
+        add(batch -> batch.getTopic(topic).publishAsync(message));
+    }
+
+    private void add(Consumer<RBatch> operation) {
+        operations.add(operation);
+        if (size.incrementAndGet() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flush);
+            } catch (Throwable cause) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private synchronized void flush() {
+        flushRequested.set(false);
+        try {
+            while (!operations.isEmpty()) {
+                RBatch batch = redisson.createBatch(BatchOptions.defaults());
+                int count = 0;
+                Consumer<RBatch> operation;
+                while (count < batchSize && (operation = operations.poll()) != null) {
+                    operation.accept(batch);
+                    count++;
+                }
+                size.addAndGet(-count);
+                try {
+                    batch.execute();
+                } catch (Exception e) {
+                    log.warn("Failed execute to flush socket.io store batch, dropped operations: {}, cause: {}", count, e.getMessage());
+                }
+            }
+        } catch (Throwable cause) {
+            log.error("Failed execute to flush socket.io store write-behind queue.", cause);
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+}
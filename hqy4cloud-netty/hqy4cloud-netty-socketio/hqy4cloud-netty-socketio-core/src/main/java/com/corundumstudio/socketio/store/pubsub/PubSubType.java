@@ -17,7 +17,12 @@ package com.corundumstudio.socketio.store.pubsub;
 
 public enum PubSubType {
 
-    CONNECT, DISCONNECT, JOIN, LEAVE, DISPATCH;
+    CONNECT, DISCONNECT, JOIN, LEAVE, DISPATCH,
+
+    /**
+     * session store的本地缓存失效, see RedissonBatchStoreFactory
+     */
+    INVALIDATE;
 
     @Override
     public String toString() {
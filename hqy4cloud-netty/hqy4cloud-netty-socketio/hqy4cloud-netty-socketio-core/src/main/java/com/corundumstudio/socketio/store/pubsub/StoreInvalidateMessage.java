@@ -0,0 +1,36 @@
+package com.corundumstudio.socketio.store.pubsub;
+
+import java.util.UUID;
+
+/**
+ * session store的属性被修改, 其他节点需要清除本地缓存.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 19:30
+ */
+public class StoreInvalidateMessage extends PubSubMessage {
+
+    private static final long serialVersionUID = 5032416725117036829L;
+
+    private UUID sessionId;
+
+    private String key;
+
+    public StoreInvalidateMessage() {
+    }
+
+    public StoreInvalidateMessage(UUID sessionId, String key) {
+        super();
+        this.sessionId = sessionId;
+        this.key = key;
+    }
+
+    public UUID getSessionId() {
+        return sessionId;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+}
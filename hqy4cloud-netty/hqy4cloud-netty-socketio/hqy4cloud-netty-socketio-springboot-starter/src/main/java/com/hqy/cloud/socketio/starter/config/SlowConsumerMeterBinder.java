@@ -0,0 +1,35 @@
+package com.hqy.cloud.socketio.starter.config;
+
+import com.hqy.cloud.netty.backpressure.SlowConsumerMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 将慢消费者统计注册到micrometer, 通过actuator metrics端点查看:
+ * /actuator/metrics/socketio.slow.consumer?tag=type:dropped|coalesced|evicted
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 22:30
+ */
+public class SlowConsumerMeterBinder implements MeterBinder {
+
+    public static final String METER_NAME = "socketio.slow.consumer";
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        register(registry, "dropped", "messages dropped because of slow consumers", metrics -> SlowConsumerMetrics.getDropped());
+        register(registry, "coalesced", "messages replaced by newer ones because of slow consumers", metrics -> SlowConsumerMetrics.getCoalesced());
+        register(registry, "evicted", "connections closed because of slow consumers", metrics -> SlowConsumerMetrics.getEvicted());
+    }
+
+    private void register(MeterRegistry registry, String type, String description, ToDoubleFunction<Class<SlowConsumerMetrics>> function) {
+        FunctionCounter.builder(METER_NAME, SlowConsumerMetrics.class, function)
+                .tag("type", type)
+                .description(description)
+                .register(registry);
+    }
+
+}
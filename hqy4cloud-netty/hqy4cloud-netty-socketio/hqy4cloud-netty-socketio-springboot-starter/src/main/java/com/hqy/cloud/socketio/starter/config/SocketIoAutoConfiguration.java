@@ -2,6 +2,7 @@ package com.hqy.cloud.socketio.starter.config;
 
 import com.corundumstudio.socketio.SocketIOServer;
 import com.hqy.cloud.foundation.common.route.LoadBalanceHashFactorManager;
+import com.hqy.cloud.netty.backpressure.OutboundBufferConfig;
 import com.hqy.cloud.foundation.common.route.SocketClusterStatus;
 import com.hqy.cloud.foundation.common.route.SocketClusterStatusManager;
 import com.hqy.cloud.socketio.starter.core.ServerLauncher;
@@ -10,8 +11,11 @@ import com.hqy.cloud.socketio.starter.core.support.ServerEventLauncherFactory;
 import com.hqy.cloud.util.IpUtil;
 import com.hqy.foundation.util.SocketHashFactorUtils;
 import com.hqy.cloud.rpc.core.Environment;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -24,11 +28,22 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class SocketIoAutoConfiguration {
 
+    /**
+     * 出站缓冲及慢消费者策略, 绑定 socketio.outbound.* 配置,
+     * e.g. socketio.outbound.policy=DISCONNECT, socketio.outbound.max-pending-messages=512
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConfigurationProperties(prefix = "socketio.outbound")
+    public OutboundBufferConfig socketIoOutboundBufferConfig() {
+        return new OutboundBufferConfig();
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean(value = {SocketIoServerStarter.class})
-    public SocketIOServer eventServerLauncher(SocketIoServerStarter socketIoServerStarter) throws Exception {
-        ServerEventLauncherFactory factory = new ServerEventLauncherFactory(socketIoServerStarter.eventListeners());
+    public SocketIOServer eventServerLauncher(SocketIoServerStarter socketIoServerStarter, OutboundBufferConfig outboundBufferConfig) throws Exception {
+        ServerEventLauncherFactory factory = new ServerEventLauncherFactory(socketIoServerStarter.eventListeners(), outboundBufferConfig);
         ServerLauncher launcher = factory.create();
         SocketIOServer socketIOServer = launcher.startUp(socketIoServerStarter.serverPort(), socketIoServerStarter.contextPath(), socketIoServerStarter.authorizationListener());
 
@@ -44,4 +59,15 @@ public class SocketIoAutoConfiguration {
         return socketIOServer;
     }
 
+    @Configuration
+    @ConditionalOnClass(MeterBinder.class)
+    static class SlowConsumerMetricsConfiguration {
+
+        @Bean
+        public SlowConsumerMeterBinder slowConsumerMeterBinder() {
+            return new SlowConsumerMeterBinder();
+        }
+
+    }
+
 }
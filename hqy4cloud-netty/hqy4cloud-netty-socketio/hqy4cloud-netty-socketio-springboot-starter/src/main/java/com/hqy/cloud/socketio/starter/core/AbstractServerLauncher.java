@@ -4,6 +4,7 @@ import com.corundumstudio.socketio.AuthorizationListener;
 import com.corundumstudio.socketio.Configuration;
 import com.corundumstudio.socketio.SocketIOServer;
 import com.hqy.cloud.common.base.lang.StringConstants;
+import com.hqy.cloud.netty.backpressure.OutboundBufferConfig;
 import com.hqy.cloud.util.spring.ProjectContextInfo;
 import com.hqy.cloud.util.spring.SpringContextHolder;
 import org.slf4j.Logger;
@@ -25,6 +26,7 @@ public abstract class AbstractServerLauncher implements ServerLauncher {
     private final boolean randomSession;
     private final String keystore;
     private final String password;
+    private OutboundBufferConfig outboundBufferConfig = new OutboundBufferConfig();
 
     protected AbstractServerLauncher() {
         this(false, true, StringConstants.EMPTY, StringConstants.EMPTY);
@@ -47,6 +49,7 @@ public abstract class AbstractServerLauncher implements ServerLauncher {
         configuration.setContext(contextPath);
         configuration.setPort(port);
         configuration.setRandomSession(randomSession);
+        configuration.setOutboundBufferConfig(outboundBufferConfig);
 
         if (enableSsl) {
             loadSslKeyStore(configuration);
@@ -103,4 +106,14 @@ public abstract class AbstractServerLauncher implements ServerLauncher {
     public String getPassword() {
         return password;
     }
+
+    public OutboundBufferConfig getOutboundBufferConfig() {
+        return outboundBufferConfig;
+    }
+
+    public void setOutboundBufferConfig(OutboundBufferConfig outboundBufferConfig) {
+        if (outboundBufferConfig != null) {
+            this.outboundBufferConfig = outboundBufferConfig;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.hqy.cloud.socketio.starter.core.support;
 
+import com.hqy.cloud.netty.backpressure.OutboundBufferConfig;
 import com.hqy.cloud.socketio.starter.core.ServerLauncherFactory;
 
 import java.util.Set;
@@ -12,14 +13,22 @@ import java.util.Set;
 public class ServerEventLauncherFactory implements ServerLauncherFactory {
 
     private final Set<EventListener> eventListeners;
+    private final OutboundBufferConfig outboundBufferConfig;
 
     public ServerEventLauncherFactory(Set<EventListener> eventListeners) {
+        this(eventListeners, new OutboundBufferConfig());
+    }
+
+    public ServerEventLauncherFactory(Set<EventListener> eventListeners, OutboundBufferConfig outboundBufferConfig) {
         this.eventListeners = eventListeners;
+        this.outboundBufferConfig = outboundBufferConfig;
     }
 
     @Override
     public ServerEventLauncher create() {
-        return new ServerEventLauncher(false, true, "", "", eventListeners);
+        ServerEventLauncher launcher = new ServerEventLauncher(false, true, "", "", eventListeners);
+        launcher.setOutboundBufferConfig(outboundBufferConfig);
+        return launcher;
     }
 
 
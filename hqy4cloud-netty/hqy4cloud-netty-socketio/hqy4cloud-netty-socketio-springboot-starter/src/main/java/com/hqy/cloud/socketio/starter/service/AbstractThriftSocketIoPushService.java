@@ -1,13 +1,18 @@
 package com.hqy.cloud.socketio.starter.service;
 
 import com.corundumstudio.socketio.ex.NettyContextHelper;
-import com.hqy.cloud.util.AssertUtil;
+import com.hqy.cloud.rpc.thrift.struct.SocketIoPushStruct;
 import com.hqy.cloud.util.thread.ExecutorServiceProject;
 import com.hqy.cloud.util.thread.ParentExecutorService;
 import com.hqy.cloud.rpc.thrift.service.ThriftSocketIoPushService;
+import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -33,31 +38,49 @@ public abstract class AbstractThriftSocketIoPushService implements ThriftSocketI
     @Override
     public boolean syncPushMultiple(Set<String> bizIdSet, String eventName, String wsMessageJson) {
         try {
-            boolean happenError = false;
-            for (String bizId : bizIdSet) {
-                try {
-                    NettyContextHelper.doPush(bizId, eventName, wsMessageJson);
-                } catch (Throwable cause) {
-                    AssertUtil.isTrue(happenError, "syncPushMultiple consecutive errors, cause " + cause.getMessage());
-                    happenError = true;
-                    log.error("Failed execute to syncPushMultiple. bizId: {} | eventName: {}, wsMessageJson:{}.", bizId, eventName, wsMessageJson, cause);
-                }
-            }
+            return NettyContextHelper.doPush(bizIdSet, eventName, wsMessageJson);
         } catch (Throwable cause) {
-            log.error(cause.getMessage());
+            log.error("Failed execute to syncPushMultiple. eventName: {}, wsMessageJson:{}.", eventName, wsMessageJson, cause);
             return false;
         }
-        return true;
     }
 
     @Override
     public void asyncPush(String bizId, String eventName, String wsMessageJson) {
-        ParentExecutorService.getInstance().execute(() -> this.asyncPush(bizId, eventName, wsMessageJson), ExecutorServiceProject.PRIORITY_IMMEDIATE);
+        ParentExecutorService.getInstance().execute(() -> this.syncPush(bizId, eventName, wsMessageJson), ExecutorServiceProject.PRIORITY_IMMEDIATE);
     }
 
     @Override
     public void asyncPushMultiple(Set<String> bizIdSet, String eventName, String wsMessageJson) {
-        ParentExecutorService.getInstance().execute(() -> this.asyncPushMultiple(bizIdSet, eventName, wsMessageJson));
+        ParentExecutorService.getInstance().execute(() -> this.syncPushMultiple(bizIdSet, eventName, wsMessageJson));
+    }
+
+    @Override
+    public boolean syncPushBatch(List<SocketIoPushStruct> messages) {
+        if (CollectionUtils.isEmpty(messages)) {
+            return true;
+        }
+        // 按 事件名 + 事件数据 分组, 同一组的用户只编码、发送一次.
+        Map<String, Map<String, Set<String>>> groups = new LinkedHashMap<>();
+        for (SocketIoPushStruct message : messages) {
+            if (message == null) {
+                continue;
+            }
+            groups.computeIfAbsent(message.eventName, e -> new LinkedHashMap<>())
+                    .computeIfAbsent(message.wsMessageJson, m -> new LinkedHashSet<>()).add(message.bizId);
+        }
+
+        boolean result = true;
+        for (Map.Entry<String, Map<String, Set<String>>> event : groups.entrySet()) {
+            for (Map.Entry<String, Set<String>> payload : event.getValue().entrySet()) {
+                result &= syncPushMultiple(payload.getValue(), event.getKey(), payload.getKey());
+            }
+        }
+        return result;
+    }
 
+    @Override
+    public void asyncPushBatch(List<SocketIoPushStruct> messages) {
+        ParentExecutorService.getInstance().execute(() -> this.syncPushBatch(messages));
     }
 }
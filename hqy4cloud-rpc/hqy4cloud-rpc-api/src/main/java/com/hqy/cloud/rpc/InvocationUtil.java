@@ -1,5 +1,8 @@
 package com.hqy.cloud.rpc;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+
 import static com.hqy.cloud.common.base.lang.StringConstants.Symbol.*;
 import static com.hqy.cloud.common.base.lang.StringConstants.Symbol.RIGHT_BRACKET;
 
@@ -37,5 +40,15 @@ public class InvocationUtil {
         return invoker.getInterface().getName();
     }
 
+    /**
+     * resolve invoke mode by rpc method return type, protocol specific modes (e.g. thrift oneway)
+     * are resolved by the protocol first, see ThriftRpcUtils#getInvokeMode.
+     * @param method rpc method.
+     * @return       {@link InvokeMode#FUTURE} if method return {@link CompletableFuture}, else {@link InvokeMode#SYNC}
+     */
+    public static InvokeMode getInvokeMode(Method method) {
+        return CompletableFuture.class.isAssignableFrom(method.getReturnType()) ? InvokeMode.FUTURE : InvokeMode.SYNC;
+    }
+
 
 }
@@ -6,6 +6,7 @@ import com.hqy.cloud.rpc.cluster.support.FailBackCluster;
 import com.hqy.cloud.rpc.cluster.support.FailFastCluster;
 import com.hqy.cloud.rpc.cluster.support.FailSafeCluster;
 import com.hqy.cloud.rpc.cluster.support.FailoverCluster;
+import com.hqy.cloud.rpc.cluster.support.HedgingCluster;
 import com.hqy.cloud.util.AssertUtil;
 import com.hqy.cloud.util.spring.SpringContextHolder;
 import org.slf4j.Logger;
@@ -70,6 +71,9 @@ public class ClusterContext {
                     case FAILSAFE:
                         cluster = SpringContextHolder.getBean(FailSafeCluster.class);
                         break;
+                    case HEDGING:
+                        cluster = SpringContextHolder.getBean(HedgingCluster.class);
+                        break;
                     default:
                         cluster = SpringContextHolder.getBean(FailoverCluster.class);
                 }
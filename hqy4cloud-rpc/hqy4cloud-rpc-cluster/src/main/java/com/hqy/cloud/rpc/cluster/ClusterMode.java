@@ -4,6 +4,7 @@ import com.hqy.cloud.rpc.cluster.support.FailBackClusterInvoker;
 import com.hqy.cloud.rpc.cluster.support.FailFastClusterInvoker;
 import com.hqy.cloud.rpc.cluster.support.FailSafeClusterInvoker;
 import com.hqy.cloud.rpc.cluster.support.FailoverClusterInvoker;
+import com.hqy.cloud.rpc.cluster.support.HedgingClusterInvoker;
 
 /**
  * @author qiyuan.hong
@@ -30,7 +31,13 @@ public enum ClusterMode {
     /**
      * {@link FailBackClusterInvoker}
      */
-    FAILBACK
+    FAILBACK,
+
+    /**
+     * {@link HedgingClusterInvoker}
+     * 注意: 对冲和重试都会让同一个请求被多个提供者执行, 只能用于幂等的方法.
+     */
+    HEDGING
 
 
 }
@@ -3,6 +3,7 @@ package com.hqy.cloud.rpc.cluster.directory;
 import cn.hutool.core.collection.ConcurrentHashSet;
 import com.hqy.cloud.common.base.lang.exception.RpcException;
 import com.hqy.cloud.rpc.Invoker;
+import com.hqy.cloud.rpc.cluster.loadbalance.RpcStatus;
 import com.hqy.cloud.rpc.cluster.router.RouterChain;
 import com.hqy.cloud.rpc.model.RPCModel;
 import com.hqy.cloud.util.AssertUtil;
@@ -37,14 +38,10 @@ public abstract class AbstractDirectory<T> implements Directory<T> {
     private volatile boolean invokersInitialized = false;
 
     /**
-     * All invokers from registry
+     * Immutable snapshot of all invokers from registry and valid invokers (exclude unavailable and disabled invokers),
+     * replaced as a whole when invokers change.
      */
-    private volatile List<Invoker<T>> invokers = Collections.emptyList();
-
-    /**
-     * Valid Invoker. All invokers from registry exclude unavailable and disabled invokers.
-     */
-    private volatile List<Invoker<T>> validInvokers = Collections.emptyList();
+    private volatile DirectorySnapshot<T> snapshot = DirectorySnapshot.empty();
 
     /**
      * Waiting to reconnect invokers.
@@ -87,9 +84,9 @@ public abstract class AbstractDirectory<T> implements Directory<T> {
         reconnectTaskPeriod = DEFAULT_RECONNECT_TASK_PERIOD;
     }
 
-    public void setInvokers(List<Invoker<T>> invokers) {
-        this.invokers = invokers;
-        refreshInvokerInternal();
+    public synchronized void setInvokers(List<Invoker<T>> invokers) {
+        // filter before publishing, readers never see the unfiltered invokers.
+        this.snapshot = filterInvokers(invokers);
         this.invokersInitialized = true;
     }
 
@@ -107,10 +104,14 @@ public abstract class AbstractDirectory<T> implements Directory<T> {
     }
 
     private synchronized void refreshInvokerInternal() {
-        List<Invoker<T>> copiedInvokers = new LinkedList<>(invokers);
+        snapshot = filterInvokers(snapshot.getInvokers());
+    }
+
+    private DirectorySnapshot<T> filterInvokers(List<Invoker<T>> invokers) {
+        List<Invoker<T>> copiedInvokers = new ArrayList<>(invokers);
         refreshInvokers(copiedInvokers, invokersToReconnect);
         refreshInvokers(copiedInvokers, disabledInvokers);
-        validInvokers = copiedInvokers;
+        return DirectorySnapshot.of(invokers, copiedInvokers);
     }
 
     private void refreshInvokers(List<Invoker<T>> targetInvokers, Collection<Invoker<T>> invokersToRemove) {
@@ -163,6 +164,7 @@ public abstract class AbstractDirectory<T> implements Directory<T> {
                     }
 
                     // 2. try to check the invoker's status
+                    List<Invoker<T>> invokers = getInvokers();
                     for (Invoker<T> invoker : invokersToTry) {
                         if (invokers.contains(invoker)) {
                             if (invoker.isAvailable()) {
@@ -197,7 +199,7 @@ public abstract class AbstractDirectory<T> implements Directory<T> {
 
     @Override
     public void addDisabledInvoker(Invoker<T> invoker) {
-        if (invokers.contains(invoker)) {
+        if (getInvokers().contains(invoker)) {
             disabledInvokers.add(invoker);
             removeValidInvoker(invoker);
             log.info("Disable service address: " + invoker.getModel() + ".");
@@ -233,10 +235,12 @@ public abstract class AbstractDirectory<T> implements Directory<T> {
     }
 
     protected void destroyInvokers() {
+        List<Invoker<T>> invokers = snapshot.getInvokers();
         // set empty instead of clearing to support concurrent access.
-        invokers.clear();
-        validInvokers.clear();
+        this.snapshot = DirectorySnapshot.empty();
         this.invokersInitialized = false;
+        // release runtime status of dropped invokers, avoid leaking the static status map.
+        invokers.forEach(RpcStatus::removeStatus);
     }
 
 
@@ -245,57 +249,61 @@ public abstract class AbstractDirectory<T> implements Directory<T> {
         if (destroyed) {
             throw new RpcException("Directory of type " + this.getClass().getSimpleName() +  " already destroyed for service " + getProviderServiceName() + " from registry.");
         }
-        List<Invoker<T>> availableInvokers;
-        // use clone to avoid being modified at doList().
-        if (invokersInitialized) {
-            availableInvokers = new ArrayList<>(validInvokers);
-        } else {
-            availableInvokers = new ArrayList<>(invokers);
-        }
-
-        List<Invoker<T>> routedResult = doList(availableInvokers);
+        // the snapshot is immutable, no need to copy.
+        DirectorySnapshot<T> current = this.snapshot;
+        List<Invoker<T>> routedResult = doList(current);
         if (routedResult.isEmpty()) {
             log.warn("No provider available after connectivity filter for the service " + getProviderServiceName()
-                    + " All validInvokers' size: " + validInvokers.size()
+                    + " All validInvokers' size: " + current.getValidInvokers().size()
                     + " All routed invokers' size: " + routedResult.size()
-                    + " All invokers' size: " + invokers.size()
+                    + " All invokers' size: " + current.getInvokers().size()
                     + " from registry " + getConsumerModel().getServerAddress()
                     + " on the consumer " + getConsumerModel().getHost()
                     + ".");
         }
 
-        return Collections.unmodifiableList(routedResult);
+        return routedResult;
     }
 
 
 
 
     public List<Invoker<T>> getInvokers() {
-        return invokers;
+        return snapshot.getInvokers();
     }
 
     public List<Invoker<T>> getValidInvokers() {
-        return validInvokers;
+        return snapshot.getValidInvokers();
     }
 
-    private boolean addValidInvoker(Invoker<T> invoker) {
-        synchronized (this.validInvokers) {
-            return this.validInvokers.add(invoker);
-        }
+    public DirectorySnapshot<T> getSnapshot() {
+        return snapshot;
+    }
+
+    private synchronized boolean addValidInvoker(Invoker<T> invoker) {
+        DirectorySnapshot<T> current = this.snapshot;
+        List<Invoker<T>> validInvokers = new ArrayList<>(current.getValidInvokers());
+        boolean added = validInvokers.add(invoker);
+        this.snapshot = DirectorySnapshot.of(current.getInvokers(), validInvokers);
+        return added;
     }
 
-    private boolean removeValidInvoker(Invoker<T> invoker) {
-        synchronized (this.validInvokers) {
-            return this.validInvokers.remove(invoker);
+    private synchronized boolean removeValidInvoker(Invoker<T> invoker) {
+        DirectorySnapshot<T> current = this.snapshot;
+        List<Invoker<T>> validInvokers = new ArrayList<>(current.getValidInvokers());
+        if (!validInvokers.remove(invoker)) {
+            return false;
         }
+        this.snapshot = DirectorySnapshot.of(current.getInvokers(), validInvokers);
+        return true;
     }
 
     /**
      * choose conditional invokers.
-     * @param availableInvokers invokers {@link Invoker}
-     * @return                  match condition invokers.
+     * @param snapshot current immutable snapshot, the valid invokers should not be modified.
+     * @return         match condition invokers.
      */
-    protected abstract List<Invoker<T>> doList(List<Invoker<T>> availableInvokers);
+    protected abstract List<Invoker<T>> doList(DirectorySnapshot<T> snapshot);
 
 
 }
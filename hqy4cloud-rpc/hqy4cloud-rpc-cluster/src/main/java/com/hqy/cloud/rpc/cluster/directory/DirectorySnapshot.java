@@ -0,0 +1,57 @@
+package com.hqy.cloud.rpc.cluster.directory;
+
+import com.hqy.cloud.rpc.Invoker;
+import com.hqy.cloud.rpc.cluster.loadbalance.WeightedInvokerList;
+import com.hqy.cloud.rpc.cluster.router.RouterIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DirectorySnapshot.
+ * immutable snapshot of the directory: all invokers, valid invokers, routing index and load balance weights of the valid invokers.
+ * the directory publishes a new snapshot through one volatile reference whenever the invokers change (copy on write),
+ * {@link AbstractDirectory#list(com.hqy.cloud.rpc.model.RPCModel)} reads the snapshot without locks and copies.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 21:40
+ */
+public final class DirectorySnapshot<T> {
+
+    private final List<Invoker<T>> invokers;
+    private final WeightedInvokerList<T> validInvokers;
+    private final RouterIndex<T> routerIndex;
+
+    private DirectorySnapshot(List<Invoker<T>> invokers, List<Invoker<T>> validInvokers) {
+        this.invokers = invokers;
+        this.validInvokers = new WeightedInvokerList<>(validInvokers);
+        this.routerIndex = RouterIndex.build(this.validInvokers);
+    }
+
+    public static <T> DirectorySnapshot<T> empty() {
+        return new DirectorySnapshot<>(Collections.emptyList(), Collections.emptyList());
+    }
+
+    public static <T> DirectorySnapshot<T> of(List<Invoker<T>> invokers, List<Invoker<T>> validInvokers) {
+        return new DirectorySnapshot<>(Collections.unmodifiableList(new ArrayList<>(invokers)), validInvokers);
+    }
+
+    /**
+     * all invokers from registry.
+     */
+    public List<Invoker<T>> getInvokers() {
+        return invokers;
+    }
+
+    /**
+     * all invokers from registry exclude unavailable and disabled invokers.
+     */
+    public WeightedInvokerList<T> getValidInvokers() {
+        return validInvokers;
+    }
+
+    public RouterIndex<T> getRouterIndex() {
+        return routerIndex;
+    }
+}
@@ -62,7 +62,7 @@ public abstract class DynamicDirectory<T> extends AbstractDirectory<T> implement
     }
 
     @Override
-    protected List<Invoker<T>> doList(List<Invoker<T>> availableInvokers) {
+    protected List<Invoker<T>> doList(DirectorySnapshot<T> snapshot) {
 
         if (forbidden && shouldFailFast) {
             // 1. No service provider 2. Service providers are disabled
@@ -73,7 +73,7 @@ public abstract class DynamicDirectory<T> extends AbstractDirectory<T> implement
         }
 
         try {
-            return routerChain.route(getConsumerModel(), availableInvokers);
+            return routerChain.route(getConsumerModel(), snapshot.getValidInvokers(), snapshot.getRouterIndex());
         } catch (Throwable t) {
             log.error("Failed to execute router: " + getConsumerModel() + ", cause: " + t.getMessage(), t);
             return Collections.emptyList();
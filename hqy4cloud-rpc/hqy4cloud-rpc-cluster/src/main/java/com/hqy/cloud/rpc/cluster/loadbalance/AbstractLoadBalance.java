@@ -1,5 +1,6 @@
 package com.hqy.cloud.rpc.cluster.loadbalance;
 
+import com.hqy.cloud.rpc.Invocation;
 import com.hqy.cloud.rpc.Invoker;
 import com.hqy.cloud.rpc.model.RPCModel;
 import org.apache.commons.collections4.CollectionUtils;
@@ -26,6 +27,17 @@ public abstract class AbstractLoadBalance implements LoadBalance {
      */
     protected abstract <T> Invoker<T> doSelect(List<Invoker<T>> invokers, RPCModel rpcModel);
 
+    /**
+     * select one invoker in list for the invocation, default ignore the invocation.
+     * @param invokers      invokers
+     * @param rpcModel      refer rpcContext
+     * @param invocation    invocation, may be null.
+     * @return              selected invoker.
+     */
+    protected <T> Invoker<T> doSelect(List<Invoker<T>> invokers, RPCModel rpcModel, Invocation invocation) {
+        return doSelect(invokers, rpcModel);
+    }
+
 
     @Override
     public <T> Invoker<T> select(List<Invoker<T>> invokers, RPCModel rpcModel) {
@@ -35,6 +47,14 @@ public abstract class AbstractLoadBalance implements LoadBalance {
         return invokers.size() == 1 ? invokers.get(0) : doSelect(invokers, rpcModel);
     }
 
+    @Override
+    public <T> Invoker<T> select(List<Invoker<T>> invokers, RPCModel rpcModel, Invocation invocation) {
+        if (CollectionUtils.isEmpty(invokers)) {
+            return null;
+        }
+        return invokers.size() == 1 ? invokers.get(0) : doSelect(invokers, rpcModel, invocation);
+    }
+
     /**
      * Get the weight of the invoker's invocation which takes warmup time into account
      * if the uptime is within the warmup time, the weight will be reduce proportionally
@@ -43,15 +63,29 @@ public abstract class AbstractLoadBalance implements LoadBalance {
      */
     protected int getWeight(Invoker<?> invoker) {
         RPCModel rpcModel = invoker.getModel();
-        int weight = rpcModel.getWeight();
+        return warmupWeight(rpcModel.getWeight(), rpcModel.serverStartTimestamp(), rpcModel.getParameter(WARMUP, DEFAULT_WARMUP), System.currentTimeMillis());
+    }
+
+    /**
+     * Get the weight of the invoker at the index, the weight parameters of {@link WeightedInvokerList} are resolved in advance.
+     * @param invokers the invokers
+     * @param index    index of the invoker
+     * @return weight
+     */
+    protected int getWeight(List<? extends Invoker<?>> invokers, int index) {
+        if (invokers instanceof WeightedInvokerList) {
+            return ((WeightedInvokerList<?>) invokers).getWeight(index, System.currentTimeMillis());
+        }
+        return getWeight(invokers.get(index));
+    }
+
+    static int warmupWeight(int weight, long timestamp, int warmup, long now) {
         if (weight > 0) {
-            long timestamp = rpcModel.serverStartTimestamp();
             if (timestamp > 0L) {
-                long uptime = System.currentTimeMillis() - timestamp;
+                long uptime = now - timestamp;
                 if (uptime < 0) {
                     return 1;
                 }
-                int warmup = rpcModel.getParameter(WARMUP, DEFAULT_WARMUP);
                 if (uptime > 0 && uptime < warmup) {
                     weight = calculateWarmupWeight((int)uptime, warmup, weight);
                 }
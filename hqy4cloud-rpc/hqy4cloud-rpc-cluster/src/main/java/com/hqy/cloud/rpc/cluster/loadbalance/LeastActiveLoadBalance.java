@@ -0,0 +1,78 @@
+package com.hqy.cloud.rpc.cluster.loadbalance;
+
+import com.hqy.cloud.rpc.Invoker;
+import com.hqy.cloud.rpc.model.RPCModel;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Select the invoker with the least in-flight requests, a slow provider accumulates active requests
+ * and naturally receives less traffic.
+ * If there are multiple invokers with the same least active value, select one of them randomly by weight.
+ * @see RpcStatus
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 14:20
+ */
+public class LeastActiveLoadBalance extends AbstractLoadBalance {
+
+    public static final String NAME = "leastActive";
+
+    @Override
+    protected <T> Invoker<T> doSelect(List<Invoker<T>> invokers, RPCModel rpcModel) {
+        int length = invokers.size();
+        // The least active value of all invokers
+        int leastActive = -1;
+        // The number of invokers having the same least active value
+        int leastCount = 0;
+        // The index of invokers having the same least active value
+        int[] leastIndexes = new int[length];
+        // the weight of every invokers
+        int[] weights = new int[length];
+        // The sum of the weights of all the least active invokers
+        int totalWeight = 0;
+        // The weight of the first least active invoker
+        int firstWeight = 0;
+        // Every least active invoker has the same weight value?
+        boolean sameWeight = true;
+
+        for (int i = 0; i < length; i++) {
+            Invoker<T> invoker = invokers.get(i);
+            int active = RpcStatus.getStatus(invoker).getActive();
+            int weight = getWeight(invokers, i);
+            weights[i] = weight;
+            if (leastActive == -1 || active < leastActive) {
+                // Reset the least active value, the count and the indexes.
+                leastActive = active;
+                leastCount = 1;
+                leastIndexes[0] = i;
+                totalWeight = weight;
+                firstWeight = weight;
+                sameWeight = true;
+            } else if (active == leastActive) {
+                leastIndexes[leastCount++] = i;
+                totalWeight += weight;
+                if (sameWeight && weight != firstWeight) {
+                    sameWeight = false;
+                }
+            }
+        }
+
+        if (leastCount == 1) {
+            return invokers.get(leastIndexes[0]);
+        }
+        if (!sameWeight && totalWeight > 0) {
+            // select by weight among the least active invokers.
+            int offsetWeight = ThreadLocalRandom.current().nextInt(totalWeight);
+            for (int i = 0; i < leastCount; i++) {
+                int leastIndex = leastIndexes[i];
+                offsetWeight -= weights[leastIndex];
+                if (offsetWeight < 0) {
+                    return invokers.get(leastIndex);
+                }
+            }
+        }
+        return invokers.get(leastIndexes[ThreadLocalRandom.current().nextInt(leastCount)]);
+    }
+}
@@ -1,6 +1,7 @@
 package com.hqy.cloud.rpc.cluster.loadbalance;
 
 
+import com.hqy.cloud.rpc.Invocation;
 import com.hqy.cloud.rpc.Invoker;
 import com.hqy.cloud.rpc.model.RPCModel;
 
@@ -22,4 +23,15 @@ public interface LoadBalance {
      */
     <T> Invoker<T> select(List<Invoker<T>> invokers, RPCModel rpcModel);
 
+    /**
+     * select one invoker in list for the invocation.
+     * @param invokers    invokers
+     * @param rpcModel    refer rpcContext
+     * @param invocation  invocation, load balance may keep state per method.
+     * @return            selected invoker.
+     */
+    default <T> Invoker<T> select(List<Invoker<T>> invokers, RPCModel rpcModel, Invocation invocation) {
+        return select(invokers, rpcModel);
+    }
+
 }
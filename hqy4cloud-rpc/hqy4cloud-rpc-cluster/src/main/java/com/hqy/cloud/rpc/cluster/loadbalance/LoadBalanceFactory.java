@@ -0,0 +1,44 @@
+package com.hqy.cloud.rpc.cluster.loadbalance;
+
+import cn.hutool.core.map.MapUtil;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+
+/**
+ * LoadBalanceFactory, load balance instances are shared by all cluster invokers.
+ * @see LoadBalance
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 15:02
+ */
+public class LoadBalanceFactory {
+
+    private static final Map<String, LoadBalance> LOAD_BALANCE_MAP = MapUtil.newConcurrentHashMap(8);
+
+    static {
+        LOAD_BALANCE_MAP.put(RandomLoadBalance.NAME, new RandomLoadBalance());
+        LOAD_BALANCE_MAP.put(RoundRobinLoadBalance.NAME, new RoundRobinLoadBalance());
+        LOAD_BALANCE_MAP.put(LeastActiveLoadBalance.NAME, new LeastActiveLoadBalance());
+        LOAD_BALANCE_MAP.put(PowerOfTwoChoicesLoadBalance.NAME, new PowerOfTwoChoicesLoadBalance());
+        LOAD_BALANCE_MAP.put(PeakEwmaLoadBalance.NAME, new PeakEwmaLoadBalance());
+    }
+
+    /**
+     * get load balance by name.
+     * @param name load balance name, such as {@link RandomLoadBalance#NAME}
+     * @return     {@link LoadBalance}, return {@link RandomLoadBalance} if not found.
+     */
+    public static LoadBalance getLoadBalance(String name) {
+        if (StringUtils.isBlank(name)) {
+            return LOAD_BALANCE_MAP.get(RandomLoadBalance.NAME);
+        }
+        LoadBalance loadBalance = LOAD_BALANCE_MAP.get(name);
+        return loadBalance == null ? LOAD_BALANCE_MAP.get(RandomLoadBalance.NAME) : loadBalance;
+    }
+
+    public static void register(String name, LoadBalance loadBalance) {
+        LOAD_BALANCE_MAP.put(name, loadBalance);
+    }
+
+}
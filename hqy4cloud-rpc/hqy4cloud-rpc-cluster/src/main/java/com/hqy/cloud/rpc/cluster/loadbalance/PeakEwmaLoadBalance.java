@@ -0,0 +1,35 @@
+package com.hqy.cloud.rpc.cluster.loadbalance;
+
+import com.hqy.cloud.rpc.Invoker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Peak EWMA: power of two choices, the load is the peak-sensitive EWMA latency multiplied by the in-flight requests.
+ * A slow or GC pausing provider is penalized immediately and recovers gradually as its latency decays.
+ * @see RpcStatus
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 14:45
+ */
+public class PeakEwmaLoadBalance extends PowerOfTwoChoicesLoadBalance {
+
+    public static final String NAME = "peakEwma";
+
+    /**
+     * latency assumed for a provider without any observed response.
+     */
+    private static final double DEFAULT_PENALTY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Override
+    protected double load(Invoker<?> invoker) {
+        RpcStatus status = RpcStatus.getStatus(invoker);
+        double ewma = status.getEwmaNanos();
+        if (ewma == 0) {
+            // no response observed yet.
+            ewma = DEFAULT_PENALTY_NANOS;
+        }
+        int weight = Math.max(getWeight(invoker), 1);
+        return ewma * (status.getActive() + 1) / weight;
+    }
+}
@@ -0,0 +1,44 @@
+package com.hqy.cloud.rpc.cluster.loadbalance;
+
+import com.hqy.cloud.rpc.Invoker;
+import com.hqy.cloud.rpc.model.RPCModel;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power of two choices: pick two invokers randomly and select the one with less load.
+ * Cost is O(1) and avoids the herd behaviour of always choosing the global least loaded invoker.
+ * @see RpcStatus
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 14:32
+ */
+public class PowerOfTwoChoicesLoadBalance extends AbstractLoadBalance {
+
+    public static final String NAME = "p2c";
+
+    @Override
+    protected <T> Invoker<T> doSelect(List<Invoker<T>> invokers, RPCModel rpcModel) {
+        int length = invokers.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(length);
+        int second = random.nextInt(length - 1);
+        if (second >= first) {
+            second++;
+        }
+        Invoker<T> a = invokers.get(first);
+        Invoker<T> b = invokers.get(second);
+        return load(a) <= load(b) ? a : b;
+    }
+
+    /**
+     * load of invoker, in-flight requests normalized by weight.
+     * @param invoker invoker
+     * @return        load
+     */
+    protected double load(Invoker<?> invoker) {
+        int weight = Math.max(getWeight(invoker), 1);
+        return (RpcStatus.getStatus(invoker).getActive() + 1) / (double) weight;
+    }
+}
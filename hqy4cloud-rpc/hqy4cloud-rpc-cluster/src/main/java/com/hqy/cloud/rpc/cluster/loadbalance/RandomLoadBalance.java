@@ -3,6 +3,7 @@ package com.hqy.cloud.rpc.cluster.loadbalance;
 import com.hqy.cloud.rpc.Invoker;
 import com.hqy.cloud.rpc.model.RPCModel;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -33,6 +34,10 @@ public class RandomLoadBalance extends AbstractLoadBalance {
         if (!needWeightLoadBalance(invokers)){
             return invokers.get(ThreadLocalRandom.current().nextInt(length));
         }
+        if (invokers instanceof WeightedInvokerList && ((WeightedInvokerList<T>) invokers).isWarmedUp(System.currentTimeMillis())) {
+            // weights are fixed, use the precomputed prefix sums.
+            return selectByPrefixWeights((WeightedInvokerList<T>) invokers);
+        }
 
         // Every invoker has the same weight?
         boolean sameWeight = true;
@@ -41,7 +46,7 @@ public class RandomLoadBalance extends AbstractLoadBalance {
         // The sum of weights
         int totalWeight = 0;
         for (int i = 0; i < length; i++) {
-            int weight = getWeight(invokers.get(i));
+            int weight = getWeight(invokers, i);
             // Sum
             totalWeight += weight;
             // save for later use
@@ -64,7 +69,35 @@ public class RandomLoadBalance extends AbstractLoadBalance {
         return invokers.get(ThreadLocalRandom.current().nextInt(length));
     }
 
+    private <T> Invoker<T> selectByPrefixWeights(WeightedInvokerList<T> invokers) {
+        int totalWeight = invokers.getTotalWeight();
+        if (totalWeight > 0 && !invokers.isSameWeight()) {
+            int offset = ThreadLocalRandom.current().nextInt(totalWeight);
+            return invokers.get(indexOfOffset(invokers.getPrefixWeights(), offset));
+        }
+        return invokers.get(ThreadLocalRandom.current().nextInt(invokers.size()));
+    }
+
+    /**
+     * first index whose prefix weight is greater than offset.
+     * @param prefixWeights ascending prefix sums of weights.
+     * @param offset        random offset in [0, total weight).
+     * @return              index of the selected invoker.
+     */
+    static int indexOfOffset(int[] prefixWeights, int offset) {
+        int index = Arrays.binarySearch(prefixWeights, offset);
+        index = index < 0 ? -index - 1 : index + 1;
+        // zero weight invokers produce equal prefix weights, skip them.
+        while (prefixWeights[index] <= offset) {
+            index++;
+        }
+        return index;
+    }
+
     private <T> boolean needWeightLoadBalance(List<Invoker<T>> invokers) {
+        if (invokers instanceof WeightedInvokerList) {
+            return ((WeightedInvokerList<T>) invokers).isWeighted();
+        }
         Invoker<T> invoker = invokers.get(0);
         RPCModel rpcModel = invoker.getModel();
         int weight = rpcModel.getWeight();
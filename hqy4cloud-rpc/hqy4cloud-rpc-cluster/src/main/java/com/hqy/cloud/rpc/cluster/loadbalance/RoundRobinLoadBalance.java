@@ -1,15 +1,21 @@
 package com.hqy.cloud.rpc.cluster.loadbalance;
 
 import cn.hutool.core.map.MapUtil;
+import com.hqy.cloud.common.base.lang.StringConstants;
+import com.hqy.cloud.rpc.Invocation;
 import com.hqy.cloud.rpc.Invoker;
 import com.hqy.cloud.rpc.model.RPCModel;
+import com.hqy.cloud.rpc.model.RPCServerAddress;
 
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * According to the weighted load balance
+ * 平滑加权轮询(smooth weighted round-robin), 轮询状态按 服务.方法 和 服务提供者地址 保存, 不同方法的轮询互不影响.
+ * 权重包含预热: 服务提供者启动后在预热时间内权重随运行时间线性增长, 见 {@link AbstractLoadBalance#getWeight(Invoker)}.
+ * 超过 {@link #RECYCLE_PERIOD} 没有被轮询到的服务提供者状态会被清理.
  * @author qiyuan.hong
  * @version 1.0
  * @date 2022/6/30 10:07
@@ -18,34 +24,52 @@ public class RoundRobinLoadBalance extends AbstractLoadBalance {
 
     public static final String NAME = "roundRobin";
 
+    private static final int RECYCLE_PERIOD = 60000;
+
+    /**
+     * key: 服务.方法, value: 服务提供者地址 -> 轮询状态
+     */
+    private final ConcurrentMap<String, ConcurrentMap<RPCServerAddress, WeightedRoundRobin>> methodWeightMap = MapUtil.newConcurrentHashMap();
+
+    @Override
+    protected <T> Invoker<T> doSelect(List<Invoker<T>> invokers, RPCModel rpcModel) {
+        return doSelect(invokers, rpcModel, null);
+    }
+
     /**
-     * 每个 Invoker 都有一个 current 值，初始值为自身权重。在每个 Invoker 中current = current + weight。遍历完 Invoker 后，current 最大的那个 Invoker 就是本次选中的 Invoker。
+     * 每个 Invoker 都有一个 current 值，初始值为0。每次选择时每个 Invoker 的 current = current + weight，current 最大的那个 Invoker 就是本次选中的 Invoker。
      * 选中 Invoker 后，将本次 current 值计算current = current - totalWeight。
      * @param invokers   invokers
      * @param rpcModel   refer rpcContext
+     * @param invocation invocation
      * @param <T>
-     * @return
+     * @return           selected invoker
      */
     @Override
-    protected <T> Invoker<T> doSelect(List<Invoker<T>> invokers, RPCModel rpcModel) {
-        String key = invokers.get(0).getInterface().getSimpleName();
+    protected <T> Invoker<T> doSelect(List<Invoker<T>> invokers, RPCModel rpcModel, Invocation invocation) {
+        String key = invokers.get(0).getInterface().getName();
+        if (invocation != null) {
+            key = key.concat(StringConstants.Symbol.POINT).concat(invocation.getMethodName());
+        }
+        ConcurrentMap<RPCServerAddress, WeightedRoundRobin> map = methodWeightMap.computeIfAbsent(key, k -> MapUtil.newConcurrentHashMap());
 
-        int totalWeight = 0;
+        long totalWeight = 0;
         long maxCurrent = Long.MIN_VALUE;
         long now = System.currentTimeMillis();
         Invoker<T> selectedInvoker = null;
         WeightedRoundRobin selectedRoundRobin = null;
-        for (Invoker<T> invoker : invokers) {
-            // invoker weight roundRobin.
-            int weight = getWeight(invoker);
-            WeightedRoundRobin weightedRoundRobin = interfacesWeight.computeIfAbsent(key, k -> {
+        for (int i = 0; i < invokers.size(); i++) {
+            Invoker<T> invoker = invokers.get(i);
+            // invoker weight with warmup.
+            int weight = getWeight(invokers, i);
+            WeightedRoundRobin weightedRoundRobin = map.computeIfAbsent(invoker.getModel().getServerAddress(), k -> {
                 WeightedRoundRobin roundRobin = new WeightedRoundRobin();
                 roundRobin.setWeight(weight);
                 return roundRobin;
             });
 
             if (weight != weightedRoundRobin.getWeight()) {
-                //weight changed
+                //weight changed, e.g. warming up.
                 weightedRoundRobin.setWeight(weight);
             }
 
@@ -57,28 +81,24 @@ public class RoundRobinLoadBalance extends AbstractLoadBalance {
                 selectedRoundRobin = weightedRoundRobin;
             }
             totalWeight += weight;
+        }
 
-            if (invokers.size() != interfacesWeight.size()) {
-                interfacesWeight.entrySet().removeIf(item -> now - item.getValue().getLastUpdate() > RECYCLE_PERIOD);
-            }
-
-            if (selectedInvoker != null) {
-                selectedRoundRobin.sel(totalWeight);
-                return selectedInvoker;
-            }
+        if (invokers.size() != map.size()) {
+            map.entrySet().removeIf(item -> now - item.getValue().getLastUpdate() > RECYCLE_PERIOD);
+        }
 
+        if (selectedInvoker != null) {
+            selectedRoundRobin.sel(totalWeight);
+            return selectedInvoker;
         }
         // should not happen here
-        return  invokers.get(0);
+        return invokers.get(0);
     }
 
-    private static final int RECYCLE_PERIOD = 60000;
-    private final Map<String, WeightedRoundRobin> interfacesWeight = MapUtil.newConcurrentHashMap();
-
     protected static class WeightedRoundRobin {
-        private int weight;
+        private volatile int weight;
         private final AtomicLong current = new AtomicLong(0);
-        private long lastUpdate;
+        private volatile long lastUpdate;
 
         public int getWeight() {
             return weight;
@@ -93,7 +113,7 @@ public class RoundRobinLoadBalance extends AbstractLoadBalance {
             return current.addAndGet(weight);
         }
 
-        public void sel(int total) {
+        public void sel(long total) {
             current.addAndGet(-1 * total);
         }
 
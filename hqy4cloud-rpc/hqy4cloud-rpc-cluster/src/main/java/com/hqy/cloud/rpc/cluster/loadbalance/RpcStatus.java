@@ -0,0 +1,113 @@
+package com.hqy.cloud.rpc.cluster.loadbalance;
+
+import cn.hutool.core.map.MapUtil;
+import com.hqy.cloud.rpc.Invoker;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime status of a provider invoker, fed from the cluster invoke path.
+ * Tracks in-flight (active) requests and a peak-sensitive EWMA of the response time.
+ * @see LeastActiveLoadBalance
+ * @see PowerOfTwoChoicesLoadBalance
+ * @see PeakEwmaLoadBalance
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 14:05
+ */
+public class RpcStatus {
+
+    private static final Map<String, RpcStatus> INVOKER_STATUS = MapUtil.newConcurrentHashMap();
+
+    /**
+     * decay window of ewma latency.
+     */
+    private static final double DECAY_TIME_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder total = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalElapsed = new LongAdder();
+
+    private double ewmaNanos;
+    private long lastUpdateNanos = System.nanoTime();
+
+    private RpcStatus() {
+    }
+
+    public static RpcStatus getStatus(Invoker<?> invoker) {
+        return INVOKER_STATUS.computeIfAbsent(statusKey(invoker), key -> new RpcStatus());
+    }
+
+    public static void removeStatus(Invoker<?> invoker) {
+        INVOKER_STATUS.remove(statusKey(invoker));
+    }
+
+    public static void beginCount(Invoker<?> invoker) {
+        getStatus(invoker).active.incrementAndGet();
+    }
+
+    /**
+     * end an invocation.
+     * @param invoker      provider invoker.
+     * @param elapsedNanos elapsed time in nanoseconds.
+     * @param succeeded    invoke succeeded or not.
+     */
+    public static void endCount(Invoker<?> invoker, long elapsedNanos, boolean succeeded) {
+        RpcStatus status = getStatus(invoker);
+        status.active.decrementAndGet();
+        status.total.increment();
+        status.totalElapsed.add(elapsedNanos);
+        if (!succeeded) {
+            status.failed.increment();
+        }
+        status.observe(elapsedNanos);
+    }
+
+    private static String statusKey(Invoker<?> invoker) {
+        return invoker.getInterface().getName() + "@" + invoker.getModel().getServerAddress();
+    }
+
+    private synchronized void observe(long rttNanos) {
+        long now = System.nanoTime();
+        if (rttNanos > ewmaNanos) {
+            // peak sensitive, a slow response takes effect immediately.
+            ewmaNanos = rttNanos;
+        } else {
+            double w = Math.exp(-Math.max(now - lastUpdateNanos, 0) / DECAY_TIME_NANOS);
+            ewmaNanos = ewmaNanos * w + rttNanos * (1 - w);
+        }
+        lastUpdateNanos = now;
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getAverageElapsedNanos() {
+        long count = total.sum();
+        return count == 0 ? 0 : totalElapsed.sum() / count;
+    }
+
+    /**
+     * ewma latency decayed by the idle time since last response, so a penalized provider recovers
+     * gradually even if it is not selected.
+     * @return ewma latency in nanoseconds.
+     */
+    public synchronized double getEwmaNanos() {
+        long idle = Math.max(System.nanoTime() - lastUpdateNanos, 0);
+        return ewmaNanos * Math.exp(-idle / DECAY_TIME_NANOS);
+    }
+
+}
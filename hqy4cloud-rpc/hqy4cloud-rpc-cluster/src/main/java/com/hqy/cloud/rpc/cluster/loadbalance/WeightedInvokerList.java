@@ -0,0 +1,118 @@
+package com.hqy.cloud.rpc.cluster.loadbalance;
+
+import com.hqy.cloud.rpc.Invoker;
+import com.hqy.cloud.rpc.model.RPCModel;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static com.hqy.cloud.rpc.CommonConstants.DEFAULT_WARMUP;
+import static com.hqy.cloud.rpc.CommonConstants.WARMUP;
+
+/**
+ * WeightedInvokerList.
+ * immutable invoker list with the load balance weight parameters resolved once,
+ * {@link AbstractLoadBalance} reads weights by index instead of parsing the rpc model parameters on every call.
+ * after all invokers finish warming up the weights are fixed, the prefix sums of weights are also precomputed.
+ * @see com.hqy.cloud.rpc.cluster.directory.DirectorySnapshot
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 21:40
+ */
+public final class WeightedInvokerList<T> extends AbstractList<Invoker<T>> implements RandomAccess {
+
+    private final Invoker<T>[] invokers;
+    private final int[] weights;
+    private final long[] startTimestamps;
+    private final int[] warmups;
+
+    /**
+     * after this timestamp all invokers finish warming up.
+     */
+    private final long warmupDeadline;
+    private final boolean weighted;
+    private final boolean sameWeight;
+    private final int[] prefixWeights;
+    private final int totalWeight;
+
+    @SuppressWarnings("unchecked")
+    public WeightedInvokerList(List<Invoker<T>> invokers) {
+        int size = invokers.size();
+        this.invokers = invokers.toArray(new Invoker[0]);
+        this.weights = new int[size];
+        this.startTimestamps = new long[size];
+        this.warmups = new int[size];
+        this.prefixWeights = new int[size];
+        long deadline = 0;
+        boolean same = true;
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            RPCModel rpcModel = this.invokers[i].getModel();
+            weights[i] = rpcModel.getWeight();
+            startTimestamps[i] = rpcModel.serverStartTimestamp();
+            warmups[i] = rpcModel.getParameter(WARMUP, DEFAULT_WARMUP);
+            if (weights[i] > 0 && startTimestamps[i] > 0) {
+                deadline = Math.max(deadline, startTimestamps[i] + warmups[i]);
+            }
+            int weight = Math.max(weights[i], 0);
+            total += weight;
+            prefixWeights[i] = total;
+            if (same && weight != Math.max(weights[0], 0)) {
+                same = false;
+            }
+        }
+        this.warmupDeadline = deadline;
+        this.weighted = size > 0 && weights[0] != 0;
+        this.sameWeight = same;
+        this.totalWeight = total;
+    }
+
+    @Override
+    public Invoker<T> get(int index) {
+        return invokers[index];
+    }
+
+    @Override
+    public int size() {
+        return invokers.length;
+    }
+
+    /**
+     * weight of the invoker which takes warmup time into account.
+     * @param index index of invoker.
+     * @param now   current timestamp.
+     * @return      weight.
+     */
+    public int getWeight(int index, long now) {
+        return AbstractLoadBalance.warmupWeight(weights[index], startTimestamps[index], warmups[index], now);
+    }
+
+    /**
+     * whether all invokers finish warming up, then weights, prefix sums are fixed.
+     * @param now current timestamp.
+     * @return    warmed up or not.
+     */
+    public boolean isWarmedUp(long now) {
+        return now >= warmupDeadline;
+    }
+
+    /**
+     * the weight of the first invoker is not 0.
+     */
+    public boolean isWeighted() {
+        return weighted;
+    }
+
+    public boolean isSameWeight() {
+        return sameWeight;
+    }
+
+    public int[] getPrefixWeights() {
+        return prefixWeights;
+    }
+
+    public int getTotalWeight() {
+        return totalWeight;
+    }
+}
@@ -29,6 +29,17 @@ public interface Router<T> extends Comparable<Router<T>> {
      */
     RouterResult<Invoker<T>> route(List<Invoker<T>> invokers, RPCModel rpcModel);
 
+    /**
+     * route conditional invokers with the routing index of the directory snapshot.
+     * @param invokers          invokers
+     * @param rpcModel          rpcContext
+     * @param index             routing index, null if the index can not answer for the invokers.
+     * @return                  router result
+     */
+    default RouterResult<Invoker<T>> route(List<Invoker<T>> invokers, RPCModel rpcModel, RouterIndex<T> index) {
+        return route(invokers, rpcModel);
+    }
+
 
     /**
      * Router's priority, used to sort routers.
@@ -78,12 +78,20 @@ public class RouterChain<T> {
         return routers;
     }
 
-    public List<Invoker<T>> route(RPCModel rpcModel, List<Invoker<T>> availableInvokers) {
+    /**
+     * route with the routing index of the invokers.
+     * @param rpcModel          consumer rpc model
+     * @param availableInvokers available invokers, routers never modify the input list.
+     * @param routerIndex       routing index built from availableInvokers
+     * @return                  routed invokers
+     */
+    public List<Invoker<T>> route(RPCModel rpcModel, List<Invoker<T>> availableInvokers, RouterIndex<T> routerIndex) {
 
-        List<Invoker<T>> commonRouterResult = new ArrayList<>(availableInvokers);
+        List<Invoker<T>> commonRouterResult = availableInvokers;
 
         for (Router<T> router : routers) {
-            RouterResult<Invoker<T>> routerResult = router.route(commonRouterResult, rpcModel);
+            RouterResult<Invoker<T>> routerResult = router.route(commonRouterResult, rpcModel,
+                    routerIndex.covers(commonRouterResult) ? routerIndex : null);
             commonRouterResult = routerResult.getResult();
             if (CollectionUtils.isEmpty(commonRouterResult) && shouldFailFast) {
                 printRouterSnapshot(rpcModel, availableInvokers);
@@ -115,7 +123,8 @@ public class RouterChain<T> {
      * Notify whenever addresses in registry change.
      */
     public void setInvokers(List<Invoker<T>> invokers) {
-        this.invokers = (invokers == null ? Collections.emptyList() : invokers);
+        List<Invoker<T>> newInvokers = (invokers == null ? Collections.emptyList() : invokers);
+        this.invokers = newInvokers;
         routers.forEach(router -> router.notify(this.invokers));
     }
 
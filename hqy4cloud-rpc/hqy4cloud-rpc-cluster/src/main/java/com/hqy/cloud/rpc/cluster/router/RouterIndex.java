@@ -0,0 +1,118 @@
+package com.hqy.cloud.rpc.cluster.router;
+
+import com.hqy.cloud.common.base.lang.StringConstants;
+import com.hqy.cloud.rpc.Invoker;
+import com.hqy.cloud.rpc.model.RPCModel;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RouterIndex.
+ * immutable routing index of the valid invoker list, built together with each
+ * {@link com.hqy.cloud.rpc.cluster.directory.DirectorySnapshot} whenever the invoker list changes,
+ * the builtin routers lookup invokers by hash factor, pub mode and host in O(1) instead of filtering the invoker list on every call.
+ * the index is bound to the exact list it was built from, other lists are routed without index.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 21:20
+ */
+public final class RouterIndex<T> {
+
+    private final List<Invoker<T>> source;
+    private final int size;
+    private final Map<String, Invoker<T>> hashFactorInvokers;
+    private final Map<Integer, List<Invoker<T>>> pubModeInvokers;
+    private final Map<String, List<Invoker<T>>> hostInvokers;
+    private final Map<String, List<Invoker<T>>> pubModeHostInvokers;
+
+    private RouterIndex(List<Invoker<T>> invokers) {
+        this.source = invokers;
+        this.size = invokers.size();
+        Map<String, Invoker<T>> hashFactors = new HashMap<>(invokers.size());
+        Map<Integer, List<Invoker<T>>> pubModes = new HashMap<>(4);
+        Map<String, List<Invoker<T>>> hosts = new HashMap<>(invokers.size());
+        Map<String, List<Invoker<T>>> pubModeHosts = new HashMap<>(invokers.size());
+        for (Invoker<T> invoker : invokers) {
+            RPCModel model = invoker.getModel();
+            String hashFactor = model.getHashFactor();
+            if (isValidHashFactor(hashFactor)) {
+                hashFactors.putIfAbsent(hashFactor, invoker);
+            }
+            int pubMode = model.getPubMode();
+            pubModes.computeIfAbsent(pubMode, key -> new ArrayList<>()).add(invoker);
+            String host = model.getServerHost();
+            if (host != null) {
+                hosts.computeIfAbsent(host, key -> new ArrayList<>()).add(invoker);
+                pubModeHosts.computeIfAbsent(pubModeHostKey(pubMode, host), key -> new ArrayList<>()).add(invoker);
+            }
+        }
+        this.hashFactorInvokers = hashFactors;
+        this.pubModeInvokers = unmodifiable(pubModes);
+        this.hostInvokers = unmodifiable(hosts);
+        this.pubModeHostInvokers = unmodifiable(pubModeHosts);
+    }
+
+    public static <T> RouterIndex<T> build(List<Invoker<T>> invokers) {
+        return new RouterIndex<>(invokers == null ? Collections.emptyList() : invokers);
+    }
+
+    /**
+     * whether the index can answer for the invokers.
+     * only the exact list instance the index was built from is covered,
+     * a list with the same size may still hold different invokers.
+     * @param invokers routed invokers.
+     * @return         index usable or not.
+     */
+    public boolean covers(List<Invoker<T>> invokers) {
+        return size > 0 && invokers == source;
+    }
+
+    /**
+     * a valid hash factor is {@code host:port}.
+     * @param hashFactor hash factor.
+     * @return           valid or not.
+     */
+    public static boolean isValidHashFactor(String hashFactor) {
+        if (StringUtils.isEmpty(hashFactor)) {
+            return false;
+        }
+        int index = hashFactor.lastIndexOf(StringConstants.Symbol.COLON);
+        return index > 0 && index == hashFactor.indexOf(StringConstants.Symbol.COLON)
+                && StringUtils.isNumeric(hashFactor.substring(index + 1));
+    }
+
+    public Invoker<T> getByHashFactor(String hashFactor) {
+        return hashFactorInvokers.get(hashFactor);
+    }
+
+    public List<Invoker<T>> getByPubMode(int pubMode) {
+        return pubModeInvokers.getOrDefault(pubMode, Collections.emptyList());
+    }
+
+    public List<Invoker<T>> getByHost(String host) {
+        return host == null ? Collections.emptyList() : hostInvokers.getOrDefault(host, Collections.emptyList());
+    }
+
+    public List<Invoker<T>> getByPubModeAndHost(int pubMode, String host) {
+        return host == null ? Collections.emptyList() : pubModeHostInvokers.getOrDefault(pubModeHostKey(pubMode, host), Collections.emptyList());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static String pubModeHostKey(int pubMode, String host) {
+        return pubMode + StringConstants.Symbol.AT + host;
+    }
+
+    private static <K, T> Map<K, List<Invoker<T>>> unmodifiable(Map<K, List<Invoker<T>>> map) {
+        map.replaceAll((key, list) -> Collections.unmodifiableList(list));
+        return map;
+    }
+
+}
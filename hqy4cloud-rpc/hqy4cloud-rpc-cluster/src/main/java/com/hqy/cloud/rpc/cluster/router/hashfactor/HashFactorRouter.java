@@ -3,6 +3,7 @@ package com.hqy.cloud.rpc.cluster.router.hashfactor;
 import com.hqy.cloud.common.base.lang.StringConstants;
 import com.hqy.cloud.rpc.Invoker;
 import com.hqy.cloud.rpc.cluster.router.AbstractRouter;
+import com.hqy.cloud.rpc.cluster.router.RouterIndex;
 import com.hqy.cloud.rpc.cluster.router.RouterResult;
 import com.hqy.cloud.rpc.model.RPCModel;
 import org.apache.commons.lang3.StringUtils;
@@ -33,6 +34,11 @@ public class HashFactorRouter<T> extends AbstractRouter<T> {
 
     @Override
     public RouterResult<Invoker<T>> route(List<Invoker<T>> invokers, RPCModel rpcModel) {
+        return route(invokers, rpcModel, null);
+    }
+
+    @Override
+    public RouterResult<Invoker<T>> route(List<Invoker<T>> invokers, RPCModel rpcModel, RouterIndex<T> index) {
         String hashFactor = rpcModel.getHashFactor();
         boolean hashFactorRoute = StringUtils.isNotEmpty(hashFactor) && !hashFactor.equals(StringConstants.DEFAULT);
         if (log.isDebugEnabled()) {
@@ -44,25 +50,12 @@ public class HashFactorRouter<T> extends AbstractRouter<T> {
         }
 
         try {
-            String[] hashFactorSplit = hashFactor.split(StringConstants.Symbol.COLON);
-            boolean checkHashFactorAvailable = checkHashFactorAvailable(hashFactorSplit);
-            if (checkHashFactorAvailable) {
+            if (!RouterIndex.isValidHashFactor(hashFactor)) {
                 //hashFactor disabled, break router.
                 return new RouterResult<>(new ArrayList<>(), false);
             }
 
-            Invoker<T> chooseInvoker = null;
-            for (Invoker<T> invoker : invokers) {
-                String invokerHashFactor = invoker.getModel().getHashFactor();
-                if (!checkHashFactorAvailable(invokerHashFactor.split(StringConstants.Symbol.COLON))) {
-                    continue;
-                }
-                if (invokerHashFactor.equals(hashFactor)) {
-                    chooseInvoker = invoker;
-                    break;
-                }
-            }
-
+            Invoker<T> chooseInvoker = index != null ? index.getByHashFactor(hashFactor) : findInvoker(invokers, hashFactor);
             if (chooseInvoker != null && chooseInvoker.isAvailable()) {
                 return new RouterResult<>(Collections.singletonList(chooseInvoker), false);
             }
@@ -73,7 +66,12 @@ public class HashFactorRouter<T> extends AbstractRouter<T> {
         return new RouterResult<>(new ArrayList<>(), false);
     }
 
-    private boolean checkHashFactorAvailable(String[] hashFactorSplit) {
-        return hashFactorSplit.length == 2 && hashFactorSplit[1] != null && StringUtils.isNumeric(hashFactorSplit[1]);
+    private Invoker<T> findInvoker(List<Invoker<T>> invokers, String hashFactor) {
+        for (Invoker<T> invoker : invokers) {
+            if (hashFactor.equals(invoker.getModel().getHashFactor())) {
+                return invoker;
+            }
+        }
+        return null;
     }
 }
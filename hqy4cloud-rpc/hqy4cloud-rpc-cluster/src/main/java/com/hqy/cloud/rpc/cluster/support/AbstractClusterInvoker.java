@@ -7,7 +7,9 @@ import com.hqy.cloud.rpc.Result;
 import com.hqy.cloud.rpc.cluster.ClusterInvoker;
 import com.hqy.cloud.rpc.cluster.directory.Directory;
 import com.hqy.cloud.rpc.cluster.loadbalance.LoadBalance;
+import com.hqy.cloud.rpc.cluster.loadbalance.LoadBalanceFactory;
 import com.hqy.cloud.rpc.cluster.loadbalance.RandomLoadBalance;
+import com.hqy.cloud.rpc.cluster.loadbalance.RpcStatus;
 import com.hqy.cloud.rpc.model.RPCModel;
 import com.hqy.cloud.util.AssertUtil;
 import com.hqy.cloud.util.IpUtil;
@@ -18,6 +20,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -164,7 +167,7 @@ public abstract class AbstractClusterInvoker<T> implements ClusterInvoker<T> {
             return tInvoker;
         }
 
-        Invoker<T> invoker = loadBalance.select(invokers, getModel()  );
+        Invoker<T> invoker = loadBalance.select(invokers, getModel(), invocation);
 
         //If the `invoker` is in the  `selected` or invoker is unavailable && availablecheck is true, reselect.
         boolean isSelected = selected != null && selected.contains(invoker);
@@ -252,7 +255,7 @@ public abstract class AbstractClusterInvoker<T> implements ClusterInvoker<T> {
 
         // 2. Use loadBalance to select one (all the reselectInvokers are available)
         if (!reselectInvokers.isEmpty()) {
-            return loadBalance.select(reselectInvokers, getModel());
+            return loadBalance.select(reselectInvokers, getModel(), invocation);
         }
 
         // 3. reselectInvokers is empty. Unable to find at least one available invoker.
@@ -270,7 +273,7 @@ public abstract class AbstractClusterInvoker<T> implements ClusterInvoker<T> {
         // 4. If reselectInvokers is not empty after re-check.
         //    Pick an available invoker using loadBalance policy
         if (!reselectInvokers.isEmpty()) {
-            return loadBalance.select(reselectInvokers, getModel());
+            return loadBalance.select(reselectInvokers, getModel(), invocation);
         }
 
         // 5. No invoker match, return null.
@@ -316,6 +319,34 @@ public abstract class AbstractClusterInvoker<T> implements ClusterInvoker<T> {
 
     protected abstract Object doInvoke(Invocation invocation, List<Invoker<T>> invokers, LoadBalance loadBalance) throws RpcException;
 
+    /**
+     * invoke the selected invoker and record its in-flight requests and response time to {@link RpcStatus},
+     * which feeds the adaptive load balances.
+     * @param invoker     selected invoker.
+     * @param invocation  invocation.
+     * @return            rpc result.
+     * @throws RpcException exception.
+     */
+    protected Object invokeWithStatus(Invoker<T> invoker, Invocation invocation) throws RpcException {
+        RpcStatus.beginCount(invoker);
+        long start = System.nanoTime();
+        boolean async = false;
+        boolean succeeded = false;
+        try {
+            Object result = invoker.invoke(invocation);
+            if (result instanceof CompletableFuture) {
+                async = true;
+                ((CompletableFuture<?>) result).whenComplete((r, t) -> RpcStatus.endCount(invoker, System.nanoTime() - start, t == null));
+            }
+            succeeded = true;
+            return result;
+        } finally {
+            if (!async) {
+                RpcStatus.endCount(invoker, System.nanoTime() - start, succeeded);
+            }
+        }
+    }
+
     protected void checkInvokers(List<Invoker<T>> invokers, Invocation invocation) {
         if (CollectionUtils.isEmpty(invokers)) {
             throw new RpcException(RpcException.NO_INVOKER_AVAILABLE_AFTER_FILTER, "Failed to invoke the method "
@@ -329,7 +360,7 @@ public abstract class AbstractClusterInvoker<T> implements ClusterInvoker<T> {
 
     /**
      * Init LoadBalance.
-     * if invokers is not empty, init from the first invoke's url and invocation
+     * if invokers is not empty, init from the consumer model parameter {@code loadBalance}
      * if invokes is empty, init a default LoadBalance(RandomLoadBalance)
      * @param invokers    invokers
      * @param invocation  invocation.
@@ -337,9 +368,9 @@ public abstract class AbstractClusterInvoker<T> implements ClusterInvoker<T> {
      */
     protected LoadBalance initLoadBalance(List<Invoker<T>> invokers, Invocation invocation) {
         if (CollectionUtils.isNotEmpty(invokers)) {
-            //TODO
+            return LoadBalanceFactory.getLoadBalance(getModel().getParameter(RPC_CLUSTER_LOAD_BALANCE, RandomLoadBalance.NAME));
         }
-        return new RandomLoadBalance();
+        return LoadBalanceFactory.getLoadBalance(RandomLoadBalance.NAME);
     }
 
     protected List<Invoker<T>> list(RPCModel rpcModel, String hashFactor) throws RpcException {
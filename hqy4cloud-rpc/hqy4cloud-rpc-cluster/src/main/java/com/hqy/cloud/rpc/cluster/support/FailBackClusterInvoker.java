@@ -75,7 +75,7 @@ public class FailBackClusterInvoker<T> extends AbstractClusterInvoker<T> {
         try {
             checkInvokers(invokers, invocation);
             invoker = select(loadBalance, invocation, invokers, null);
-            return invoker.invoke(invocation);
+            return invokeWithStatus(invoker, invocation);
         } catch (Throwable t) {
             log.error("FailBack to invoke method " + invocation.getMethodName() + ", wait for retry in background. Ignored exception: "
                     + t.getMessage() + ", ", t);
@@ -137,7 +137,7 @@ public class FailBackClusterInvoker<T> extends AbstractClusterInvoker<T> {
                         ". The total will retry " + retries + " times, the current is the " + retriedTimes + " retry");
                 Invoker<T> retryInvoker = select(loadbalance, invocation, invokers, Collections.singletonList(lastInvoker));
                 lastInvoker = retryInvoker;
-                retryInvoker.invoke(invocation);
+                invokeWithStatus(retryInvoker, invocation);
             } catch (Throwable t) {
                 log.error("Failed retry to invoke method " + invocation.getMethodName() + ", waiting again.", t);
                 if ((++retriedTimes) >= retries) {
@@ -28,7 +28,7 @@ public class FailFastClusterInvoker<T> extends AbstractClusterInvoker<T> {
         checkInvokers(invokers, invocation);
         Invoker<T> invoker = select(loadBalance, invocation, invokers, null);
         try {
-            return invoker.invoke(invocation);
+            return invokeWithStatus(invoker, invocation);
         } catch (Throwable e) {
             // biz exception.
             if (e instanceof RpcException && ((RpcException) e).isBiz()) {
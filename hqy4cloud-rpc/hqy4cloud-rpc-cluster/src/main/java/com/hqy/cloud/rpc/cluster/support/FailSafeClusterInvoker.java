@@ -31,7 +31,7 @@ public class FailSafeClusterInvoker<T> extends AbstractClusterInvoker<T> {
         try {
             checkInvokers(invokers, invocation);
             Invoker<T> invoker = select(loadBalance, invocation, invokers, null);
-            return invoker.invoke(invocation);
+            return invokeWithStatus(invoker, invocation);
         } catch (Throwable e) {
             log.error("Failsafe ignore exception: " + e.getMessage(), e);
             return null;
@@ -56,7 +56,7 @@ public class FailoverClusterInvoker<T> extends AbstractClusterInvoker<T> {
             invoked.add(invoker);
             boolean success = false;
             try {
-                Object result = invoker.invoke(invocation);
+                Object result = invokeWithStatus(invoker, invocation);
                 if (le != null && log.isWarnEnabled()) {
                     log.warn("Although retry the method " + methodName
                             + " in the service " + getInterface().getName()
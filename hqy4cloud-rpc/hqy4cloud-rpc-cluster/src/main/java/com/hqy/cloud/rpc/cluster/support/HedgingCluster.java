@@ -0,0 +1,19 @@
+package com.hqy.cloud.rpc.cluster.support;
+
+import com.hqy.cloud.rpc.Invoker;
+import com.hqy.cloud.rpc.cluster.AbstractCluster;
+import com.hqy.cloud.rpc.cluster.directory.Directory;
+
+/**
+ * {@link HedgingClusterInvoker}
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 18:30
+ */
+public class HedgingCluster extends AbstractCluster {
+
+    @Override
+    public <T> Invoker<T> doJoin(Directory<T> directory, String hashFactor) {
+        return new HedgingClusterInvoker<>(directory, hashFactor);
+    }
+}
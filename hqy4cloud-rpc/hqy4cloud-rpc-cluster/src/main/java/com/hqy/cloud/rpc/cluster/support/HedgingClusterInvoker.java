@@ -0,0 +1,220 @@
+package com.hqy.cloud.rpc.cluster.support;
+
+import cn.hutool.core.map.MapUtil;
+import com.hqy.cloud.common.base.lang.exception.RpcException;
+import com.hqy.cloud.rpc.Invocation;
+import com.hqy.cloud.rpc.InvokeMode;
+import com.hqy.cloud.rpc.Invoker;
+import com.hqy.cloud.rpc.cluster.directory.Directory;
+import com.hqy.cloud.rpc.cluster.loadbalance.LoadBalance;
+import com.hqy.cloud.rpc.core.RPCContext;
+import com.hqy.cloud.util.IpUtil;
+import com.hqy.cloud.util.thread.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static com.hqy.cloud.rpc.CommonConstants.*;
+
+/**
+ * Hedged requests with an adaptive retry budget.
+ * When the primary request is slower than the configured latency percentile of the method, send a backup request
+ * to another provider and use whichever succeeds first. Failed requests are retried on other providers.
+ * Both backup requests and retries withdraw tokens from a {@link RetryBudget}, so they never exceed a fixed share of
+ * the original traffic and can not amplify load when the providers are overloaded.
+ * <p>
+ * <b>Only safe for idempotent methods</b>: a backup request or a retry may execute the same request on several providers,
+ * the slower request is not cancelled. Select {@link com.hqy.cloud.rpc.cluster.ClusterMode#HEDGING} only for services
+ * whose methods can be executed more than once without side effects.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 18:30
+ */
+public class HedgingClusterInvoker<T> extends AbstractClusterInvoker<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingClusterInvoker.class);
+
+    private static final int MAX_HEDGING_THREADS = 256;
+
+    /**
+     * 同步请求在该线程池中执行, 调用线程等待对冲延迟后决定是否发送备份请求.
+     * 线程池满时退化为在调用线程中执行, 不做对冲.
+     */
+    private static final ThreadPoolExecutor HEDGING_EXECUTOR = new ThreadPoolExecutor(0, MAX_HEDGING_THREADS, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), new NamedThreadFactory("hedging-cluster", true));
+
+    /**
+     * Number of retries obtained from the configuration, don't contain the first invoke.
+     */
+    private final int retries;
+
+    private final int hedgePercentile;
+
+    private final long hedgeMinDelayMicros;
+
+    private final RetryBudget retryBudget;
+
+    private final Map<String, MethodLatency> methodLatencies = MapUtil.newConcurrentHashMap();
+
+    public HedgingClusterInvoker(Directory<T> directory, String hashFactor) {
+        super(directory, hashFactor);
+        this.retries = Math.max(getModel().getParameter(RPC_CLUSTER_RETRIES_TIMES, DEFAULT_HEDGING_RETRIES), 0);
+        int percentile = getModel().getParameter(RPC_CLUSTER_HEDGE_PERCENTILE, DEFAULT_HEDGE_PERCENTILE);
+        this.hedgePercentile = percentile <= 0 || percentile >= 100 ? DEFAULT_HEDGE_PERCENTILE : percentile;
+        this.hedgeMinDelayMicros = TimeUnit.MILLISECONDS.toMicros(Math.max(getModel().getParameter(RPC_CLUSTER_HEDGE_MIN_DELAY, DEFAULT_HEDGE_MIN_DELAY), 0));
+        this.retryBudget = new RetryBudget(getModel().getParameter(RPC_CLUSTER_RETRY_BUDGET_PERCENT, DEFAULT_RETRY_BUDGET_PERCENT),
+                getModel().getParameter(RPC_CLUSTER_RETRY_BUDGET_MAX_TOKENS, DEFAULT_RETRY_BUDGET_MAX_TOKENS));
+    }
+
+    @Override
+    protected Object doInvoke(Invocation invocation, List<Invoker<T>> invokers, LoadBalance loadBalance) throws RpcException {
+        checkInvokers(invokers, invocation);
+        String methodName = invocation.getMethodName();
+        MethodLatency latency = methodLatencies.computeIfAbsent(methodName, k -> new MethodLatency(hedgePercentile));
+        if (RPCContext.isGlobalTransactionalMethod(methodName)) {
+            // global transaction context is bound to the current thread, invoke once, never retried so no deposit.
+            return invoke(select(loadBalance, invocation, invokers, null), invocation, latency);
+        }
+        retryBudget.deposit();
+        // invoked invokers.
+        List<Invoker<T>> invoked = new ArrayList<>(retries + 2);
+        // last exception.
+        RpcException le;
+        Invoker<T> invoker = select(loadBalance, invocation, invokers, invoked);
+        invoked.add(invoker);
+        try {
+            long hedgeDelay = invocation.getInvokeMode() == InvokeMode.SYNC && invokers.size() > 1 ? latency.getPercentileMicros() : -1;
+            if (hedgeDelay < 0) {
+                return invoke(invoker, invocation, latency);
+            }
+            return invokeHedged(invoker, invocation, invokers, invoked, loadBalance, latency, Math.max(hedgeDelay, hedgeMinDelayMicros));
+        } catch (Throwable e) {
+            le = checkBizException(e);
+        }
+
+        for (int i = 0; i < retries; i++) {
+            if (!retryBudget.tryWithdraw()) {
+                log.warn("Retry budget of the service " + getInterface().getName() + " is exhausted, give up retrying the method " + methodName + ".");
+                break;
+            }
+            checkWhetherDestroyed();
+            List<Invoker<T>> copyInvokers = list(getModel(), getHashFactor());
+            checkInvokers(copyInvokers, invocation);
+            invoker = select(loadBalance, invocation, copyInvokers, invoked);
+            invoked.add(invoker);
+            try {
+                return invoke(invoker, invocation, latency);
+            } catch (Throwable e) {
+                le = checkBizException(e);
+            }
+        }
+
+        throw new RpcException(le.getCode(), "Failed to invoke the method "
+                + methodName + " in the service " + getInterface().getName()
+                + ". Tried " + invoked.size() + " times of the providers (" + invoked.size() + "/" + invokers.size() + ")"
+                + " from the registry " + directory.getConsumerModel().getRegistryAddress()
+                + " on the consumer " + IpUtil.getHostAddress()
+                + ". Last error is: " + le.getMessage(), le);
+    }
+
+    private Object invokeHedged(Invoker<T> primary, Invocation invocation, List<Invoker<T>> invokers, List<Invoker<T>> invoked,
+                                LoadBalance loadBalance, MethodLatency latency, long hedgeDelayMicros) throws Throwable {
+        CompletableFuture<Object> primaryFuture;
+        try {
+            primaryFuture = CompletableFuture.supplyAsync(() -> invoke(primary, invocation, latency), HEDGING_EXECUTOR);
+        } catch (RejectedExecutionException e) {
+            return invoke(primary, invocation, latency);
+        }
+        try {
+            return primaryFuture.get(hedgeDelayMicros, TimeUnit.MICROSECONDS);
+        } catch (TimeoutException e) {
+            // slower than the percentile, try to send a backup request.
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RpcException("Interrupted while waiting for the primary request.", e);
+        }
+
+        Invoker<T> backup = select(loadBalance, invocation, invokers, invoked);
+        if (backup == null || invoked.contains(backup) || !retryBudget.tryWithdraw()) {
+            return await(primaryFuture);
+        }
+        invoked.add(backup);
+        CompletableFuture<Object> backupFuture;
+        try {
+            backupFuture = CompletableFuture.supplyAsync(() -> invoke(backup, invocation, latency), HEDGING_EXECUTOR);
+        } catch (RejectedExecutionException e) {
+            return await(primaryFuture);
+        }
+        // the slower request is not cancelled, interrupting may break the pooled connection.
+        return await(firstSucceeded(primaryFuture, backupFuture));
+    }
+
+    private Object invoke(Invoker<T> invoker, Invocation invocation, MethodLatency latency) {
+        long start = System.nanoTime();
+        Object result = invokeWithStatus(invoker, invocation);
+        if (!(result instanceof CompletableFuture)) {
+            latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+        return result;
+    }
+
+    private static Object await(CompletableFuture<Object> future) throws Throwable {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RpcException("Interrupted while waiting for the hedged requests.", e);
+        }
+    }
+
+    /**
+     * complete with the first successful result, or the biz exception, or the last exception if all failed.
+     */
+    private static CompletableFuture<Object> firstSucceeded(CompletableFuture<Object> primary, CompletableFuture<Object> backup) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        BiConsumer<Object, Throwable> action = (r, t) -> {
+            if (t == null) {
+                result.complete(r);
+                return;
+            }
+            Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+            boolean biz = cause instanceof RpcException && ((RpcException) cause).isBiz();
+            if (biz || pending.decrementAndGet() == 0) {
+                result.completeExceptionally(cause);
+            }
+        };
+        primary.whenComplete(action);
+        backup.whenComplete(action);
+        return result;
+    }
+
+    private RpcException checkBizException(Throwable e) {
+        if (e instanceof RpcException) {
+            // biz exception.
+            if (((RpcException) e).isBiz()) {
+                throw (RpcException) e;
+            }
+            return (RpcException) e;
+        }
+        return new RpcException(e.getMessage(), e);
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.hqy.cloud.rpc.cluster.support;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 方法的响应时间分布, 见 {@link HedgingClusterInvoker}.
+ * 对数分桶的直方图, 每个时间窗口结束时计算一次分位数, 窗口内样本数不足时延长窗口.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 18:30
+ */
+class MethodLatency {
+
+    static final long WINDOW_MILLIS = 10 * 1000;
+    static final long MAX_WINDOW_MILLIS = 60 * 1000;
+    static final long MIN_SAMPLES = 50;
+
+    /**
+     * 0-15us 每微秒一个桶, 之后每个2的幂次分为8个桶.
+     */
+    private static final int LINEAR_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int MAX_EXPONENT = 36;
+    static final int BUCKETS = LINEAR_BUCKETS + (MAX_EXPONENT - 4) * (1 << SUB_BUCKET_BITS);
+
+    private final int percentile;
+    private volatile AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private volatile long windowStart = System.currentTimeMillis();
+    /**
+     * percentile of the last window, -1 means not enough samples.
+     */
+    private volatile long percentileMicros = -1;
+
+    MethodLatency(int percentile) {
+        this.percentile = percentile;
+    }
+
+    long getPercentileMicros() {
+        return percentileMicros;
+    }
+
+    void record(long micros) {
+        record(micros, System.currentTimeMillis());
+    }
+
+    void record(long micros, long now) {
+        buckets.incrementAndGet(indexOf(micros));
+        if (now - windowStart >= WINDOW_MILLIS) {
+            rotate(now);
+        }
+    }
+
+    private synchronized void rotate(long now) {
+        long elapsed = now - windowStart;
+        if (elapsed < WINDOW_MILLIS) {
+            return;
+        }
+        AtomicLongArray current = buckets;
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += current.get(i);
+        }
+        if (count < MIN_SAMPLES && elapsed < MAX_WINDOW_MILLIS) {
+            return;
+        }
+        percentileMicros = count < MIN_SAMPLES ? -1 : percentileOf(current, count);
+        buckets = new AtomicLongArray(BUCKETS);
+        windowStart = now;
+    }
+
+    private long percentileOf(AtomicLongArray window, long count) {
+        long target = (count * percentile + 99) / 100;
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += window.get(i);
+            if (cumulative >= target) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(BUCKETS - 1);
+    }
+
+    static int indexOf(long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return (int) Math.max(micros, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+        return LINEAR_BUCKETS + ((exponent - 4) << SUB_BUCKET_BITS) + sub;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index + 1;
+        }
+        int exponent = ((index - LINEAR_BUCKETS) >> SUB_BUCKET_BITS) + 4;
+        int sub = (index - LINEAR_BUCKETS) & ((1 << SUB_BUCKET_BITS) - 1);
+        return (1L << exponent) + ((long) (sub + 1) << (exponent - SUB_BUCKET_BITS));
+    }
+
+}
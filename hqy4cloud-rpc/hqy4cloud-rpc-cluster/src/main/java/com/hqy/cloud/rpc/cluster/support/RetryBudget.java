@@ -0,0 +1,69 @@
+package com.hqy.cloud.rpc.cluster.support;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 令牌桶重试预算(retry budget).
+ * 每个原始请求向桶中存入 percent/100 个令牌, 每次重试或对冲请求取走一个令牌, 桶满后不再增加.
+ * 因此长期来看重试流量不超过原始流量的 percent%, 服务提供者整体故障时重试不会放大流量.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 18:20
+ */
+public class RetryBudget {
+
+    /**
+     * 一个令牌对应的定点数单位.
+     */
+    private static final long UNIT = 100;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * @param percent   重试流量占原始流量的百分比
+     * @param maxTokens 桶容量, 即允许的最大突发重试数
+     */
+    public RetryBudget(int percent, int maxTokens) {
+        this.deposit = Math.max(percent, 0) * UNIT / 100;
+        this.capacity = Math.max(maxTokens, 1) * UNIT;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    /**
+     * 记录一次原始请求.
+     */
+    public void deposit() {
+        if (deposit == 0) {
+            return;
+        }
+        long current;
+        do {
+            current = balance.get();
+            if (current >= capacity) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(current + deposit, capacity)));
+    }
+
+    /**
+     * 尝试取走一个令牌.
+     * @return 是否允许重试
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < UNIT) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - UNIT));
+        return true;
+    }
+
+    public long getAvailableTokens() {
+        return balance.get() / UNIT;
+    }
+
+}
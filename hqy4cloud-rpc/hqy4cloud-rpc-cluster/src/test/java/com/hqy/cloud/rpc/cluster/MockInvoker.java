@@ -0,0 +1,107 @@
+package com.hqy.cloud.rpc.cluster;
+
+import com.hqy.cloud.common.base.lang.exception.RpcException;
+import com.hqy.cloud.rpc.CommonConstants;
+import com.hqy.cloud.rpc.Invocation;
+import com.hqy.cloud.rpc.Invoker;
+import com.hqy.cloud.rpc.model.RPCModel;
+import com.hqy.cloud.rpc.model.RPCServerAddress;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 测试用的服务提供者, 只携带路由和负载均衡需要的 {@link RPCModel} 参数.
+ * 默认服务很早之前就已启动, 即已完成预热.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/19 00:10
+ */
+public class MockInvoker<T> implements Invoker<T> {
+
+    private final Class<T> type;
+    private final RPCModel model;
+
+    private MockInvoker(Class<T> type, RPCModel model) {
+        this.type = type;
+        this.model = model;
+    }
+
+    public static <T> Builder<T> builder(Class<T> type, String host, int port) {
+        return new Builder<>(type, host, port);
+    }
+
+    @Override
+    public Class<T> getInterface() {
+        return type;
+    }
+
+    @Override
+    public Object invoke(Invocation invocation) throws RpcException {
+        return null;
+    }
+
+    @Override
+    public RPCModel getConsumerModel() {
+        return null;
+    }
+
+    @Override
+    public RPCModel getModel() {
+        return model;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    @Override
+    public String toString() {
+        return model.getServerHost() + ":" + model.getServerPort();
+    }
+
+    public static class Builder<T> {
+        private final Class<T> type;
+        private final String host;
+        private final int port;
+        private final Map<String, String> parameters = new HashMap<>(8);
+
+        private Builder(Class<T> type, String host, int port) {
+            this.type = type;
+            this.host = host;
+            this.port = port;
+            parameters.put(CommonConstants.START_SERVER_TIMESTAMP, "1");
+        }
+
+        public Builder<T> weight(int weight) {
+            parameters.put(CommonConstants.WEIGHT, String.valueOf(weight));
+            return this;
+        }
+
+        public Builder<T> pubMode(int pubMode) {
+            parameters.put(CommonConstants.PUB_MODE, String.valueOf(pubMode));
+            return this;
+        }
+
+        public Builder<T> hashFactor(String hashFactor) {
+            parameters.put(CommonConstants.HASH_FACTOR, hashFactor);
+            return this;
+        }
+
+        public Builder<T> startTimestamp(long timestamp) {
+            parameters.put(CommonConstants.START_SERVER_TIMESTAMP, String.valueOf(timestamp));
+            return this;
+        }
+
+        public MockInvoker<T> build() {
+            RPCServerAddress address = new RPCServerAddress(port, host, 1);
+            return new MockInvoker<>(type, new RPCModel(type.getName(), port, CommonConstants.DEFAULT_GROUP, null, address, new HashMap<>(parameters)));
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.hqy.cloud.rpc.cluster.loadbalance;
+
+import com.hqy.cloud.rpc.Invocation;
+import com.hqy.cloud.rpc.Invoker;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hqy.cloud.rpc.cluster.loadbalance.WeightedInvokerListTest.invokers;
+import static org.junit.Assert.*;
+
+/**
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/19 00:40
+ */
+public class RoundRobinLoadBalanceTest {
+
+    @Test
+    public void smoothSequence() {
+        List<Invoker<Runnable>> invokers = invokers(5, 1, 1);
+        RoundRobinLoadBalance loadBalance = new RoundRobinLoadBalance();
+        // 平滑加权轮询: 权重5:1:1时选择序列为 a a b a c a a, 不会连续选择5次a
+        assertEquals(Arrays.asList(0, 0, 1, 0, 2, 0, 0), select(loadBalance, invokers, null, 7));
+        assertEquals(Arrays.asList(0, 0, 1, 0, 2, 0, 0), select(loadBalance, invokers, null, 7));
+    }
+
+    @Test
+    public void distributionFollowsWeights() {
+        List<Invoker<Runnable>> invokers = new WeightedInvokerList<>(invokers(3, 2, 0, 5));
+        RoundRobinLoadBalance loadBalance = new RoundRobinLoadBalance();
+        int[] counts = new int[invokers.size()];
+        for (int index : select(loadBalance, invokers, null, 1000)) {
+            counts[index]++;
+        }
+        assertArrayEquals(new int[] {300, 200, 0, 500}, counts);
+    }
+
+    @Test
+    public void methodsAreBalancedIndependently() {
+        List<Invoker<Runnable>> invokers = invokers(2, 1);
+        RoundRobinLoadBalance loadBalance = new RoundRobinLoadBalance();
+        Invocation sayHello = invocation("sayHello");
+        Invocation sayBye = invocation("sayBye");
+        List<Integer> hello = new ArrayList<>();
+        List<Integer> bye = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            hello.addAll(select(loadBalance, invokers, sayHello, 1));
+            bye.addAll(select(loadBalance, invokers, sayBye, 1));
+        }
+        assertEquals(Arrays.asList(0, 1, 0), hello);
+        assertEquals(Arrays.asList(0, 1, 0), bye);
+    }
+
+    private static List<Integer> select(RoundRobinLoadBalance loadBalance, List<Invoker<Runnable>> invokers, Invocation invocation, int rounds) {
+        List<Integer> selected = new ArrayList<>(rounds);
+        for (int i = 0; i < rounds; i++) {
+            selected.add(invokers.indexOf(loadBalance.select(invokers, null, invocation)));
+        }
+        return selected;
+    }
+
+    private static Invocation invocation(String methodName) {
+        return (Invocation) Proxy.newProxyInstance(Invocation.class.getClassLoader(), new Class<?>[] {Invocation.class}, (proxy, method, args) -> {
+            if ("getMethodName".equals(method.getName())) {
+                return methodName;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.hqy.cloud.rpc.cluster.loadbalance;
+
+import com.hqy.cloud.rpc.Invoker;
+import com.hqy.cloud.rpc.cluster.MockInvoker;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/19 00:30
+ */
+public class WeightedInvokerListTest {
+
+    @Test
+    public void prefixWeights() {
+        WeightedInvokerList<Runnable> list = new WeightedInvokerList<>(invokers(0, 3, 0, 0, 2));
+        assertArrayEquals(new int[] {0, 3, 3, 3, 5}, list.getPrefixWeights());
+        assertEquals(5, list.getTotalWeight());
+        assertFalse(list.isSameWeight());
+        assertFalse(list.isWeighted());
+        assertTrue(list.isWarmedUp(System.currentTimeMillis()));
+    }
+
+    @Test
+    public void negativeWeightCountsAsZero() {
+        WeightedInvokerList<Runnable> list = new WeightedInvokerList<>(invokers(2, -1, 2));
+        assertArrayEquals(new int[] {2, 2, 4}, list.getPrefixWeights());
+        assertEquals(4, list.getTotalWeight());
+        assertTrue(list.isWeighted());
+    }
+
+    @Test
+    public void sameWeight() {
+        WeightedInvokerList<Runnable> list = new WeightedInvokerList<>(invokers(100, 100, 100));
+        assertTrue(list.isSameWeight());
+        assertEquals(300, list.getTotalWeight());
+        assertEquals(3, list.size());
+    }
+
+    @Test
+    public void warmingUpInvokerReducesWeight() {
+        long now = System.currentTimeMillis();
+        List<Invoker<Runnable>> invokers = new ArrayList<>(invokers(100));
+        invokers.add(MockInvoker.builder(Runnable.class, "10.0.0.9", 9000).weight(100).startTimestamp(now - 1000).build());
+        WeightedInvokerList<Runnable> list = new WeightedInvokerList<>(invokers);
+        assertFalse(list.isWarmedUp(now));
+        assertEquals(100, list.getWeight(0, now));
+        assertTrue(list.getWeight(1, now) < 100);
+        assertEquals(100, list.getWeight(1, now + 10 * 60 * 1000));
+    }
+
+    @Test
+    public void indexOfOffsetMatchesLinearScan() {
+        int[][] cases = {
+                {1},
+                {0, 1},
+                {0, 3, 3, 3, 5},
+                {2, 2, 4},
+                {1, 2, 3, 4, 5, 6},
+                {0, 0, 0, 7, 7, 9, 9, 9, 10},
+        };
+        for (int[] prefixWeights : cases) {
+            int total = prefixWeights[prefixWeights.length - 1];
+            for (int offset = 0; offset < total; offset++) {
+                assertEquals(Arrays.toString(prefixWeights) + " offset " + offset,
+                        linearScan(prefixWeights, offset), RandomLoadBalance.indexOfOffset(prefixWeights, offset));
+            }
+        }
+    }
+
+    @Test
+    public void randomSelectionFollowsWeights() {
+        WeightedInvokerList<Runnable> list = new WeightedInvokerList<>(invokers(1, 0, 3));
+        RandomLoadBalance loadBalance = new RandomLoadBalance();
+        int[] counts = new int[list.size()];
+        int rounds = 40000;
+        for (int i = 0; i < rounds; i++) {
+            counts[list.indexOf(loadBalance.select(list, null))]++;
+        }
+        assertEquals(0, counts[1]);
+        assertEquals(0.25, counts[0] / (double) rounds, 0.02);
+        assertEquals(0.75, counts[2] / (double) rounds, 0.02);
+    }
+
+    private static int linearScan(int[] prefixWeights, int offset) {
+        for (int i = 0; i < prefixWeights.length; i++) {
+            if (offset < prefixWeights[i]) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("offset out of range: " + offset);
+    }
+
+    static List<Invoker<Runnable>> invokers(int... weights) {
+        List<Invoker<Runnable>> invokers = new ArrayList<>(weights.length);
+        for (int i = 0; i < weights.length; i++) {
+            invokers.add(MockInvoker.builder(Runnable.class, "10.0.0." + (i + 1), 9000).weight(weights[i]).build());
+        }
+        return invokers;
+    }
+
+}
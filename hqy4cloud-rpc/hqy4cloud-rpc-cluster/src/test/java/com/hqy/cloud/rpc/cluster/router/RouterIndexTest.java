@@ -0,0 +1,91 @@
+package com.hqy.cloud.rpc.cluster.router;
+
+import com.hqy.cloud.rpc.Invoker;
+import com.hqy.cloud.rpc.cluster.MockInvoker;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/19 00:20
+ */
+public class RouterIndexTest {
+
+    private static final int GRAY = 50;
+    private static final int WHITE = 100;
+
+    private final Invoker<Runnable> grayA = MockInvoker.builder(Runnable.class, "10.0.0.1", 9001).pubMode(GRAY).hashFactor("10.0.0.1:9001").build();
+    private final Invoker<Runnable> whiteA = MockInvoker.builder(Runnable.class, "10.0.0.1", 9002).pubMode(WHITE).hashFactor("10.0.0.1:9002").build();
+    private final Invoker<Runnable> whiteB = MockInvoker.builder(Runnable.class, "10.0.0.2", 9001).pubMode(WHITE).build();
+    private final List<Invoker<Runnable>> invokers = Arrays.asList(grayA, whiteA, whiteB);
+
+    @Test
+    public void coversOnlyTheSourceList() {
+        RouterIndex<Runnable> index = RouterIndex.build(invokers);
+        assertTrue(index.covers(invokers));
+        assertFalse(index.covers(new ArrayList<>(invokers)));
+        assertFalse(index.covers(Arrays.asList(whiteB, whiteA, grayA)));
+        assertFalse(index.covers(null));
+    }
+
+    @Test
+    public void emptyIndexCoversNothing() {
+        List<Invoker<Runnable>> empty = Collections.emptyList();
+        RouterIndex<Runnable> index = RouterIndex.build(empty);
+        assertEquals(0, index.size());
+        assertFalse(index.covers(empty));
+        assertFalse(RouterIndex.<Runnable>build(null).covers(empty));
+    }
+
+    @Test
+    public void lookupByHashFactor() {
+        RouterIndex<Runnable> index = RouterIndex.build(invokers);
+        assertSame(grayA, index.getByHashFactor("10.0.0.1:9001"));
+        assertSame(whiteA, index.getByHashFactor("10.0.0.1:9002"));
+        assertNull(index.getByHashFactor("10.0.0.2:9001"));
+        // 没有配置hash因子的服务使用默认值, 不会被索引
+        assertNull(index.getByHashFactor(whiteB.getModel().getHashFactor()));
+    }
+
+    @Test
+    public void lookupByPubModeAndHost() {
+        RouterIndex<Runnable> index = RouterIndex.build(invokers);
+        assertEquals(Collections.singletonList(grayA), index.getByPubMode(GRAY));
+        assertEquals(Arrays.asList(whiteA, whiteB), index.getByPubMode(WHITE));
+        assertTrue(index.getByPubMode(0).isEmpty());
+
+        assertEquals(Arrays.asList(grayA, whiteA), index.getByHost("10.0.0.1"));
+        assertEquals(Collections.singletonList(whiteB), index.getByHost("10.0.0.2"));
+        assertTrue(index.getByHost("10.0.0.3").isEmpty());
+        assertTrue(index.getByHost(null).isEmpty());
+
+        assertEquals(Collections.singletonList(whiteA), index.getByPubModeAndHost(WHITE, "10.0.0.1"));
+        assertTrue(index.getByPubModeAndHost(GRAY, "10.0.0.2").isEmpty());
+        assertTrue(index.getByPubModeAndHost(GRAY, null).isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void indexedListsAreUnmodifiable() {
+        RouterIndex.build(invokers).getByPubMode(WHITE).add(grayA);
+    }
+
+    @Test
+    public void validHashFactor() {
+        assertTrue(RouterIndex.isValidHashFactor("10.0.0.1:9001"));
+        assertFalse(RouterIndex.isValidHashFactor(null));
+        assertFalse(RouterIndex.isValidHashFactor(""));
+        assertFalse(RouterIndex.isValidHashFactor("default"));
+        assertFalse(RouterIndex.isValidHashFactor(":9001"));
+        assertFalse(RouterIndex.isValidHashFactor("10.0.0.1:"));
+        assertFalse(RouterIndex.isValidHashFactor("10.0.0.1:port"));
+        assertFalse(RouterIndex.isValidHashFactor("fe80::1:9001"));
+    }
+
+}
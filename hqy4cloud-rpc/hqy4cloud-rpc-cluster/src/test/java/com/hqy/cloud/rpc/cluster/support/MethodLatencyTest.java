@@ -0,0 +1,113 @@
+package com.hqy.cloud.rpc.cluster.support;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/19 01:00
+ */
+public class MethodLatencyTest {
+
+    @Test
+    public void bucketsContainTheirValues() {
+        int lastIndex = 0;
+        for (long micros = 0; micros < (1 << 20); micros++) {
+            int index = MethodLatency.indexOf(micros);
+            assertTrue("index must not decrease at " + micros, index >= lastIndex);
+            lastIndex = index;
+            // 桶为左闭右开区间 [upperBoundOf(index - 1), upperBoundOf(index))
+            assertTrue(micros < MethodLatency.upperBoundOf(index));
+            if (index > 0) {
+                assertTrue(micros >= MethodLatency.upperBoundOf(index - 1));
+            }
+        }
+    }
+
+    @Test
+    public void bucketWidthIsBounded() {
+        for (long micros = 16; micros < (1L << 30); micros = micros * 3 / 2 + 1) {
+            long upper = MethodLatency.upperBoundOf(MethodLatency.indexOf(micros));
+            // 每个2的幂次分为8个桶, 上界相对误差不超过1/8
+            assertTrue("too wide at " + micros, upper - micros <= micros / 8 + 1);
+        }
+        for (int micros = 0; micros < 16; micros++) {
+            assertEquals(micros + 1, MethodLatency.upperBoundOf(MethodLatency.indexOf(micros)));
+        }
+    }
+
+    @Test
+    public void outOfRangeValuesAreClamped() {
+        assertEquals(0, MethodLatency.indexOf(-5));
+        assertEquals(MethodLatency.BUCKETS - 1, MethodLatency.indexOf(Long.MAX_VALUE));
+        assertEquals(MethodLatency.BUCKETS - 1, MethodLatency.indexOf(1L << 40));
+        assertTrue(MethodLatency.indexOf((1L << 36) - 1) < MethodLatency.BUCKETS);
+    }
+
+    @Test
+    public void percentileOfTheLastWindow() {
+        long base = System.currentTimeMillis();
+        MethodLatency latency = new MethodLatency(90);
+        for (int i = 0; i < 95; i++) {
+            latency.record(100, base);
+        }
+        for (int i = 0; i < 5; i++) {
+            latency.record(50_000, base);
+        }
+        assertEquals(-1, latency.getPercentileMicros());
+        latency.record(100, base + 2 * MethodLatency.WINDOW_MILLIS);
+        long expected = MethodLatency.upperBoundOf(MethodLatency.indexOf(100));
+        assertEquals(expected, latency.getPercentileMicros());
+    }
+
+    @Test
+    public void highPercentileSeesTheTail() {
+        long base = System.currentTimeMillis();
+        MethodLatency latency = new MethodLatency(99);
+        for (int i = 0; i < 95; i++) {
+            latency.record(100, base);
+        }
+        for (int i = 0; i < 5; i++) {
+            latency.record(50_000, base);
+        }
+        latency.record(100, base + 2 * MethodLatency.WINDOW_MILLIS);
+        assertEquals(MethodLatency.upperBoundOf(MethodLatency.indexOf(50_000)), latency.getPercentileMicros());
+    }
+
+    @Test
+    public void windowIsExtendedUntilEnoughSamples() {
+        long base = System.currentTimeMillis();
+        MethodLatency latency = new MethodLatency(50);
+        for (int i = 0; i < 30; i++) {
+            latency.record(200, base);
+        }
+        // 样本不足, 窗口延长
+        latency.record(200, base + 2 * MethodLatency.WINDOW_MILLIS);
+        assertEquals(-1, latency.getPercentileMicros());
+        for (int i = 0; i < 30; i++) {
+            latency.record(200, base + 3 * MethodLatency.WINDOW_MILLIS);
+        }
+        assertEquals(MethodLatency.upperBoundOf(MethodLatency.indexOf(200)), latency.getPercentileMicros());
+    }
+
+    @Test
+    public void sparseWindowIsDroppedAfterMaxWindow() {
+        long base = System.currentTimeMillis();
+        MethodLatency latency = new MethodLatency(50);
+        for (int i = 0; i < 10; i++) {
+            latency.record(200, base);
+        }
+        latency.record(200, base + 2 * MethodLatency.MAX_WINDOW_MILLIS);
+        assertEquals(-1, latency.getPercentileMicros());
+        // 新窗口重新计数, 旧样本不会被计入
+        long next = base + 2 * MethodLatency.MAX_WINDOW_MILLIS;
+        for (int i = 0; i < MethodLatency.MIN_SAMPLES - 2; i++) {
+            latency.record(200, next);
+        }
+        latency.record(200, next + MethodLatency.WINDOW_MILLIS);
+        assertEquals(-1, latency.getPercentileMicros());
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.hqy.cloud.rpc.cluster.support;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/19 00:50
+ */
+public class RetryBudgetTest {
+
+    @Test
+    public void startsFullAndDrains() {
+        RetryBudget budget = new RetryBudget(10, 5);
+        assertEquals(5, budget.getAvailableTokens());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(budget.tryWithdraw());
+        }
+        assertFalse(budget.tryWithdraw());
+        assertEquals(0, budget.getAvailableTokens());
+    }
+
+    @Test
+    public void depositsRefillByPercent() {
+        RetryBudget budget = drained(new RetryBudget(20, 5));
+        // 每个原始请求存入0.2个令牌, 5个原始请求换1次重试
+        for (int i = 0; i < 4; i++) {
+            budget.deposit();
+        }
+        assertFalse(budget.tryWithdraw());
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    public void depositsAreCappedByCapacity() {
+        RetryBudget budget = drained(new RetryBudget(50, 3));
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+        assertEquals(3, budget.getAvailableTokens());
+    }
+
+    @Test
+    public void zeroPercentNeverRefills() {
+        RetryBudget budget = drained(new RetryBudget(0, 2));
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    public void invalidArgumentsAreClamped() {
+        RetryBudget budget = new RetryBudget(-10, 0);
+        assertEquals(1, budget.getAvailableTokens());
+        assertTrue(budget.tryWithdraw());
+        budget.deposit();
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    public void concurrentWithdrawNeverOverdraws() throws InterruptedException {
+        int tokens = 1000;
+        RetryBudget budget = new RetryBudget(0, tokens);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < tokens; i++) {
+                    if (budget.tryWithdraw()) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(tokens, granted.get());
+        assertEquals(0, budget.getAvailableTokens());
+    }
+
+    private static RetryBudget drained(RetryBudget budget) {
+        while (budget.tryWithdraw()) {
+            // drain the initial tokens.
+        }
+        return budget;
+    }
+
+}
@@ -31,19 +31,33 @@ public interface CommonConstants {
     String EVENT_LOOP_WORKER_POOL_NAME  = "NettyServerWorker";
     String EVENT_LOOP_LOGIC_POOL_NAME  = "NettyServerLogic";
 
+    /**
+     * thrift clients are multiplexed, pool parameters are ignored, use {@link #RPC_CLIENT_CONNECTIONS_PER_PROVIDER}.
+     */
+    @Deprecated
     String POOL_MIN_IDLE_PER_KEY = "poolMinIdlePerKey";
+    @Deprecated
     String POOL_MAX_IDLE_PER_KEY = "poolMaxIdlePerKey";
+    @Deprecated
     String POOL_MIN_IDLE = "poolMinIdle";
+    @Deprecated
     String POOL_MAX_IDLE = "poolMaxIdle";
+    @Deprecated
     String POOL_MAX_TOTAL = "poolMaxTotal";
+    String RPC_CLIENT_CONNECTIONS_PER_PROVIDER = "connections";
 
     String RPC_COMMON_SCHEDULED_SERVICE_THREAD = "commonScheduledThreadNum";
     String RPC_CLIENT_DELAY_DISCONNECT_TIME = "clientDisconnectTime";
 
     String RPC_CLUSTER_AVAILABLE_CHECK = "availableCheck";
     String RPC_CLUSTER_STICKY_KEY = "sticky";
+    String RPC_CLUSTER_LOAD_BALANCE = "loadBalance";
     String RPC_CLUSTER_RETRIES_TIMES = "retries";
     String RPC_CLUSTER_FAIL_BACK_TASKS_KEY = "failBackTasks";
+    String RPC_CLUSTER_HEDGE_PERCENTILE = "hedgePercentile";
+    String RPC_CLUSTER_HEDGE_MIN_DELAY = "hedgeMinDelay";
+    String RPC_CLUSTER_RETRY_BUDGET_PERCENT = "retryBudgetPercent";
+    String RPC_CLUSTER_RETRY_BUDGET_MAX_TOKENS = "retryBudgetMaxTokens";
     String SEATA_XID = "xid";
     String RPC_CLIENT_WORKER_THREAD_COUNTS = "clientWorkerCount";
     String THRIFT_MONITOR_APPLICATION_NAME = "monitorApplication";
@@ -58,7 +72,13 @@ public interface CommonConstants {
     int DEFAULT_FAIL_BACK_TIMES = 3;
     int DEFAULT_RETRIES = 0;
     int DEFAULT_FAIL_BACK_TASKS = 100;
+    int DEFAULT_HEDGING_RETRIES = 1;
+    int DEFAULT_HEDGE_PERCENTILE = 95;
+    int DEFAULT_HEDGE_MIN_DELAY = 5;
+    int DEFAULT_RETRY_BUDGET_PERCENT = 10;
+    int DEFAULT_RETRY_BUDGET_MAX_TOKENS = 100;
     int DEFAULT_COMMON_SCHEDULED_SERVICE_THREAD = 4;
+    int DEFAULT_CONNECTIONS_PER_PROVIDER = 2;
 
     String NORMAL_RPC = "normal";
     String SLOW_RPC = "slow";
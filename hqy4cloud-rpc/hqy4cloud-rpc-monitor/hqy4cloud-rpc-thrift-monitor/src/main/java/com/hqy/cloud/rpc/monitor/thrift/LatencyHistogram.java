@@ -0,0 +1,107 @@
+package com.hqy.cloud.rpc.monitor.thrift;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HDR-style log-linear latency histogram (milliseconds).
+ * Every power-of-two range is split into {@link #HALF_SUB_BUCKET_COUNT} linear sub buckets,
+ * a bucket is at most 1/16 of its value wide, so a reported value is within about 6% of the recorded one
+ * with a fixed, small bucket array, values below {@link #SUB_BUCKET_COUNT} millis are exact.
+ * Buckets are striped {@link LongAdder}s created on first use and never reset,
+ * the reader takes interval deltas from cumulative snapshots. {@link MethodFlowRecorder}
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 15:10
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT >> 1;
+
+    /**
+     * values larger than this are recorded as this value, about 12 days.
+     */
+    private static final long MAX_TRACKABLE_VALUE = (1L << 30) - 1;
+    private static final int MAX_EXPONENT = 63 - Long.numberOfLeadingZeros(MAX_TRACKABLE_VALUE) - (SUB_BUCKET_BITS - 1);
+    static final int BUCKET_COUNT = (MAX_EXPONENT + 1) * HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKET_COUNT);
+
+    public void record(long valueMillis) {
+        int index = indexOf(Math.min(Math.max(valueMillis, 0), MAX_TRACKABLE_VALUE));
+        LongAdder adder = buckets.get(index);
+        if (adder == null) {
+            buckets.compareAndSet(index, null, new LongAdder());
+            adder = buckets.get(index);
+        }
+        adder.increment();
+    }
+
+    /**
+     * copy cumulative counts into the given array.
+     * @param counts array with length {@link #BUCKET_COUNT}
+     */
+    public void snapshot(long[] counts) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            LongAdder adder = buckets.get(i);
+            counts[i] = adder == null ? 0 : adder.sum();
+        }
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return exponent * HALF_SUB_BUCKET_COUNT + (int) (value >>> exponent);
+    }
+
+    /**
+     * the highest value equivalent to the bucket, percentiles are reported as upper bound like HdrHistogram.
+     * @param index bucket index.
+     * @return      value in millis.
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / HALF_SUB_BUCKET_COUNT - 1;
+        long subBucket = index - (long) exponent * HALF_SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << exponent) - 1;
+    }
+
+    /**
+     * value at percentiles of the interval counts.
+     * @param counts      interval counts of each bucket.
+     * @param totalCount  sum of counts.
+     * @param percentiles ascending percentiles, e.g. 0.5, 0.99, 0.999
+     * @return            values in millis, same order of percentiles.
+     */
+    static long[] valuesAtPercentiles(long[] counts, long totalCount, double... percentiles) {
+        long[] values = new long[percentiles.length];
+        if (totalCount <= 0) {
+            return values;
+        }
+        int p = 0;
+        long cumulative = 0;
+        for (int i = 0; i < counts.length && p < percentiles.length; i++) {
+            cumulative += counts[i];
+            while (p < percentiles.length && cumulative >= Math.max((long) Math.ceil(percentiles[p] * totalCount), 1)) {
+                values[p++] = highestEquivalentValue(i);
+            }
+        }
+        return values;
+    }
+
+    static long maxValue(long[] counts) {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return 0;
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.hqy.cloud.rpc.monitor.thrift;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * rpc flow recorder of one (caller, provider, service, method).
+ * Writers only touch striped {@link LongAdder}s, counters are cumulative and never reset;
+ * the monitor send thread reports the delta since the previous snapshot, so no call is lost between intervals.
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 15:25
+ */
+public class MethodFlowRecorder {
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private final String service;
+    private final String method;
+
+    private final LongAdder success = new LongAdder();
+    private final LongAdder failure = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    /**
+     * previous snapshot, only accessed by the send thread.
+     */
+    private long lastSuccess;
+    private long lastFailure;
+    private long lastSlow;
+    private long[] lastCounts = new long[LatencyHistogram.BUCKET_COUNT];
+    private long[] currentCounts = new long[LatencyHistogram.BUCKET_COUNT];
+    private int idleIntervals;
+
+    /**
+     * retired recorder has been removed from the monitor, writers should record into a new one.
+     */
+    private volatile boolean retired;
+
+    public MethodFlowRecorder(String service, String method) {
+        this.service = service;
+        this.method = method;
+    }
+
+    public void record(boolean result, boolean slowRpc, long costMillis) {
+        if (result) {
+            success.increment();
+        } else {
+            failure.increment();
+        }
+        if (slowRpc) {
+            slow.increment();
+        }
+        histogram.record(costMillis);
+    }
+
+    /**
+     * take an interval snapshot and merge it into flow item.
+     * @param item flow item of the (caller, provider).
+     * @return     calls in this interval.
+     */
+    public int snapshotTo(StatisticsFlowItem item) {
+        long currentSuccess = success.sum();
+        long currentFailure = failure.sum();
+        long currentSlow = slow.sum();
+        histogram.snapshot(currentCounts);
+
+        int intervalSuccess = (int) (currentSuccess - lastSuccess);
+        int intervalFailure = (int) (currentFailure - lastFailure);
+        int intervalSlow = (int) (currentSlow - lastSlow);
+        long[] intervalCounts = new long[LatencyHistogram.BUCKET_COUNT];
+        long histogramTotal = 0;
+        for (int i = 0; i < intervalCounts.length; i++) {
+            intervalCounts[i] = currentCounts[i] - lastCounts[i];
+            histogramTotal += intervalCounts[i];
+        }
+        lastSuccess = currentSuccess;
+        lastFailure = currentFailure;
+        lastSlow = currentSlow;
+        long[] swap = lastCounts;
+        lastCounts = currentCounts;
+        currentCounts = swap;
+
+        int total = intervalSuccess + intervalFailure;
+        idleIntervals = total == 0 ? idleIntervals + 1 : 0;
+        if (total == 0) {
+            return 0;
+        }
+
+        long[] values = LatencyHistogram.valuesAtPercentiles(intervalCounts, histogramTotal, PERCENTILES);
+        Map<String, Object> latency = new LinkedHashMap<>(8);
+        latency.put("total", total);
+        latency.put("failure", intervalFailure);
+        latency.put("slow", intervalSlow);
+        latency.put("p50", values[0]);
+        latency.put("p99", values[1]);
+        latency.put("p999", values[2]);
+        latency.put("max", LatencyHistogram.maxValue(intervalCounts));
+        item.merge(service, method, intervalSuccess, intervalFailure, latency);
+        return total;
+    }
+
+    public int getIdleIntervals() {
+        return idleIntervals;
+    }
+
+    public void retire() {
+        this.retired = true;
+    }
+
+    public boolean isRetired() {
+        return retired;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+}
@@ -1,5 +1,6 @@
 package com.hqy.cloud.rpc.monitor.thrift;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -21,9 +22,19 @@ public class StatisticsFlowItem {
 
     private Map<String, Integer> serviceDetail;
 
+    /**
+     * latency percentiles of service.method
+     */
+    private Map<String, Map<String, Object>> latencyDetail;
+
     public StatisticsFlowItem() {
     }
 
+    public StatisticsFlowItem(long interval) {
+        this(0, 0, 0, interval, new HashMap<>(8), new HashMap<>(4));
+        this.latencyDetail = new HashMap<>(8);
+    }
+
     public StatisticsFlowItem(int success, int failure, int total, long interval) {
         this.success = success;
         this.failure = failure;
@@ -49,6 +60,24 @@ public class StatisticsFlowItem {
         this.serviceDetail = serviceDetail;
     }
 
+    /**
+     * merge an interval snapshot of service method.
+     * @param service service class name.
+     * @param method  method name.
+     * @param success success count.
+     * @param failure failure count.
+     * @param latency latency detail of the method.
+     */
+    public void merge(String service, String method, int success, int failure, Map<String, Object> latency) {
+        int count = success + failure;
+        this.success += success;
+        this.failure += failure;
+        this.total += count;
+        this.methodDetail.merge(method, count, Integer::sum);
+        this.serviceDetail.merge(service, count, Integer::sum);
+        this.latencyDetail.put(service + "." + method, latency);
+    }
+
     public int getSuccess() {
         return success;
     }
@@ -96,4 +125,12 @@ public class StatisticsFlowItem {
     public void setServiceDetail(Map<String, Integer> serviceDetail) {
         this.serviceDetail = serviceDetail;
     }
+
+    public Map<String, Map<String, Object>> getLatencyDetail() {
+        return latencyDetail;
+    }
+
+    public void setLatencyDetail(Map<String, Map<String, Object>> latencyDetail) {
+        this.latencyDetail = latencyDetail;
+    }
 }
@@ -13,7 +13,6 @@ import com.hqy.cloud.rpc.thrift.struct.ThriftRpcExceptionStruct;
 import com.hqy.cloud.rpc.thrift.struct.ThriftRpcFlowStruct;
 import com.hqy.cloud.util.JsonUtil;
 import com.hqy.cloud.util.spring.ProjectContextInfo;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,16 +20,21 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import static com.hqy.cloud.rpc.CommonConstants.*;
 
 /**
  * ThriftMonitor.
+ * rpc flow is recorded by lock-free {@link MethodFlowRecorder} of each (caller, provider, service, method),
+ * latency percentiles and sampled slow/error rpc are reported in batch at intervals.
  * @see ThriftMonitorService
  * @author qiyuan.hong
  * @version 1.0
@@ -40,27 +44,52 @@ public class ThriftMonitor implements Monitor {
 
     private static final Logger log = LoggerFactory.getLogger(ThriftMonitor.class);
 
-    private final Client client;
+    /**
+     * method recorder is retired after idle intervals.
+     */
+    private static final int MAX_IDLE_INTERVALS = 5;
+
+    /**
+     * upper bound of sampled slow or error rpc waiting for reporting.
+     */
+    private static final int MAX_EXCEPTION_QUEUE_SIZE = 1024;
 
-    private final ExecutorService exceptionExecutorService;
+    private final Client client;
 
     private final RPCModel rpcModel;
 
     private final ScheduledFuture<?> sendFuture;
 
-    private final Map<Statistics, AtomicReference<StatisticsFlowItem>> statisticsMap = MapUtil.newConcurrentHashMap();
+    private final Map<RecorderKey, MethodFlowRecorder> recorderMap = MapUtil.newConcurrentHashMap();
+
+    /**
+     * recorders retired in the last interval, only accessed by the send thread.
+     * a writer may still hold the retired recorder, the final snapshot in the next interval picks up its late samples.
+     */
+    private final Map<RecorderKey, MethodFlowRecorder> retiredRecorders = new HashMap<>();
+
+    /**
+     * sampled slow or error rpc of current interval, reported in batch with the flow data.
+     */
+    private final Queue<ThriftRpcExceptionStruct> exceptionQueue = new ConcurrentLinkedQueue<>();
 
-    private final Map<String, AtomicReference<Integer>> statisticsExceptionMap = MapUtil.newConcurrentHashMap();
+    private final AtomicInteger exceptionQueueSize = new AtomicInteger();
+
+    private final Map<String, AtomicInteger> statisticsExceptionMap = MapUtil.newConcurrentHashMap();
+
+    private final LongAdder droppedExceptions = new LongAdder();
 
     private final long monitorInterval;
 
     private final int maxWarn;
 
+    private volatile long slowRpcTimeMillis = -1;
+
     public ThriftMonitor(Client client, RPCModel rpcModel) {
         this.client = client;
         this.rpcModel = rpcModel;
         ScheduledExecutorService executorService = FrameworkExecutorRepository.getInstance().getSharedScheduledExecutor();
-        this.exceptionExecutorService = FrameworkExecutorRepository.getInstance().getSharedExecutor();
+        // the max sampled slow or error rpc of each method in one interval.
         this.maxWarn = rpcModel.getParameter(RPC_MONITOR_WARNING_KEY, DEFAULT_MONITOR_WARNING_KEY);
         // The time interval for timer <b>scheduledExecutorService</b> to send data
         this.monitorInterval = rpcModel.getParameter(MONITOR_SEND_DATA_INTERVAL_KEY, DEFAULT_MONITOR_SEND_DATA_INTERVAL);
@@ -71,9 +100,6 @@ public class ThriftMonitor implements Monitor {
                 send();
             } catch (Throwable t) {
                 log.error("Unexpected error occur at send statistic, cause: " + t.getMessage(), t);
-            } finally {
-                //reset collection map.
-                statisticsMap.clear();
             }
         }, monitorInterval, monitorInterval, TimeUnit.MILLISECONDS);
     }
@@ -82,11 +108,31 @@ public class ThriftMonitor implements Monitor {
         if (log.isDebugEnabled()) {
             log.debug("Send statics flow struct to thrift monitor.");
         }
-        List<ThriftRpcFlowStruct> structs = new ArrayList<>(statisticsMap.size());
-        for (Map.Entry<Statistics, AtomicReference<StatisticsFlowItem>> entry : statisticsMap.entrySet()) {
+        Map<Statistics, StatisticsFlowItem> items = new HashMap<>(8);
+        for (Map.Entry<RecorderKey, MethodFlowRecorder> entry : retiredRecorders.entrySet()) {
+            entry.getValue().snapshotTo(items.computeIfAbsent(entry.getKey().statistics, k -> new StatisticsFlowItem(monitorInterval)));
+        }
+        retiredRecorders.clear();
+        for (Map.Entry<RecorderKey, MethodFlowRecorder> entry : recorderMap.entrySet()) {
+            RecorderKey key = entry.getKey();
+            MethodFlowRecorder recorder = entry.getValue();
+            // interval snapshot, counters are never reset.
+            StatisticsFlowItem item = items.computeIfAbsent(key.statistics, k -> new StatisticsFlowItem(monitorInterval));
+            if (recorder.snapshotTo(item) == 0 && recorder.getIdleIntervals() >= MAX_IDLE_INTERVALS
+                    && recorderMap.remove(key, recorder)) {
+                // idle (caller, provider, method) is dropped together with its key, the next call creates a new recorder.
+                recorder.retire();
+                retiredRecorders.put(key, recorder);
+            }
+        }
+
+        List<ThriftRpcFlowStruct> structs = new ArrayList<>(items.size());
+        for (Map.Entry<Statistics, StatisticsFlowItem> entry : items.entrySet()) {
             Statistics statistics = entry.getKey();
-            AtomicReference<StatisticsFlowItem> reference = entry.getValue();
-            StatisticsFlowItem statisticsFlowItem = reference.get();
+            StatisticsFlowItem statisticsFlowItem = entry.getValue();
+            if (statisticsFlowItem.getTotal() == 0) {
+                continue;
+            }
             structs.add(new ThriftRpcFlowStruct(statistics.getCaller(),
                     statistics.getProvider(),
                     statisticsFlowItem.getSuccess(),
@@ -94,35 +140,38 @@ public class ThriftMonitor implements Monitor {
                     statisticsFlowItem.getTotal(),
                     statisticsFlowItem.getInterval(),
                     JsonUtil.toJson(statisticsFlowItem.getServiceDetail()),
-                    JsonUtil.toJson(statisticsFlowItem.getMethodDetail())));
-
-            // reset
-            StatisticsFlowItem current;
-            StatisticsFlowItem update = new StatisticsFlowItem();
-
-            do {
-                current = reference.get();
-                if (current == null) {
-                    update.setItem(0, 0, 0, monitorInterval, MapUtil.newHashMap(), MapUtil.newHashMap());
-                } else {
-                    update.setItem(
-                            current.getSuccess() - statisticsFlowItem.getSuccess(),
-                            current.getFailure() - statisticsFlowItem.getFailure(),
-                            current.getTotal() - statisticsFlowItem.getTotal(),
-                            current.getInterval(),
-                            MapUtil.newHashMap(),
-                            MapUtil.newHashMap()
-                    );
-                }
-
-            } while (!reference.compareAndSet(current, update));
+                    JsonUtil.toJson(statisticsFlowItem.getMethodDetail()),
+                    JsonUtil.toJson(statisticsFlowItem.getLatencyDetail())));
         }
-        //send to collect
-        if (structs.isEmpty()) {
+
+        List<ThriftRpcExceptionStruct> exceptionStructs = drainExceptions();
+        if (structs.isEmpty() && exceptionStructs.isEmpty()) {
             return;
         }
+        //send to collect
         ThriftMonitorService monitorService = client.getApplicationService(ThriftMonitorService.class, rpcModel.getName());
-        monitorService.collectRpcFlowList(structs);
+        if (!structs.isEmpty()) {
+            monitorService.collectRpcFlowList(structs);
+        }
+        if (!exceptionStructs.isEmpty()) {
+            monitorService.collectRpcExceptionList(exceptionStructs);
+        }
+    }
+
+    private List<ThriftRpcExceptionStruct> drainExceptions() {
+        // reset sampling window.
+        statisticsExceptionMap.clear();
+        long dropped = droppedExceptions.sumThenReset();
+        if (dropped > 0) {
+            log.warn("Slow or error rpc exceed sampling limit in last interval, dropped: {}.", dropped);
+        }
+        List<ThriftRpcExceptionStruct> structs = new ArrayList<>(exceptionQueueSize.get());
+        ThriftRpcExceptionStruct struct;
+        while ((struct = exceptionQueue.poll()) != null) {
+            exceptionQueueSize.decrementAndGet();
+            structs.add(struct);
+        }
+        return structs;
     }
 
 
@@ -133,89 +182,89 @@ public class ThriftMonitor implements Monitor {
             return;
         }
 
-        boolean result = data.isRpcResult();
+        String rpcEventType = getRpcEventType(data);
         String name = data.getServiceClass().getName();
         String method = data.getMethod();
-        int success = result ? 1 : 0;
-        int failure = result ? 0 : 1;
-
-        Statistics statistics = new Statistics(data);
-        // init atomic reference
-        AtomicReference<StatisticsFlowItem> reference = statisticsMap.computeIfAbsent(statistics, k -> new AtomicReference<>());
-        // use CompareAndSet to sum
-        StatisticsFlowItem current;
-        StatisticsFlowItem update = new StatisticsFlowItem();
-        do {
-            current = reference.get();
-            if (current == null) {
-                Map<String, Integer> methodMap = MapUtil.builder(new HashMap<String, Integer>(4)).put(method, 1).build();
-                Map<String, Integer> serviceMap = MapUtil.builder(new HashMap<String, Integer>(4)).put(name, 1).build();
-                update.setItem(success, failure, 1, monitorInterval, methodMap, serviceMap);
-            } else {
-                Map<String, Integer> methodDetail = current.getMethodDetail();
-                Map<String, Integer> serviceDetail = current.getServiceDetail();
-                Integer methodCount = methodDetail.getOrDefault(method, 0) + 1;
-                Integer serviceCount = serviceDetail.getOrDefault(name, 0) + 1;
-                methodDetail.put(method, methodCount);
-                serviceDetail.put(name, serviceCount);
-                update.setItem(
-                        current.getSuccess() + success,
-                        current.getFailure() + failure,
-                        current.getTotal() + 1,
-                             current.getInterval(),
-                             methodDetail,
-                             serviceDetail
-                );
-            }
-
-        } while (!reference.compareAndSet(current, update));
+        RecorderKey key = new RecorderKey(new Statistics(data), name.concat(StringConstants.Symbol.POINT).concat(method));
+        MethodFlowRecorder recorder = recorderMap.get(key);
+        if (recorder == null || recorder.isRetired()) {
+            recorder = recorderMap.computeIfAbsent(key, k -> new MethodFlowRecorder(name, method));
+        }
+        recorder.record(data.isRpcResult(), SLOW_RPC.equals(rpcEventType), data.getCostMillis());
 
         //if slow rpc or error rpc exist, do collect.
-        checkRpcAndCollectErrorRpc(data);
+        checkRpcAndCollectErrorRpc(data, rpcEventType);
     }
 
 
-    private void checkRpcAndCollectErrorRpc(CollectionData data) {
-        String rpcEventType = getRpcEventType(data);
+    private void checkRpcAndCollectErrorRpc(CollectionData data, String rpcEventType) {
         if (rpcEventType.equalsIgnoreCase(SLOW_RPC) || rpcEventType.equalsIgnoreCase(ERROR_RPC)) {
-            //need collect.
+            // sampling, only the first maxWarn events of each method in one interval are reported.
             String key = data.getMethod().concat(StringConstants.Symbol.COLON).concat(rpcEventType);
-            AtomicReference<Integer> reference = statisticsExceptionMap.computeIfAbsent(key, k -> new AtomicReference<>(0));
-            Integer errorCount = reference.get();
-            int updateCount = errorCount + 1;
-            do {
-                exceptionExecutorService.submit(() -> {
-                    //collect exception rpc.
-                    ThriftMonitorService monitorService = client.getApplicationService(ThriftMonitorService.class, rpcModel.getName());
-                    monitorService.collectRpcException(new ThriftRpcExceptionStruct(rpcEventType,
-                             data.getStartMillis(),
-                             data.getCaller(),
-                             data.getServiceClass().getName(),
-                             data.getMethod(),
-                             data.getCostMillis(),
-                             data.getException().getMessage()));
-                    //Sampling warning to notifier.
-                    if (updateCount % maxWarn == 0) {
-                        // TODO notify.
-                    }
-                });
-            } while (!reference.compareAndSet(errorCount, updateCount));
+            AtomicInteger counter = statisticsExceptionMap.computeIfAbsent(key, k -> new AtomicInteger());
+            if (counter.incrementAndGet() > maxWarn) {
+                droppedExceptions.increment();
+                return;
+            }
+            if (exceptionQueueSize.incrementAndGet() > MAX_EXCEPTION_QUEUE_SIZE) {
+                exceptionQueueSize.decrementAndGet();
+                droppedExceptions.increment();
+                return;
+            }
+            Throwable exception = data.getException();
+            exceptionQueue.offer(new ThriftRpcExceptionStruct(rpcEventType,
+                    data.getStartMillis(),
+                    data.getCaller(),
+                    data.getServiceClass().getName(),
+                    data.getMethod(),
+                    data.getCostMillis(),
+                    exception == null ? StringConstants.EMPTY : exception.getMessage()));
         }
     }
 
 
     private String getRpcEventType(CollectionData data) {
-        String eventType = data.isRpcResult() ? StringConstants.EMPTY : ERROR_RPC;
-        if (StringUtils.isBlank(eventType)) {
-            long slowRpcTimeMillis = CommonConstants.DEFAULT_RPC_SLOW_TIME_MILLIS;
+        if (!data.isRpcResult()) {
+            return ERROR_RPC;
+        }
+        return data.getCostMillis() > getSlowRpcTimeMillis() ? SLOW_RPC : NORMAL_RPC;
+    }
+
+    private long getSlowRpcTimeMillis() {
+        long slowTime = this.slowRpcTimeMillis;
+        if (slowTime < 0) {
+            slowTime = CommonConstants.DEFAULT_RPC_SLOW_TIME_MILLIS;
             RPCModel rpcModel = ProjectContextInfo.getBean(RPCModel.class);
             if (rpcModel != null) {
-                slowRpcTimeMillis = rpcModel.getParameter(RPC_SLOW_TIME_KEY, slowRpcTimeMillis);
+                slowTime = rpcModel.getParameter(RPC_SLOW_TIME_KEY, slowTime);
+                // cache it, the application rpc model is resolved once.
+                this.slowRpcTimeMillis = slowTime;
             }
-            eventType = data.getCostMillis() > slowRpcTimeMillis ? SLOW_RPC : NORMAL_RPC;
         }
-        return eventType;
+        return slowTime;
     }
 
+    private static final class RecorderKey {
+        private final Statistics statistics;
+        private final String methodKey;
+
+        private RecorderKey(Statistics statistics, String methodKey) {
+            this.statistics = statistics;
+            this.methodKey = methodKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RecorderKey that = (RecorderKey) o;
+            return Objects.equals(statistics, that.statistics) && Objects.equals(methodKey, that.methodKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(statistics, methodKey);
+        }
+    }
 
 }
@@ -39,4 +39,11 @@ public interface ThriftMonitorService extends RPCService {
     @ThriftMethod(oneway = true)
     void collectRpcException(@ThriftField(1)ThriftRpcExceptionStruct struct);
 
+    /**
+     * Collects sampled Rpc exceptions at intervals.
+     * @param structs rpc exception details. {@link ThriftRpcExceptionStruct}
+     */
+    @ThriftMethod(oneway = true)
+    void collectRpcExceptionList(@ThriftField(1)List<ThriftRpcExceptionStruct> structs);
+
 }
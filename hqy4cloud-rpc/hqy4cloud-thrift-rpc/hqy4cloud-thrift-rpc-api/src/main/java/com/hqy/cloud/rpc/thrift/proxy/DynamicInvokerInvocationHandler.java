@@ -3,6 +3,7 @@ package com.hqy.cloud.rpc.thrift.proxy;
 import com.hqy.cloud.rpc.Invoker;
 import com.hqy.cloud.rpc.RpcInvocation;
 import com.hqy.cloud.rpc.InvocationCallback;
+import com.hqy.cloud.rpc.thrift.util.ThriftRpcUtils;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
@@ -53,7 +54,8 @@ public class DynamicInvokerInvocationHandler<T> implements InvocationHandler {
             return invoker.equals(args[0]);
         }
 
-        RpcInvocation rpcInvocation = new RpcInvocation(invoker, invocationCallback, method, args);
+        // method declares a CompletableFuture return value, invoke it asynchronously.
+        RpcInvocation rpcInvocation = new RpcInvocation(invoker, invocationCallback, method, args, ThriftRpcUtils.getInvokeMode(method), null);
         return invoker.invoke(rpcInvocation);
     }
 
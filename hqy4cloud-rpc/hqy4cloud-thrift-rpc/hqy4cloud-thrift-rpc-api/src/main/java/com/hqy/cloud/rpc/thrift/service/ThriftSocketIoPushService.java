@@ -4,7 +4,9 @@ import com.facebook.swift.codec.ThriftField;
 import com.facebook.swift.service.ThriftMethod;
 import com.facebook.swift.service.ThriftService;
 import com.hqy.cloud.rpc.service.RPCService;
+import com.hqy.cloud.rpc.thrift.struct.SocketIoPushStruct;
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -61,5 +63,22 @@ public interface ThriftSocketIoPushService extends RPCService {
     void asyncPushMultiple(@ThriftField(1) Set<String> bizIdSet, @ThriftField(2) String eventName, @ThriftField(3) String wsMessageJson);
 
 
+    /**
+     * 批量发送消息-同步, 一次rpc发送多条(bizId, eventName, wsMessageJson)消息, 服务端按事件合并发送
+     * @param messages 消息列表, 调用方应该只包含路由到同一个节点的用户
+     * @return 结果
+     */
+    @ThriftMethod
+    boolean syncPushBatch(@ThriftField(1) List<SocketIoPushStruct> messages);
+
+
+    /**
+     * 批量发送消息-异步
+     * @param messages 消息列表, 调用方应该只包含路由到同一个节点的用户
+     */
+    @ThriftMethod(oneway = true)
+    void asyncPushBatch(@ThriftField(1) List<SocketIoPushStruct> messages);
+
+
 
 }
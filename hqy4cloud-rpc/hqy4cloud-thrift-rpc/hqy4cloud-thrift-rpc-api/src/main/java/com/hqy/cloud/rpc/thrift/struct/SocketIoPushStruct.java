@@ -0,0 +1,40 @@
+package com.hqy.cloud.rpc.thrift.struct;
+
+import com.facebook.swift.codec.ThriftField;
+import com.facebook.swift.codec.ThriftStruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量推送中的一条socket io消息.
+ * @see com.hqy.cloud.rpc.thrift.service.ThriftSocketIoPushService
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 19:10
+ */
+@Data
+@ThriftStruct
+@NoArgsConstructor
+@AllArgsConstructor
+public final class SocketIoPushStruct {
+
+    /**
+     * 发给谁
+     */
+    @ThriftField(1)
+    public String bizId;
+
+    /**
+     * 事件名
+     */
+    @ThriftField(2)
+    public String eventName;
+
+    /**
+     * 事件的json数据
+     */
+    @ThriftField(3)
+    public String wsMessageJson;
+
+}
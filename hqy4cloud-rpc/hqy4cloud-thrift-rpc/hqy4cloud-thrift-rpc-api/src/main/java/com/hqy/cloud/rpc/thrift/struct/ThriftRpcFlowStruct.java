@@ -61,6 +61,13 @@ public final class ThriftRpcFlowStruct {
     @ThriftField(8)
     public String methodDetail;
 
+    /**
+     * latency percentiles(p50/p99/p999, millis) of service.method.
+     * data format -> json
+     */
+    @ThriftField(9)
+    public String latencyDetail;
+
 
     public ThriftRpcFlowStruct() {
     }
@@ -76,4 +83,9 @@ public final class ThriftRpcFlowStruct {
         this.methodDetail = methodDetail;
     }
 
+    public ThriftRpcFlowStruct(String caller, String provider, int success, int failure, int total, long interval, String serviceDetail, String methodDetail, String latencyDetail) {
+        this(caller, provider, success, failure, total, interval, serviceDetail, methodDetail);
+        this.latencyDetail = latencyDetail;
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.hqy.cloud.rpc.thrift.util;
 
 import com.facebook.swift.service.ThriftMethod;
+import com.hqy.cloud.rpc.InvocationUtil;
 import com.hqy.cloud.rpc.InvokeMode;
 
 import java.lang.reflect.Method;
@@ -12,6 +13,13 @@ import java.lang.reflect.Method;
  */
 public class ThriftRpcUtils {
 
+    /**
+     * resolve invoke mode of thrift method, oneway method is {@link InvokeMode#ASYNC},
+     * others are resolved by return type.
+     * @param method rpc method.
+     * @return       invoke mode.
+     * @see InvocationUtil#getInvokeMode(Method)
+     */
     public static InvokeMode getInvokeMode(Method method) {
         ThriftMethod thriftMethod = method.getAnnotation(ThriftMethod.class);
         if (thriftMethod != null) {
@@ -19,7 +27,7 @@ public class ThriftRpcUtils {
                 return InvokeMode.ASYNC;
             }
         }
-        return InvokeMode.SYNC;
+        return InvocationUtil.getInvokeMode(method);
 
     }
 
@@ -6,6 +6,7 @@ import com.hqy.cloud.rpc.thrift.commonpool.MultiplexThriftClientTargetPooled;
 import com.hqy.cloud.rpc.thrift.protocol.ThriftInvoker;
 import com.hqy.cloud.rpc.thrift.support.ThriftClientManagerWrapper;
 import com.hqy.cloud.rpc.cluster.directory.DynamicDirectory;
+import com.hqy.cloud.rpc.cluster.loadbalance.RpcStatus;
 import com.hqy.cloud.rpc.model.RPCModel;
 import com.hqy.cloud.rpc.registry.api.Registry;
 import com.hqy.cloud.rpc.registry.api.RegistryFactory;
@@ -17,6 +18,7 @@ import org.slf4j.LoggerFactory;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -82,14 +84,30 @@ public class ThriftDynamicDirectory<T> extends DynamicDirectory<T> {
             pooled.close();
         } else {
             this.forbidden = false;
+            List<Invoker<T>> oldInvokers = getInvokers();
             List<Invoker<T>> invokers = toInvokers(rpcModels);
-            this.setInvokers(invokers);
-            //
+            // notify routers before publishing the new snapshot.
             routerChain.setInvokers(invokers);
+            this.setInvokers(invokers);
+            releaseRemovedStatus(oldInvokers, invokers);
             pooled.refreshObjectPooled(invokers);
         }
     }
 
+    /**
+     * invokers are rebuilt on every notify, only release the status of the addresses which disappeared from registry,
+     * the status of the remaining addresses is shared by the rebuilt invokers.
+     * @param oldInvokers invokers of the old snapshot.
+     * @param invokers    invokers of the new snapshot.
+     */
+    private void releaseRemovedStatus(List<Invoker<T>> oldInvokers, List<Invoker<T>> invokers) {
+        if (CollectionUtils.isEmpty(oldInvokers)) {
+            return;
+        }
+        Set<String> addresses = invokers.stream().map(invoker -> invoker.getModel().getServerAddress()).collect(Collectors.toSet());
+        oldInvokers.stream().filter(invoker -> !addresses.contains(invoker.getModel().getServerAddress())).forEach(RpcStatus::removeStatus);
+    }
+
     private List<Invoker<T>> toInvokers(List<RPCModel> rpcModels) {
         return rpcModels.stream().map(rpcContext -> {
             try {
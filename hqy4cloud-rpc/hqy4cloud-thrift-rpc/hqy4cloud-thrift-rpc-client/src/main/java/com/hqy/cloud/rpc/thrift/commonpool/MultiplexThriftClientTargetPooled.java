@@ -6,18 +6,14 @@ import com.hqy.cloud.rpc.model.RPCServerAddress;
 import com.hqy.cloud.rpc.threadpool.ExecutorRepository;
 import com.hqy.cloud.rpc.thrift.support.ThriftClientManagerWrapper;
 import com.hqy.cloud.util.AssertUtil;
-import com.hqy.cloud.util.JsonUtil;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.collections4.MapUtils;
-import org.apache.commons.pool2.impl.DefaultPooledObjectInfo;
-import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
-import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -28,8 +24,9 @@ import static com.hqy.cloud.rpc.CommonConstants.*;
 
 /**
  * MultiplexThriftClientTargetPooled.
- * IO multiplexing + object pooling.
+ * IO multiplexing + shared channels, each provider keeps a fixed number of multiplexed clients.
  * @see ThriftClientTargetBaseKeyedFactory
+ * @see MultiplexThriftConnectionManager
  * @author qiyuan.hong
  * @version 1.0
  * @date 2022/7/12 15:57
@@ -39,13 +36,12 @@ public class MultiplexThriftClientTargetPooled<T> {
     private static final Logger log = LoggerFactory.getLogger(MultiplexThriftClientTargetPooled.class);
 
     private final String serviceName;
-    private volatile GenericKeyedObjectPool<RPCServerAddress, T> pool;
     private final ThriftClientTargetBaseKeyedFactory<T> factory;
-    private final GenericKeyedObjectPoolConfig<T> config;
+    private final MultiplexThriftConnectionManager<T> connectionManager;
     private final int delayDisconnectScheduled;
     private final ScheduledExecutorService scheduledExecutorService;
-    private final AtomicBoolean refreshed = new AtomicBoolean(false);
     private final AtomicBoolean closed = new AtomicBoolean(false);
+    private volatile Set<RPCServerAddress> providers = Collections.emptySet();
 
     public MultiplexThriftClientTargetPooled(RPCModel rpcModel, Class<T> serviceType, ThriftClientManagerWrapper clientManagerWrapper, ExecutorRepository executorRepository) {
         AssertUtil.notNull(rpcModel, "RPCContext should not be null.");
@@ -55,117 +51,101 @@ public class MultiplexThriftClientTargetPooled<T> {
         this.factory = new ThriftClientTargetBaseKeyedFactory<>(serviceName, serviceType, clientManagerWrapper);
         this.scheduledExecutorService = executorRepository.getCommonScheduledExecutorService();
         this.delayDisconnectScheduled = rpcModel.getParameter(RPC_CLIENT_DELAY_DISCONNECT_TIME, 5);
-        this.config = initializeObjectPoolConfig(rpcModel);
-        this.pool = new GenericKeyedObjectPool<>(factory, config);
+        int connections = rpcModel.getParameter(RPC_CLIENT_CONNECTIONS_PER_PROVIDER, DEFAULT_CONNECTIONS_PER_PROVIDER);
+        this.connectionManager = new MultiplexThriftConnectionManager<>(factory, connections);
+        warnDeprecatedPoolParameters(rpcModel);
+    }
+
+    @SuppressWarnings("deprecation")
+    private void warnDeprecatedPoolParameters(RPCModel rpcModel) {
+        for (String key : new String[] {POOL_MIN_IDLE_PER_KEY, POOL_MAX_IDLE_PER_KEY, POOL_MIN_IDLE, POOL_MAX_IDLE, POOL_MAX_TOTAL}) {
+            if (StringUtils.isNotBlank(rpcModel.getParameter(key))) {
+                log.warn("Thrift client parameter [{}] of {} is deprecated and ignored, clients are multiplexed, use [{}] instead.",
+                        key, serviceName, RPC_CLIENT_CONNECTIONS_PER_PROVIDER);
+            }
+        }
     }
 
     /**
-     * refresh this object pool.
+     * refresh this object pool by the diff of provider addresses,
+     * connections of the existing providers are kept, only the added providers are connected,
+     * the removed providers are drained and disconnected after {@link #delayDisconnectScheduled} seconds.
      * @param invokers refresh to pool invokes.
      */
-    public void refreshObjectPooled(List<Invoker<T>> invokers) {
-        if (closed.compareAndSet(true, false)) {
-            // pool already close. rebuild pool and initialize pool.
-            pool = new GenericKeyedObjectPool<>(factory, config);
-            initializeObjectPooled(invokers);
-            return;
+    public synchronized void refreshObjectPooled(List<Invoker<T>> invokers) {
+        closed.set(false);
+        Set<RPCServerAddress> addresses = invokers.stream().map(invoker -> invoker.getModel().getServerAddress()).collect(Collectors.toSet());
+        Set<RPCServerAddress> shouldDisconnectAddresses = new HashSet<>(providers);
+        shouldDisconnectAddresses.addAll(connectionManager.addresses());
+        shouldDisconnectAddresses.removeAll(addresses);
+
+        Set<RPCServerAddress> addedAddresses = factory.refreshFramedClientConnectorMap(addresses);
+        this.providers = addresses;
+        for (RPCServerAddress address : addedAddresses) {
+            connectionManager.connect(address);
         }
-
-        //all objectInfo.
-        Map<String, List<DefaultPooledObjectInfo>> allObjects = pool.listAllObjects();
-        Set<String> keySet = allObjects.keySet();
-        if (MapUtils.isEmpty(allObjects)) {
-            initializeObjectPooled(invokers);
-        } else {
-            List<Invoker<T>> shouldInitializeInvokers = new LinkedList<>();
-            for (Invoker<T> invoker : invokers) {
-                String key = invoker.getModel().getServerAddress().toString();
-                if (!keySet.contains(key)) {
-                    shouldInitializeInvokers.add(invoker);
-                    keySet.add(key);
-                }
-            }
-            initializeObjectPooled(shouldInitializeInvokers);
-            // disconnect client.
-            keySet.removeAll(invokers.stream().map(invoker -> invoker.getModel().getServerAddress().toString()).collect(Collectors.toSet()));
-            disconnectObjectPoolThriftClient(allObjects, keySet);
+        if (log.isInfoEnabled() && (!addedAddresses.isEmpty() || !shouldDisconnectAddresses.isEmpty())) {
+            log.info("Refresh thrift client pooled of {}, added: {}, removed: {}.", serviceName, addedAddresses, shouldDisconnectAddresses);
         }
+        // disconnect client.
+        disconnectThriftClient(shouldDisconnectAddresses);
     }
 
-    private void disconnectObjectPoolThriftClient(Map<String, List<DefaultPooledObjectInfo>> allObjects, Set<String> shouldDisconnectKeys) {
-        if (CollectionUtils.isNotEmpty(shouldDisconnectKeys)) {
-            if (log.isInfoEnabled()) {
-                log.info("Do disconnect thrift client, disconnect connections: {}.", JsonUtil.toJson(shouldDisconnectKeys));
-            }
-            scheduledExecutorService.schedule(() -> {
-                List<RPCServerAddress> rpcServerAddresses = shouldDisconnectKeys.stream().map(key -> JsonUtil.toBean(key, RPCServerAddress.class)).collect(Collectors.toList());
-                rpcServerAddresses.forEach(address -> {
-                    try {
-                        invalidTargetClient(address, this.pool.borrowObject(address));
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
-                });
-            }, delayDisconnectScheduled, TimeUnit.SECONDS);
+    private void disconnectThriftClient(Set<RPCServerAddress> shouldDisconnectAddresses) {
+        if (CollectionUtils.isNotEmpty(shouldDisconnectAddresses)) {
+            scheduledExecutorService.schedule(() -> drain(shouldDisconnectAddresses), delayDisconnectScheduled, TimeUnit.SECONDS);
         }
     }
 
-    public synchronized void initializeObjectPooled(List<Invoker<T>> invokers) {
-        factory.refreshFramedClientConnectorMap(invokers);
-        for (Invoker<T> invoker : invokers) {
-            try {
-                pool.addObject(invoker.getModel().getServerAddress());
-            } catch (Exception e) {
-                log.warn("Failed execute to add object. cause {}", e.getMessage());
-            }
+    /**
+     * disconnect the removed providers, skip the providers which come back during the delay.
+     * @param addresses removed provider addresses.
+     */
+    private synchronized void drain(Set<RPCServerAddress> addresses) {
+        Set<RPCServerAddress> current = this.providers;
+        List<RPCServerAddress> removed = addresses.stream().filter(address -> !current.contains(address)).collect(Collectors.toList());
+        if (removed.isEmpty()) {
+            return;
         }
+        log.info("Do disconnect thrift client of {}, disconnect connections: {}.", serviceName, removed);
+        connectionManager.close(removed);
+        factory.removeFramedClientConnectors(removed);
     }
 
-
-    private GenericKeyedObjectPoolConfig<T> initializeObjectPoolConfig(RPCModel rpcModel) {
-        GenericKeyedObjectPoolConfig<T> pool = new GenericKeyedObjectPoolConfig<>();
-        int processors = Runtime.getRuntime().availableProcessors();
-        int minIdle = rpcModel.getParameter(POOL_MIN_IDLE_PER_KEY, 0);
-        int maxIdle = rpcModel.getParameter(POOL_MAX_IDLE_PER_KEY, processors);
-        int maxTotal = rpcModel.getParameter(POOL_MAX_TOTAL, processors * 2);
-        pool.setMaxTotal(maxTotal);
-        pool.setMinIdlePerKey(minIdle);
-        pool.setMaxTotalPerKey(maxIdle);
-        pool.setTestOnBorrow(true);
-        pool.setTestOnReturn(false);
-        //支持jmx管理扩展
-        pool.setJmxEnabled(true);
-        pool.setJmxNamePrefix("ThriftClientPool");
-        return pool;
+    public void initializeObjectPooled(List<Invoker<T>> invokers) {
+        refreshObjectPooled(invokers);
     }
 
-
     public String gerServiceInfo(T service) {
       return factory.gerServiceInfo(service);
     }
 
     public T getTargetClient(RPCServerAddress address) throws Exception {
-        return pool.borrowObject(address);
+        return connectionManager.getTarget(address);
     }
 
-    public void returnTargetClient(RPCServerAddress address, T target) {
-        pool.returnObject(address, target);
+    /**
+     * whether the netty channel of the client target is still usable.
+     * @param target thrift client target.
+     * @return       available or not.
+     */
+    public boolean isAvailable(T target) {
+        return factory.isAvailable(target);
     }
 
-
     public void close() {
         try {
-            if (pool != null && closed.compareAndSet(false, true)) {
-                Map<String, List<DefaultPooledObjectInfo>> map = pool.listAllObjects();
-                if (MapUtils.isNotEmpty(map)) {
-                    // 连接不为空, 等待5秒后清除对象池并关闭连接池
-                    scheduledExecutorService.schedule(() -> {
-                        pool.clear();
-                        pool.close();
-                        pool = null;
-                    }, delayDisconnectScheduled, TimeUnit.SECONDS);
-                }
-                factory.closeConnectionCache(serviceName);
+            if (closed.compareAndSet(false, true)) {
+                // 等待5秒后关闭所有连接, 期间如果重新刷新了服务提供者则保留连接
+                scheduledExecutorService.schedule(() -> {
+                    synchronized (this) {
+                        if (closed.get()) {
+                            this.providers = Collections.emptySet();
+                            connectionManager.close();
+                            factory.closeConnectionCache();
+                        }
+                    }
+                }, delayDisconnectScheduled, TimeUnit.SECONDS);
             }
         } catch (Throwable cause) {
             log.warn(cause.getMessage(), cause);
@@ -173,7 +153,13 @@ public class MultiplexThriftClientTargetPooled<T> {
     }
 
 
-    public void invalidTargetClient(RPCServerAddress serverAddress, T target) throws Exception {
-        pool.invalidateObject(serverAddress, target);
+    /**
+     * destroy the broken channel of the client target, only be called when the channel itself failed,
+     * because the client is shared by other in-flight requests.
+     * @param serverAddress provider address.
+     * @param target        broken client target.
+     */
+    public void invalidTargetClient(RPCServerAddress serverAddress, T target) {
+        connectionManager.invalidate(serverAddress, target);
     }
 }
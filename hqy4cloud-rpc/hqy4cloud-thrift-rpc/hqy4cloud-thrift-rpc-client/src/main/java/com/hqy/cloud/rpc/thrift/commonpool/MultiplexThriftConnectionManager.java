@@ -0,0 +1,149 @@
+package com.hqy.cloud.rpc.thrift.commonpool;
+
+import cn.hutool.core.map.MapUtil;
+import com.hqy.cloud.rpc.model.RPCServerAddress;
+import com.hqy.cloud.util.AssertUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * MultiplexThriftConnectionManager.
+ * Keep a small fixed number of multiplexed thrift clients (one netty channel per client) for each provider,
+ * every client is shared by concurrent callers and requests are correlated by thrift sequence id,
+ * so the number of sockets grows with the number of providers rather than with concurrency.
+ * @see ThriftClientTargetBaseKeyedFactory
+ * @author qiyuan.hong
+ * @version 1.0
+ * @date 2026/10/18 10:21
+ */
+public class MultiplexThriftConnectionManager<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(MultiplexThriftConnectionManager.class);
+
+    private final ThriftClientTargetBaseKeyedFactory<T> factory;
+    private final int connectionsPerProvider;
+    private final Map<RPCServerAddress, Connections<T>> connectionsMap = MapUtil.newConcurrentHashMap();
+
+    public MultiplexThriftConnectionManager(ThriftClientTargetBaseKeyedFactory<T> factory, int connectionsPerProvider) {
+        AssertUtil.notNull(factory, "ThriftClientTargetBaseKeyedFactory should not be null.");
+        this.factory = factory;
+        this.connectionsPerProvider = Math.max(connectionsPerProvider, 1);
+    }
+
+    /**
+     * get a shared client for the provider, the client should not be returned.
+     * @param address provider address.
+     * @return        thrift client target.
+     * @throws Exception create client failed.
+     */
+    public T getTarget(RPCServerAddress address) throws Exception {
+        Connections<T> connections = connectionsMap.computeIfAbsent(address, key -> new Connections<>(connectionsPerProvider));
+        int index = connections.next();
+        T target = connections.targets.get(index);
+        if (target != null && factory.isAvailable(target)) {
+            return target;
+        }
+        synchronized (connections) {
+            target = connections.targets.get(index);
+            if (target != null && factory.isAvailable(target)) {
+                return target;
+            }
+            if (target != null) {
+                factory.destroyTarget(target);
+            }
+            target = factory.create(address);
+            connections.targets.set(index, target);
+            return target;
+        }
+    }
+
+    /**
+     * connect all channels of the provider in advance.
+     * @param address provider address.
+     */
+    public void connect(RPCServerAddress address) {
+        for (int i = 0; i < connectionsPerProvider; i++) {
+            try {
+                getTarget(address);
+            } catch (Exception e) {
+                log.warn("Failed execute to connect provider {}, cause {}", address, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * invalidate a broken client, the next call on this slot will reconnect.
+     * the client is shared, so never invalidate it for the failure of a single call, e.g. timeout.
+     * @param address provider address.
+     * @param target  broken client.
+     */
+    public void invalidate(RPCServerAddress address, T target) {
+        if (target == null) {
+            return;
+        }
+        Connections<T> connections = connectionsMap.get(address);
+        if (connections != null) {
+            for (int i = 0; i < connections.targets.length(); i++) {
+                connections.targets.compareAndSet(i, target, null);
+            }
+        }
+        factory.destroyTarget(target);
+    }
+
+    /**
+     * remove the provider and close all its channels.
+     * @param address provider address.
+     */
+    public void remove(RPCServerAddress address) {
+        Connections<T> connections = connectionsMap.remove(address);
+        if (connections != null) {
+            connections.close(factory);
+        }
+    }
+
+    public Set<RPCServerAddress> addresses() {
+        return connectionsMap.keySet();
+    }
+
+    public void close() {
+        List<RPCServerAddress> addresses = new ArrayList<>(connectionsMap.keySet());
+        addresses.forEach(this::remove);
+    }
+
+    public void close(Collection<RPCServerAddress> addresses) {
+        addresses.forEach(this::remove);
+    }
+
+    private static class Connections<T> {
+        private final AtomicReferenceArray<T> targets;
+        private final AtomicInteger index = new AtomicInteger();
+
+        private Connections(int size) {
+            this.targets = new AtomicReferenceArray<>(size);
+        }
+
+        private int next() {
+            return (index.getAndIncrement() & Integer.MAX_VALUE) % targets.length();
+        }
+
+        private void close(ThriftClientTargetBaseKeyedFactory<T> factory) {
+            for (int i = 0; i < targets.length(); i++) {
+                T target = targets.getAndSet(i, null);
+                if (Objects.nonNull(target)) {
+                    factory.destroyTarget(target);
+                }
+            }
+        }
+    }
+
+}
@@ -5,33 +5,33 @@ import com.facebook.nifty.client.FramedClientConnector;
 import com.facebook.nifty.client.NiftyClientChannel;
 import com.facebook.swift.service.ThriftMethodHandler;
 import com.hqy.cloud.common.base.lang.exception.NoAvailableProviderException;
-import com.hqy.cloud.rpc.Invoker;
 import com.hqy.cloud.rpc.model.RPCServerAddress;
 import com.hqy.cloud.rpc.thrift.ThriftNiftyFramedClientUtils;
 import com.hqy.cloud.rpc.thrift.support.ThriftClientManagerWrapper;
 import com.hqy.cloud.util.AssertUtil;
-import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
-import org.apache.commons.pool2.PooledObject;
-import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
- * Base key{@link RPCServerAddress} for pooled Object factory.
+ * Thrift client target factory base key {@link RPCServerAddress}.
  * <T> Thrift client for service proxy Object. {@link ThriftMethodHandler}
  * @author qiyuan.hong
  * @version 1.0
  * @date 2022/7/12 15:24
  */
-public class ThriftClientTargetBaseKeyedFactory<T> extends BaseKeyedPooledObjectFactory<RPCServerAddress, T> {
+public class ThriftClientTargetBaseKeyedFactory<T> {
     private static final Logger log = LoggerFactory.getLogger(ThriftClientTargetBaseKeyedFactory.class);
 
-    private static final Map<String, Map<RPCServerAddress, FramedClientConnector>> RPC_SERVICE_CONNECTOR_MAP = MapUtil.newConcurrentHashMap();
+    /**
+     * 当前服务提供者的连接器, 服务提供者列表变化时增量更新.
+     */
+    private final Map<RPCServerAddress, FramedClientConnector> connectorMap = MapUtil.newConcurrentHashMap();
     private final String serviceName;
     private final Class<T> rpcInterfaceClass;
 
@@ -43,53 +43,73 @@ public class ThriftClientTargetBaseKeyedFactory<T> extends BaseKeyedPooledObject
         this.serviceName = serviceName;
     }
 
-    @Override
+    /**
+     * create a thrift client target with a new netty channel.
+     * @param serverAddress provider address.
+     * @return              thrift client target.
+     * @throws Exception    no connector or connect failed.
+     */
     public T create(RPCServerAddress serverAddress) throws Exception {
         AssertUtil.notNull(serverAddress, "RPCServerAddress should not be null.");
 
-        Map<RPCServerAddress, FramedClientConnector> rpcServerAddressFramedClientConnectorMap = RPC_SERVICE_CONNECTOR_MAP.get(serviceName);
-        FramedClientConnector connector = rpcServerAddressFramedClientConnectorMap.get(serverAddress);
+        FramedClientConnector connector = connectorMap.get(serverAddress);
         if (connector == null) {
             throw new NoAvailableProviderException("No available connectors for this rpc service "
-                    + rpcInterfaceClass.getName() + ", rpc server address " + serverAddress + ".");
+                    + serviceName + ":" + rpcInterfaceClass.getName() + ", rpc server address " + serverAddress + ".");
         }
         return clientManagerWrapper.createClient(connector, rpcInterfaceClass);
     }
 
-    @Override
-    public PooledObject<T> wrap(T target) {
-        return new DefaultPooledObject<>(target);
+    /**
+     * check the netty channel of client target is still usable.
+     * @param target thrift client target.
+     * @return       available or not.
+     */
+    public boolean isAvailable(T target) {
+        if (Objects.isNull(target)) {
+            return false;
+        }
+        NiftyClientChannel clientChannel = clientManagerWrapper.getClientChannel(target);
+        return Objects.nonNull(clientChannel) && !clientChannel.hasError() && clientChannel.getNettyChannel().isConnected();
     }
 
-    @Override
-    public void destroyObject(RPCServerAddress key, PooledObject<T> p) throws Exception {
-        NiftyClientChannel clientChannel = clientManagerWrapper.getClientChannel(p.getObject());
+    /**
+     * close the netty channel of client target, connector is kept for reconnecting.
+     * @param target thrift client target.
+     */
+    public void destroyTarget(T target) {
+        NiftyClientChannel clientChannel = clientManagerWrapper.getClientChannel(target);
         if (Objects.isNull(clientChannel)) {
             return;
         }
-        if (clientChannel.getNettyChannel().isConnected()) {
+        if (clientChannel.getNettyChannel().isOpen()) {
             clientChannel.close();
-            log.info("Destroy object, close client channel {}", ThriftNiftyFramedClientUtils.printfChannelInfo(clientChannel));
+            log.info("Destroy target, close client channel {}", ThriftNiftyFramedClientUtils.printfChannelInfo(clientChannel));
         }
-        Map<RPCServerAddress, FramedClientConnector> rpcServerAddressFramedClientConnectorMap = RPC_SERVICE_CONNECTOR_MAP.get(serviceName);
-        rpcServerAddressFramedClientConnectorMap.remove(key);
     }
 
-    public void refreshFramedClientConnectorMap(List<Invoker<T>> invokers) {
-        iniFramedClientConnectorMap(invokers);
+    /**
+     * add connectors for the new providers, connectors of the existing providers are kept.
+     * @param addresses current provider addresses.
+     * @return          the added provider addresses.
+     */
+    public Set<RPCServerAddress> refreshFramedClientConnectorMap(Collection<RPCServerAddress> addresses) {
+        Set<RPCServerAddress> added = new HashSet<>();
+        for (RPCServerAddress address : addresses) {
+            connectorMap.computeIfAbsent(address, key -> {
+                added.add(key);
+                return ThriftNiftyFramedClientUtils.createFramedClientConnector(key);
+            });
+        }
+        return added;
     }
 
-    private void iniFramedClientConnectorMap(List<Invoker<T>> invokers) {
-        if (CollectionUtils.isEmpty(invokers)) {
-            RPC_SERVICE_CONNECTOR_MAP.put(serviceName, MapUtil.newConcurrentHashMap(0));
-        }
-        Map<RPCServerAddress, FramedClientConnector> map = MapUtil.newConcurrentHashMap(invokers.size());
-        for (Invoker<T> invoker : invokers) {
-            RPCServerAddress serverAddress = invoker.getModel().getServerAddress();
-            FramedClientConnector framedClientConnector = ThriftNiftyFramedClientUtils.createFramedClientConnector(serverAddress);
-            map.put(serverAddress, framedClientConnector);
-        }
-        RPC_SERVICE_CONNECTOR_MAP.put(serviceName, map);
+    /**
+     * remove connectors of the removed providers.
+     * @param addresses removed provider addresses.
+     */
+    public void removeFramedClientConnectors(Collection<RPCServerAddress> addresses) {
+        addresses.forEach(connectorMap::remove);
     }
 
     public String gerServiceInfo(T service) {
@@ -103,7 +123,7 @@ public class ThriftClientTargetBaseKeyedFactory<T> extends BaseKeyedPooledObject
     /**
      * 连接池关闭时 清除缓存
      */
-    public void closeConnectionCache(String serviceName) {
-        RPC_SERVICE_CONNECTOR_MAP.remove(serviceName);
+    public void closeConnectionCache() {
+        connectorMap.clear();
     }
 }
@@ -8,6 +8,7 @@ import com.facebook.swift.service.exception.support.ThriftServerExceptionRegistr
 import com.hqy.cloud.common.base.lang.exception.NoAvailableProviderException;
 import com.hqy.cloud.common.base.lang.exception.RpcException;
 import com.hqy.cloud.rpc.Invocation;
+import com.hqy.cloud.rpc.InvokeMode;
 import com.hqy.cloud.rpc.Invoker;
 import com.hqy.cloud.rpc.fallback.Fallback;
 import com.hqy.cloud.rpc.model.RPCModel;
@@ -24,6 +25,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 
 import static com.hqy.cloud.common.base.lang.exception.RpcException.NO_PROVIDER_EXCEPTION;
@@ -52,12 +55,15 @@ public class ThriftInvoker<T> extends AbstractInvoker<T> {
 
     @Override
     protected Object doInvoke(Invocation invocation) throws RpcException {
+        if (invocation.getInvokeMode() == InvokeMode.FUTURE) {
+            return doInvokeAsync(invocation);
+        }
         //result obj,
         Object result = null;
         //rpcService proxy.
         T target = null;
-        //need return obj to pool.
-        boolean needReturnTarget = true;
+        //keep the shared client or invalid it.
+        boolean keepTarget = true;
         //netty channel information.
         String targetInfo = "";
         //server address
@@ -70,15 +76,17 @@ public class ThriftInvoker<T> extends AbstractInvoker<T> {
                 invocation.getInvocationCallback().doCallback(result);
             }
         } catch (NoAvailableProviderException e) {
-            needReturnTarget = false;
+            keepTarget = false;
             doNoAvailableProviderException(invocation, e);
         } catch (ExecutionException e) {
-            needReturnTarget = false;
+            // a timeout only fails this call, the shared channel is kept unless it is broken.
+            keepTarget = thriftClientTargetPooled.isAvailable(target);
             doExecutionException(invocation, targetInfo, e);
         } catch (Exception e) {
+            keepTarget = thriftClientTargetPooled.isAvailable(target);
             try {
                 result = doPreException(invocation, e);
-                needReturnTarget = doException(invocation, targetInfo, e);
+                keepTarget = doException(invocation, targetInfo, e) && keepTarget;
             } catch (RpcException rpcException) {
                 throw rpcException;
             } catch (Exception exception) {
@@ -86,13 +94,11 @@ public class ThriftInvoker<T> extends AbstractInvoker<T> {
             }
         } finally {
             try {
-                if (needReturnTarget) {
-                    thriftClientTargetPooled.returnTargetClient(serverAddress, target);
-                } else {
+                if (!keepTarget) {
                     thriftClientTargetPooled.invalidTargetClient(serverAddress, target);
                 }
             } catch (Throwable t) {
-                String err = String.format("ThriftInvoker return target failed, target:%s, method:%s, args:%s",
+                String err = String.format("ThriftInvoker invalid target failed, target:%s, method:%s, args:%s",
                         targetInfo, invocation.getMethod().getName(), Arrays.toString(invocation.getArguments()));
                 log.warn("Failed execute for [{}], {}", err, t.getMessage(), t);
             }
@@ -101,6 +107,97 @@ public class ThriftInvoker<T> extends AbstractInvoker<T> {
         return result;
     }
 
+    /**
+     * Future invocation, the client target is shared by concurrent callers,
+     * the response is correlated by sequence id on the netty channel and completes the returned future.
+     * @param invocation {@link Invocation}
+     * @return           {@link CompletableFuture}
+     * @throws RpcException exception.
+     */
+    private CompletableFuture<Object> doInvokeAsync(Invocation invocation) throws RpcException {
+        CompletableFuture<?> future = null;
+        T target = null;
+        boolean keepTarget = true;
+        String targetInfo = "";
+        RPCServerAddress serverAddress = getModel().getServerAddress();
+        try {
+            target = thriftClientTargetPooled.getTargetClient(serverAddress);
+            targetInfo = thriftClientTargetPooled.gerServiceInfo(target);
+            future = (CompletableFuture<?>) invocation.getMethod().invoke(target, invocation.getArguments());
+        } catch (NoAvailableProviderException e) {
+            keepTarget = false;
+            doNoAvailableProviderException(invocation, e);
+        } catch (Exception e) {
+            keepTarget = thriftClientTargetPooled.isAvailable(target);
+            try {
+                Object result = doPreException(invocation, e);
+                keepTarget = doException(invocation, targetInfo, e) && keepTarget;
+                return CompletableFuture.completedFuture(result);
+            } catch (RpcException rpcException) {
+                throw rpcException;
+            } catch (Exception exception) {
+                throw new RpcException(RpcException.BIZ_EXCEPTION, exception);
+            }
+        } finally {
+            try {
+                if (!keepTarget) {
+                    thriftClientTargetPooled.invalidTargetClient(serverAddress, target);
+                }
+            } catch (Throwable t) {
+                String err = String.format("ThriftInvoker invalid target failed, target:%s, method:%s, args:%s",
+                        targetInfo, invocation.getMethod().getName(), Arrays.toString(invocation.getArguments()));
+                log.warn("Failed execute for [{}], {}", err, t.getMessage(), t);
+            }
+        }
+
+        final String info = targetInfo;
+        CompletableFuture<Object> resultFuture = new CompletableFuture<>();
+        future.whenComplete((result, cause) -> {
+            try {
+                Object value = cause == null ? result : doAsyncException(invocation, info, cause);
+                if (Objects.nonNull(invocation.getInvocationCallback())) {
+                    invocation.getInvocationCallback().doCallback(value);
+                }
+                resultFuture.complete(value);
+            } catch (Throwable t) {
+                resultFuture.completeExceptionally(t);
+            }
+        });
+        return resultFuture;
+    }
+
+    private Object doAsyncException(Invocation invocation, String targetInfo, Throwable cause) throws Exception {
+        Throwable t = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+        if (!(t instanceof Exception)) {
+            throw new RpcException(RpcException.UNKNOWN_EXCEPTION, t);
+        }
+        Exception e = (Exception) t;
+        Fallback fallback = null;
+        if (e instanceof TApplicationException) {
+            ThriftExceptionInformation information = ThriftServerExceptionRegistry.getExceptionInformation(((TApplicationException) e).getType());
+            if (Objects.nonNull(information)) {
+                fallback = invocation.getFallback(information.getExceptionType());
+            }
+        }
+        if (Objects.isNull(fallback)) {
+            fallback = invocation.getFallback(e.getClass());
+        }
+        if (Objects.nonNull(fallback)) {
+            return fallback.handle(this, invocation, e);
+        }
+
+        String err = String.format("ThriftInvoker invoke failed, target:%s, method:%s, args:%s",
+                targetInfo, invocation.getMethod().getName(), Arrays.toString(invocation.getArguments()));
+        if (e instanceof TApplicationException && ((TApplicationException) e).getType() == TApplicationException.MISSING_RESULT) {
+            log.warn("{}, thrift rpc return null.", err);
+            return null;
+        } else if (e instanceof TTransportException) {
+            log.warn("Invoke RPC method, Legitimate Exception happen : {}, {} ", e.getClass().getName(), e.getMessage());
+            throw new RpcException(RpcException.LEGITIMATE_EXCEPTION,  err + ", exception " +  e.getClass().getName(), e);
+        }
+        throw new RpcException(RpcException.UNKNOWN_EXCEPTION,  err + ", exception " +  e.getClass().getName(), e);
+    }
+
     private Object doPreException(Invocation invocation, Exception e) throws Exception {
         Class<? extends Exception> exceptionClass = e.getClass();
         if (exceptionClass.isAssignableFrom(ThriftCustomException.class)) {
@@ -132,6 +229,10 @@ public class ThriftInvoker<T> extends AbstractInvoker<T> {
         return null;
     }
 
+    /**
+     * handle the exception of the call.
+     * @return false if the channel was disconnected by server and should be destroyed.
+     */
     private boolean doException(Invocation invocation, String targetInfo, Exception e) {
         if (checkIfDisconnectedByServer(e)) {
             log.warn("RPC found a serious error and the connection request was rejected by the long connection over the server NIO channel.");
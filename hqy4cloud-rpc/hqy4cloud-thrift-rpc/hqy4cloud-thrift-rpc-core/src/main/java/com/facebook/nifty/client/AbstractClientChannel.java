@@ -305,7 +305,7 @@ public abstract class AbstractClientChannel extends SimpleChannelHandler impleme
     }
 
     private Request makeRequest(int sequenceId, Listener listener) {
-        Request request = new Request(listener);
+        Request request = new Request(sequenceId, listener);
         requestMap.put(sequenceId, request);
         return request;
     }
@@ -444,7 +444,9 @@ public abstract class AbstractClientChannel extends SimpleChannelHandler impleme
 
     private void onSendTimeoutFired(Request request) {
         log.warn("警告，IGNORED RPC TIME OUT（onSendTimeoutFired） ,兼容 超时模式.RPC调用已超时！本次超时被忽略，可以继续调用。");
-        cancelAllRequestTimeouts();
+        //channel被同一provider的所有并发调用共享, 这里只取消并移除超时的这一个请求
+        cancelRequestTimeouts(request);
+        requestMap.remove(request.getSequenceId(), request);
         WriteTimeoutException timeoutException = new WriteTimeoutException("Timed out waiting " + getSendTimeout() + " to send data to server");
         fireChannelErrorCallback(request.getListener(), new TTransportException(TTransportException.TIMED_OUT, timeoutException));
     }
@@ -463,7 +465,9 @@ public abstract class AbstractClientChannel extends SimpleChannelHandler impleme
         //modify by luoshan start 添加钉钉告警
         log.warn("警告，IGNORED RPC TIME OUT（onReceiveTimeoutFired） ,兼容 超时模式.RPC调用已超时！本次超时被忽略，可以继续调用。");
 //        DingdingWarnService.warn("onReceiveTimeoutFired", getRemoteAddr(),new String[] {request.getTmessageName()} );
-        cancelAllRequestTimeouts();
+        //channel被同一provider的所有并发调用共享, 这里只取消并移除超时的这一个请求
+        cancelRequestTimeouts(request);
+        requestMap.remove(request.getSequenceId(), request);
         ReadTimeoutException timeoutException = new ReadTimeoutException("Timed out waiting " + getReceiveTimeout() + " to receive response");
         fireChannelErrorCallback(request.getListener(), new TTransportException(TTransportException.TIMED_OUT, timeoutException));
     }
@@ -472,7 +476,9 @@ public abstract class AbstractClientChannel extends SimpleChannelHandler impleme
         //modify by luoshan start 添加钉钉告警
 //        DingdingWarnService.warn("onReadTimeoutFired",getRemoteAddr(),new String[] {request.getTmessageName()});
         log.warn("警告，IGNORED RPC TIME OUT（onReadTimeoutFired） ,兼容 超时模式.RPC调用已超时！本次超时被忽略，可以继续调用。");
-        cancelAllRequestTimeouts();
+        //channel被同一provider的所有并发调用共享, 这里只取消并移除超时的这一个请求
+        cancelRequestTimeouts(request);
+        requestMap.remove(request.getSequenceId(), request);
         ReadTimeoutException timeoutException = new ReadTimeoutException("Timed out waiting " + getReadTimeout() + " to read data from server");
         fireChannelErrorCallback(request.getListener(), new TTransportException(TTransportException.TIMED_OUT, timeoutException));
     }
@@ -571,6 +577,7 @@ public abstract class AbstractClientChannel extends SimpleChannelHandler impleme
      * yet been received (or in the one-way case, the send operation hasn't completed yet).
      */
     private static class Request {
+        private final int sequenceId;
         private final Listener listener;
         private Timeout sendTimeout;
         private Timeout receiveTimeout;
@@ -578,10 +585,15 @@ public abstract class AbstractClientChannel extends SimpleChannelHandler impleme
 
         private volatile Timeout readTimeout;
 
-        public Request(Listener listener) {
+        public Request(int sequenceId, Listener listener) {
+            this.sequenceId = sequenceId;
             this.listener = listener;
         }
 
+        public int getSequenceId() {
+            return sequenceId;
+        }
+
         public Listener getListener() {
             return listener;
         }
@@ -15,16 +15,26 @@
  */
 package com.facebook.swift.service;
 
+import com.facebook.nifty.client.NiftyClientChannel;
 import com.facebook.nifty.client.RequestChannel;
+import io.airlift.units.Duration;
 import org.apache.thrift.TException;
+import org.apache.thrift.transport.TTransportException;
 import org.jboss.netty.buffer.ChannelBuffer;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Helper class simulating synchronous operations on asynchronous {@link RequestChannel}
  */
 class SyncClientHelpers {
+
+    /**
+     * channel自身的超时定时器正常会先于此触发, 这里多留一点余量, 只作为兜底防止调用线程永久阻塞.
+     */
+    private static final long AWAIT_GRACE_MILLIS = 1000;
+
     /**
      * Sends a single message synchronously, and blocks until the responses is received.
      * <p/>
@@ -65,7 +75,7 @@ class SyncClientHelpers {
             }
         });
 
-        latch.await();
+        await(channel, latch);
 
         if (exceptionHolder[0] != null) {
             throw exceptionHolder[0];
@@ -112,10 +122,22 @@ class SyncClientHelpers {
             }
         });
 
-        latch.await();
+        await(channel, latch);
 
         if (exceptionHolder[0] != null) {
             throw exceptionHolder[0];
         }
     }
+
+    private static void await(RequestChannel channel, CountDownLatch latch) throws TException, InterruptedException {
+        Duration receiveTimeout = channel instanceof NiftyClientChannel ? ((NiftyClientChannel) channel).getReceiveTimeout() : null;
+        long timeoutMillis = receiveTimeout == null ? 0 : receiveTimeout.toMillis();
+        if (timeoutMillis <= 0) {
+            latch.await();
+            return;
+        }
+        if (!latch.await(timeoutMillis + AWAIT_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+            throw new TTransportException(TTransportException.TIMED_OUT, "Timed out waiting " + receiveTimeout + " for request to complete");
+        }
+    }
 }
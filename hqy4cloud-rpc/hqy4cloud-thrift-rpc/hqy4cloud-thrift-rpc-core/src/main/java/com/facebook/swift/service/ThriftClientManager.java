@@ -307,26 +307,6 @@ public class ThriftClientManager implements Closeable {
         }
     }
 
-    public TProtocol getOutputProtocol(Object client) {
-        try {
-            InvocationHandler genericHandler = Proxy.getInvocationHandler(client);
-            ThriftInvocationHandler thriftHandler = (ThriftInvocationHandler) genericHandler;
-            return thriftHandler.getOutputProtocol();
-        } catch (IllegalArgumentException | ClassCastException e) {
-            throw new IllegalArgumentException("Invalid swift client object", e);
-        }
-    }
-
-    public TProtocol getInputProtocol(Object client) {
-        try {
-            InvocationHandler genericHandler = Proxy.getInvocationHandler(client);
-            ThriftInvocationHandler thriftHandler = (ThriftInvocationHandler) genericHandler;
-            return thriftHandler.getInputProtocol();
-        } catch (IllegalArgumentException | ClassCastException e) {
-            throw new IllegalArgumentException("Invalid swift client object", e);
-        }
-    }
-
     @Immutable
     public static class ThriftClientMetadata {
         private final String clientType;
@@ -379,10 +359,6 @@ public class ThriftClientManager implements Closeable {
         private final Map<Method, ThriftMethodHandler> methods;
         private final AtomicInteger sequenceId = new AtomicInteger(1);
         private final List<? extends ThriftClientEventHandler> eventHandlers;
-        private final TChannelBufferInputTransport inputTransport;
-        private final TChannelBufferOutputTransport outputTransport;
-        private final TProtocol inputProtocol;
-        private final TProtocol outputProtocol;
 
         private ThriftInvocationHandler(
                 String clientDescription,
@@ -393,28 +369,12 @@ public class ThriftClientManager implements Closeable {
             this.channel = channel;
             this.methods = methods;
             this.eventHandlers = eventHandlers;
-
-            this.inputTransport = new TChannelBufferInputTransport();
-            this.outputTransport = new TChannelBufferOutputTransport();
-
-            TTransportPair transportPair = fromSeparateTransports(this.inputTransport, this.outputTransport);
-            TProtocolPair protocolPair = channel.getProtocolFactory().getProtocolPair(transportPair);
-            this.inputProtocol = protocolPair.getInputProtocol();
-            this.outputProtocol = protocolPair.getOutputProtocol();
         }
 
         public RequestChannel getChannel() {
             return channel;
         }
 
-        public TProtocol getOutputProtocol() {
-            return outputProtocol;
-        }
-
-        public TProtocol getInputProtocol() {
-            return inputProtocol;
-        }
-
         @Override
         public Object invoke(Object proxy, Method method, Object[] args)
                 throws Throwable {
@@ -459,14 +419,22 @@ public class ThriftClientManager implements Closeable {
                     remoteAddress = niftyClientChannel.getNettyChannel().getRemoteAddress();
                 }
 
-                ClientRequestContext requestContext = new NiftyClientRequestContext(getInputProtocol(), getOutputProtocol(), channel, remoteAddress);
+                // one client is shared by concurrent callers over a multiplexed channel,
+                // so every call owns its transports; responses are correlated by sequence id.
+                TChannelBufferInputTransport callInputTransport = new TChannelBufferInputTransport();
+                TChannelBufferOutputTransport callOutputTransport = new TChannelBufferOutputTransport();
+                TProtocolPair callProtocolPair = channel.getProtocolFactory().getProtocolPair(fromSeparateTransports(callInputTransport, callOutputTransport));
+                TProtocol callInputProtocol = callProtocolPair.getInputProtocol();
+                TProtocol callOutputProtocol = callProtocolPair.getOutputProtocol();
+
+                ClientRequestContext requestContext = new NiftyClientRequestContext(callInputProtocol, callOutputProtocol, channel, remoteAddress);
                 ClientContextChain context = new ClientContextChain(eventHandlers, methodHandler.getQualifiedName(), requestContext);
                 //不管是同步，异步，半工 双工 调用 通通都走这里.... 在ThriftMethodHandler内部才区分
                 return methodHandler.invoke(channel,
-                        inputTransport,
-                        outputTransport,
-                        inputProtocol,
-                        outputProtocol,
+                        callInputTransport,
+                        callOutputTransport,
+                        callInputProtocol,
+                        callOutputProtocol,
                         sequenceId.getAndIncrement(),
                         context,
                         args);
@@ -498,8 +466,8 @@ public class ThriftClientManager implements Closeable {
                 }
                 throw new RuntimeTException(e.getMessage(), e);
             } finally {
-                // 防止内存泄露
-                if (!ok) {
+                // 防止内存泄露, 只有通道本身出错时才清理, 避免影响共享通道上的其他请求.
+                if (!ok && channel.hasError()) {
                     //强化内存回收 防止内存泄露....
                     if (channel instanceof AbstractClientChannel) {
                         ((AbstractClientChannel) channel).disposeMemoryLeak();
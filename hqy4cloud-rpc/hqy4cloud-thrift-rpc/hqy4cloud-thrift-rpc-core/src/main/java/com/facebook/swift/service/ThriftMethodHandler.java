@@ -32,7 +32,10 @@ import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.hqy.cloud.util.ArgsUtil;
 import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TException;
@@ -49,6 +52,7 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static com.facebook.swift.codec.metadata.FieldKind.THRIFT_FIELD;
 import static org.apache.thrift.TApplicationException.*;
@@ -66,6 +70,8 @@ public class ThriftMethodHandler {
 
     private final boolean invokeAsynchronously;
 
+    private final boolean completableFuture;
+
     private static final Logger log = LoggerFactory.getLogger(ThriftMethodHandler.class);
 
 
@@ -80,6 +86,7 @@ public class ThriftMethodHandler {
         name = methodMetadata.getName();
         qualifiedName = methodMetadata.getQualifiedName();
         invokeAsynchronously = methodMetadata.isAsync();
+        completableFuture = methodMetadata.isCompletableFuture();
         oneway = methodMetadata.getOneway();
 
         ParameterHandler[] parameters = new ParameterHandler[exFieldMetadata.size()];
@@ -128,7 +135,8 @@ public class ThriftMethodHandler {
             throws Exception {
         if (invokeAsynchronously) {
             // This method declares a Future return value: run it asynchronously
-            return asynchronousInvoke(channel, inputTransport, outputTransport, inputProtocol, outputProtocol, sequenceId, contextChain, args);
+            ListenableFuture<Object> future = asynchronousInvoke(channel, inputTransport, outputTransport, inputProtocol, outputProtocol, sequenceId, contextChain, args);
+            return completableFuture ? toCompletableFuture(future) : future;
         } else {
             try {
                 // This method declares an immediate return value: run it synchronously
@@ -244,9 +252,11 @@ public class ThriftMethodHandler {
                 RequestContexts.setCurrentContext(requestContext);
                 try {
                     contextChain.preRead();
-                    inputTransport.setInputBuffer(message);
-                    waitForResponse(inputProtocol, sequenceId);
-                    Object results = readResponse(inputProtocol);
+                    // the client may already be serving another request, so never share its input transport here.
+                    TChannelBufferInputTransport responseTransport = new TChannelBufferInputTransport(message);
+                    TProtocol responseProtocol = channel.getProtocolFactory().getInputProtocolFactory().getProtocol(responseTransport);
+                    waitForResponse(responseProtocol, sequenceId);
+                    Object results = readResponse(responseProtocol);
                     contextChain.postRead(results);
                     future.set(results);
                 } catch (Exception e) {
@@ -273,6 +283,22 @@ public class ThriftMethodHandler {
         return future;
     }
 
+    private static CompletableFuture<Object> toCompletableFuture(ListenableFuture<Object> future) {
+        final CompletableFuture<Object> completableFuture = new CompletableFuture<>();
+        Futures.addCallback(future, new FutureCallback<Object>() {
+            @Override
+            public void onSuccess(@Nullable Object result) {
+                completableFuture.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                completableFuture.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return completableFuture;
+    }
+
     public static ThriftFieldMetadata injectGeneralParamFieldMetadata(List<ThriftFieldMetadata> originThriftFieldMetadata, ThriftCodecManager codecManager) {
         short parameterId = (short) (originThriftFieldMetadata.size() + 1);
         String parameterName = "thriftRequestPram";
@@ -53,6 +53,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.apache.thrift.TApplicationException.INTERNAL_ERROR;
 
@@ -267,6 +269,17 @@ public class ThriftMethodProcessor {
             if (response instanceof ListenableFuture) {
                 return (ListenableFuture<?>) response;
             }
+            if (response instanceof CompletableFuture) {
+                final SettableFuture<Object> future = SettableFuture.create();
+                ((CompletableFuture<?>) response).whenComplete((result, cause) -> {
+                    if (cause != null) {
+                        future.setException(cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause);
+                    } else {
+                        future.set(result);
+                    }
+                });
+                return future;
+            }
             return Futures.immediateFuture(response);
         } catch (IllegalAccessException | IllegalArgumentException e) {
             // These really should never happen, since the method metadata should have prevented it
@@ -34,6 +34,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static com.facebook.swift.codec.ThriftField.Requiredness;
 import static com.facebook.swift.codec.metadata.FieldKind.THRIFT_FIELD;
@@ -73,7 +74,7 @@ public class ThriftMethodMetadata
         this.qualifiedName = serviceName + "." + name;
 
         documentation = ThriftCatalog.getThriftDocumentation(method);
-        returnType = catalog.getThriftType(method.getGenericReturnType());
+        returnType = catalog.getThriftType(resolveReturnType(method));
 
         ImmutableList.Builder<ThriftFieldMetadata> builder = ImmutableList.builder();
         Type[] parameterTypes = method.getGenericParameterTypes();
@@ -215,7 +216,25 @@ public class ThriftMethodMetadata
     {
         Type returnType = method.getGenericReturnType();
         Class<?> rawType = TypeToken.of(returnType).getRawType();
-        return ListenableFuture.class.isAssignableFrom(rawType);
+        return ListenableFuture.class.isAssignableFrom(rawType) || CompletableFuture.class.isAssignableFrom(rawType);
+    }
+
+    public boolean isCompletableFuture()
+    {
+        return CompletableFuture.class.isAssignableFrom(method.getReturnType());
+    }
+
+    /**
+     * {@link ThriftCatalog} only unwraps {@link ListenableFuture}, so the value type of a
+     * {@link CompletableFuture} return must be resolved here.
+     */
+    private static Type resolveReturnType(Method method)
+    {
+        Type genericReturnType = method.getGenericReturnType();
+        if (CompletableFuture.class.isAssignableFrom(method.getReturnType())) {
+            return TypeToken.of(genericReturnType).resolveType(CompletableFuture.class.getTypeParameters()[0]).getType();
+        }
+        return genericReturnType;
     }
 
     @Override